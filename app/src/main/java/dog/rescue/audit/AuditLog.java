@@ -0,0 +1,261 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.audit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class is the asynchronous audit log. Request threads hand
+ * {@link AuditRecord}s to {@link #record(AuditRecord)}, which only puts them
+ * in an {@link AuditRingBuffer}. A background thread drains the buffer in
+ * batches and writes each batch to a {@link RotatingAuditFile}. When the
+ * buffer is empty, the writer sleeps for the poll interval, so request
+ * threads never have to wake it.
+ * 
+ * If the writer falls behind and the buffer fills up, the overflow policy
+ * decides what a request thread does: drop the record, which keeps the API's
+ * latency independent of the disk, or wait for room, which keeps every
+ * record. The {@code audit.log.records} counter, tagged with the result
+ * (written, dropped or failed), shows what happened to the records.
+ * 
+ * @author Promineo
+ *
+ */
+@Slf4j
+public class AuditLog implements AutoCloseable {
+  private static final long BLOCK_PARK_NANOS =
+      TimeUnit.MICROSECONDS.toNanos(50);
+  private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+  /**
+   * This is what to do with a record when the buffer is full.
+   */
+  public enum OverflowPolicy {
+    /** Drop the record and count it. */
+    DROP,
+
+    /** Wait until the writer has made room. */
+    BLOCK
+  }
+
+  private final AuditRingBuffer<AuditRecord> buffer;
+  private final RotatingAuditFile file;
+  private final OverflowPolicy overflowPolicy;
+  private final int batchSize;
+  private final long pollNanos;
+  private final Counter written;
+  private final Counter dropped;
+  private final Counter failed;
+  private volatile boolean running;
+  private Thread writer;
+
+  /*
+   * The number of threads inside record(). Once the writer has stopped, it
+   * waits for this to reach zero, so no record is added after its last drain.
+   */
+  private final AtomicInteger recording = new AtomicInteger();
+
+  /**
+   * Create the audit log. It does not write anything until it is started.
+   * 
+   * @param file The file to write the records to.
+   * @param bufferSize The number of records that the buffer holds.
+   * @param overflowPolicy What to do when the buffer is full.
+   * @param batchSize The maximum number of records written at once.
+   * @param pollInterval How long the writer sleeps when the buffer is empty.
+   * @param registry The meter registry.
+   */
+  public AuditLog(RotatingAuditFile file, int bufferSize,
+      OverflowPolicy overflowPolicy, int batchSize, Duration pollInterval,
+      MeterRegistry registry) {
+    this.buffer = new AuditRingBuffer<>(bufferSize);
+    this.file = file;
+    this.overflowPolicy = overflowPolicy;
+    this.batchSize = batchSize;
+    this.pollNanos = pollInterval.toNanos();
+
+    this.written = records(registry, "written");
+    this.dropped = records(registry, "dropped");
+    this.failed = records(registry, "failed");
+
+    // @formatter:off
+    Gauge.builder("audit.log.buffer.size", buffer, AuditRingBuffer::size)
+        .description("Audit records waiting to be written")
+        .register(registry);
+    // @formatter:on
+  }
+
+  /**
+   * Add a record to the log. Unless the buffer is full and the policy is
+   * {@link OverflowPolicy#BLOCK}, this returns at once. Once the writer has
+   * stopped, records are dropped, and a blocked thread gives up.
+   * 
+   * @param record The record.
+   */
+  public void record(AuditRecord record) {
+    recording.incrementAndGet();
+
+    try {
+      if(running && buffer.offer(record)) {
+        return;
+      }
+
+      if(overflowPolicy == OverflowPolicy.BLOCK) {
+        while(running) {
+          LockSupport.parkNanos(BLOCK_PARK_NANOS);
+
+          if(buffer.offer(record)) {
+            return;
+          }
+        }
+      }
+
+      dropped.increment();
+    }
+    finally {
+      recording.decrementAndGet();
+    }
+  }
+
+  /**
+   * Start the writer thread.
+   */
+  public void start() {
+    running = true;
+    writer = new Thread(this::writeRecords, "audit-log-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Stop the writer thread once it has written the records in the buffer.
+   * The writer closes the file when it exits, so the file is never closed
+   * under a write. If the writer has not exited within the timeout, it is
+   * left to finish on its own.
+   */
+  @Override
+  public void close() throws IOException, InterruptedException {
+    running = false;
+
+    if(Objects.isNull(writer)) {
+      file.close();
+      return;
+    }
+
+    LockSupport.unpark(writer);
+    writer.join(STOP_TIMEOUT_MILLIS);
+
+    if(writer.isAlive()) {
+      log.warn("The audit log writer did not stop within {} ms",
+          STOP_TIMEOUT_MILLIS);
+    }
+  }
+
+  /**
+   * Drain the buffer in batches until the log is closed and the buffer is
+   * empty, then count any late records as dropped and close the file. A
+   * batch that cannot be written is counted and skipped. If the writer fails,
+   * the log is stopped, so that threads waiting for room drop their records
+   * instead of waiting forever.
+   */
+  private void writeRecords() {
+    List<AuditRecord> batch = new ArrayList<>(batchSize);
+
+    try {
+      while(true) {
+        if(buffer.drainTo(batch::add, batchSize) > 0) {
+          writeBatch(batch);
+          batch.clear();
+        }
+        else if(running) {
+          LockSupport.parkNanos(pollNanos);
+        }
+        else {
+          return;
+        }
+      }
+    }
+    finally {
+      running = false;
+      dropLeftovers();
+      closeFile();
+    }
+  }
+
+  /**
+   * Count the records that are still in the buffer once the writer has
+   * stopped as dropped. A request thread may have seen the log running just
+   * before it stopped and added its record after the last drain. The writer
+   * waits until no thread is inside {@link #record(AuditRecord)}; any thread
+   * that enters later sees that the log has stopped and drops its own record.
+   */
+  private void dropLeftovers() {
+    while(recording.get() > 0) {
+      LockSupport.parkNanos(BLOCK_PARK_NANOS);
+    }
+
+    int left = buffer.drainTo(record -> {}, Integer.MAX_VALUE);
+
+    if(left > 0) {
+      dropped.increment(left);
+      log.warn("Dropped {} audit records that arrived as the log stopped",
+          left);
+    }
+  }
+
+  /**
+   * Write one batch of records to the file.
+   * 
+   * @param batch The records.
+   */
+  private void writeBatch(List<AuditRecord> batch) {
+    try {
+      file.write(batch);
+      written.increment(batch.size());
+    }
+    catch(IOException e) {
+      failed.increment(batch.size());
+      log.warn("Could not write {} audit records: {}", batch.size(),
+          e.toString());
+    }
+  }
+
+  /**
+   * Close the file from the writer thread.
+   */
+  private void closeFile() {
+    try {
+      file.close();
+    }
+    catch(IOException e) {
+      log.warn("Could not close the audit file: {}", e.toString());
+    }
+  }
+
+  /**
+   * Register a record counter.
+   * 
+   * @param registry The meter registry.
+   * @param result What happened to the records.
+   * @return The counter.
+   */
+  private static Counter records(MeterRegistry registry, String result) {
+    // @formatter:off
+    return Counter.builder("audit.log.records")
+        .description("Audit records by what happened to them")
+        .tag("result", result)
+        .register(registry);
+    // @formatter:on
+  }
+}
@@ -0,0 +1,29 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.audit;
+
+import java.util.Map;
+
+/**
+ * This is one audit record: what a request asked for and how it ended. It
+ * holds only the few fields that identify the request, never the request or
+ * response bodies, and it is turned into JSON on the audit writer thread, not
+ * on the request thread.
+ * 
+ * @param timestamp When the request ended, in milliseconds since the epoch.
+ * @param method The HTTP method.
+ * @param route The URI template, such as "/dog_rescue/location/{locationId}",
+ *        or the request path if no handler was matched.
+ * @param ids The path variables, such as the location ID.
+ * @param status The response status.
+ * @param latencyMicros The time spent on the request in microseconds.
+ * @param exception The simple name of the exception that ended the request,
+ *        or {@code null} if there was none.
+ * 
+ * @author Promineo
+ *
+ */
+public record AuditRecord(long timestamp, String method, String route,
+    Map<String, String> ids, int status, long latencyMicros,
+    String exception) {
+}
@@ -0,0 +1,145 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * This class is a bounded, lock-free queue for many producers and a single
+ * consumer. Request threads add records and the audit writer thread removes
+ * them. Adding a record is one compare-and-set on the tail in the common
+ * case, and it never waits: if the buffer is full, {@link #offer(Object)}
+ * returns false and the caller decides what to do.
+ * 
+ * The slots form a ring whose size is a power of two. Each slot has a
+ * sequence number that says whose turn it is: a producer may fill the slot
+ * at position p when its sequence is p, and the consumer may empty it when
+ * its sequence is p + 1. Emptying the slot sets its sequence to p plus the
+ * capacity, which hands it to the producer on the next lap.
+ * 
+ * @param <E> The type of the elements.
+ * 
+ * @author Promineo
+ *
+ */
+public class AuditRingBuffer<E> {
+  private final int mask;
+  private final AtomicReferenceArray<E> slots;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+
+  /* Only the consumer writes the head. It is volatile for size(). */
+  private volatile long head;
+
+  /**
+   * Create the buffer.
+   * 
+   * @param capacity The minimum number of elements that the buffer holds. It
+   *        is rounded up to a power of two, and to at least two, since with
+   *        a single slot a full slot and an empty one on the next lap have
+   *        the same sequence.
+   */
+  public AuditRingBuffer(int capacity) {
+    if(capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException(
+          "The capacity must be between 1 and 2^30.");
+    }
+
+    int size = Integer.highestOneBit(capacity - 1) << 1;
+
+    size = Math.max(size, 2);
+    this.mask = size - 1;
+    this.slots = new AtomicReferenceArray<>(size);
+    this.sequences = new AtomicLongArray(size);
+
+    for(int index = 0; index < size; index++) {
+      sequences.set(index, index);
+    }
+  }
+
+  /**
+   * Add an element if there is room. This may be called by any thread.
+   * 
+   * @param element The element. It must not be {@code null}.
+   * @return True if the element was added, false if the buffer is full.
+   */
+  public boolean offer(E element) {
+    long position = tail.get();
+
+    while(true) {
+      int index = (int)(position & mask);
+      long difference = sequences.getAcquire(index) - position;
+
+      if(difference == 0) {
+        if(tail.compareAndSet(position, position + 1)) {
+          slots.setPlain(index, element);
+          sequences.setRelease(index, position + 1);
+          return true;
+        }
+
+        position = tail.get();
+      }
+      else if(difference < 0) {
+        return false;
+      }
+      else {
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Remove up to the given number of elements, oldest first, and pass them
+   * to a consumer. This must only be called by the consumer thread.
+   * 
+   * @param consumer Receives the elements.
+   * @param max The maximum number of elements to remove.
+   * @return The number of elements removed.
+   */
+  public int drainTo(Consumer<? super E> consumer, int max) {
+    long position = head;
+    int count = 0;
+
+    while(count < max) {
+      int index = (int)(position & mask);
+
+      if(sequences.getAcquire(index) != position + 1) {
+        break;
+      }
+
+      E element = slots.getPlain(index);
+
+      slots.setPlain(index, null);
+      sequences.setRelease(index, position + mask + 1);
+      consumer.accept(element);
+      position++;
+      count++;
+    }
+
+    head = position;
+    return count;
+  }
+
+  /**
+   * Return the number of elements in the buffer. The count is only a
+   * snapshot while producers are adding.
+   * 
+   * @return The number of elements.
+   */
+  public int size() {
+    long size = tail.get() - head;
+    return (int)Math.max(0, Math.min(size, capacity()));
+  }
+
+  /**
+   * Return the capacity.
+   * 
+   * @return The number of elements that the buffer holds.
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+}
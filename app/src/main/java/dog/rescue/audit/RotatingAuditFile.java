@@ -0,0 +1,176 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.audit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * This class writes audit records to a file as JSON lines, one object per
+ * record, and rotates the file when it grows past a size. The current file is
+ * audit.log. On rotation it becomes audit.1.log, the previous audit.1.log
+ * becomes audit.2.log and so on, and the oldest one beyond the history is
+ * deleted.
+ * 
+ * A batch of records is written to memory first and then to the file with a
+ * single write and flush. Only the audit writer thread uses this class.
+ * 
+ * @author Promineo
+ *
+ */
+public class RotatingAuditFile implements AutoCloseable {
+  private static final String NAME = "audit";
+  private static final String SUFFIX = ".log";
+
+  private final Path directory;
+  private final long maxFileSize;
+  private final int maxHistory;
+  private final JsonFactory jsonFactory = new JsonFactory();
+  private final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+  private OutputStream out;
+  private long size;
+
+  /**
+   * Create the file writer. The file is opened on the first write.
+   * 
+   * @param directory The directory of the audit files.
+   * @param maxFileSize The size at which the current file is rotated.
+   * @param maxHistory The number of rotated files to keep.
+   */
+  public RotatingAuditFile(Path directory, long maxFileSize, int maxHistory) {
+    this.directory = directory;
+    this.maxFileSize = maxFileSize;
+    this.maxHistory = maxHistory;
+  }
+
+  /**
+   * Return the path of the current file or of a rotated file.
+   * 
+   * @param index 0 for the current file, or the number of a rotated file.
+   * @return The path.
+   */
+  public Path path(int index) {
+    return directory.resolve(index == 0 ? NAME + SUFFIX
+        : NAME + "." + index + SUFFIX);
+  }
+
+  /**
+   * Write a batch of records and rotate the file if it is now too big.
+   * 
+   * @param records The records.
+   * @throws IOException Thrown if the file cannot be written or rotated.
+   */
+  public void write(List<AuditRecord> records) throws IOException {
+    batch.reset();
+
+    try(JsonGenerator json = jsonFactory.createGenerator(batch)) {
+      for(AuditRecord record : records) {
+        writeRecord(json, record);
+      }
+    }
+
+    if(Objects.isNull(out)) {
+      open();
+    }
+
+    batch.writeTo(out);
+    out.flush();
+    size += batch.size();
+
+    if(size >= maxFileSize) {
+      rotate();
+    }
+  }
+
+  /**
+   * Close the current file.
+   */
+  @Override
+  public void close() throws IOException {
+    if(Objects.nonNull(out)) {
+      out.close();
+      out = null;
+    }
+  }
+
+  /**
+   * Write one record as a line of JSON.
+   * 
+   * @param json The JSON generator.
+   * @param record The record.
+   * @throws IOException Thrown if the JSON cannot be written.
+   */
+  private void writeRecord(JsonGenerator json, AuditRecord record)
+      throws IOException {
+    json.writeStartObject();
+    json.writeStringField("timestamp",
+        Instant.ofEpochMilli(record.timestamp()).toString());
+    json.writeStringField("method", record.method());
+    json.writeStringField("route", record.route());
+    json.writeObjectFieldStart("ids");
+
+    for(Map.Entry<String, String> id : record.ids().entrySet()) {
+      json.writeStringField(id.getKey(), id.getValue());
+    }
+
+    json.writeEndObject();
+    json.writeNumberField("status", record.status());
+    json.writeNumberField("latencyMicros", record.latencyMicros());
+
+    if(Objects.nonNull(record.exception())) {
+      json.writeStringField("exception", record.exception());
+    }
+
+    json.writeEndObject();
+    json.writeRaw('\n');
+  }
+
+  /**
+   * Open the current file for appending.
+   * 
+   * @throws IOException Thrown if the file cannot be opened.
+   */
+  private void open() throws IOException {
+    Path path = path(0);
+
+    Files.createDirectories(directory);
+    out = Files.newOutputStream(path, StandardOpenOption.CREATE,
+        StandardOpenOption.APPEND);
+    size = Files.size(path);
+  }
+
+  /**
+   * Close the current file, shift the rotated files up by one and start a
+   * new current file on the next write.
+   * 
+   * @throws IOException Thrown if a file cannot be moved or deleted.
+   */
+  private void rotate() throws IOException {
+    close();
+
+    if(maxHistory < 1) {
+      Files.deleteIfExists(path(0));
+      return;
+    }
+
+    Files.deleteIfExists(path(maxHistory));
+
+    for(int index = maxHistory - 1; index >= 0; index--) {
+      if(Files.exists(path(index))) {
+        Files.move(path(index), path(index + 1),
+            StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+  }
+}
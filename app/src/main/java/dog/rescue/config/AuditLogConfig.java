@@ -0,0 +1,67 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import dog.rescue.audit.AuditLog;
+import dog.rescue.audit.RotatingAuditFile;
+import dog.rescue.controller.AuditLogFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * This class turns on the audit log, which records every API request as a
+ * line of JSON in rotated files. It is only loaded when the property
+ * {@code dog-rescue.audit-log.enabled} is {@code true}, which the "audit-log"
+ * profile sets. See {@link AuditLog} and {@link AuditLogFilter}.
+ * 
+ * @author Promineo
+ *
+ */
+@Configuration
+@ConditionalOnProperty(name = "dog-rescue.audit-log.enabled",
+    havingValue = "true")
+@EnableConfigurationProperties(AuditLogProperties.class)
+public class AuditLogConfig {
+
+  /**
+   * Create the audit log and its writer thread.
+   * 
+   * @param properties The audit log properties.
+   * @param registry The meter registry.
+   * @return The audit log.
+   */
+  @Bean(initMethod = "start", destroyMethod = "close")
+  public AuditLog auditLog(AuditLogProperties properties,
+      MeterRegistry registry) {
+    RotatingAuditFile file = new RotatingAuditFile(properties.getDirectory(),
+        properties.getMaxFileSize().toBytes(), properties.getMaxHistory());
+
+    return new AuditLog(file, properties.getBufferSize(),
+        properties.getOverflow(), properties.getBatchSize(),
+        properties.getPollInterval(), registry);
+  }
+
+  /**
+   * Apply the audit filter to the API. It runs before the other filters, so
+   * the latency includes them and requests answered by the response cache
+   * are recorded too.
+   * 
+   * @param auditLog The audit log.
+   * @return The filter registration.
+   */
+  @Bean
+  public FilterRegistrationBean<AuditLogFilter> auditLogFilterRegistration(
+      AuditLog auditLog) {
+    FilterRegistrationBean<AuditLogFilter> registration =
+        new FilterRegistrationBean<>(new AuditLogFilter(auditLog));
+
+    registration.addUrlPatterns("/dog_rescue/*");
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+    return registration;
+  }
+}
@@ -0,0 +1,44 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import dog.rescue.audit.AuditLog.OverflowPolicy;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class holds the {@code dog-rescue.audit-log} properties. See
+ * {@link AuditLogConfig}.
+ * 
+ * @author Promineo
+ *
+ */
+@Data
+@NoArgsConstructor
+@ConfigurationProperties("dog-rescue.audit-log")
+public class AuditLogProperties {
+  /** The directory of the audit files. */
+  private Path directory = Path.of("logs");
+
+  /** The number of records that can wait to be written. */
+  private int bufferSize = 8192;
+
+  /** What a request thread does when the buffer is full. */
+  private OverflowPolicy overflow = OverflowPolicy.DROP;
+
+  /** The maximum number of records written at once. */
+  private int batchSize = 512;
+
+  /** How long the writer sleeps when there is nothing to write. */
+  private Duration pollInterval = Duration.ofMillis(10);
+
+  /** The size at which the current file is rotated. */
+  private DataSize maxFileSize = DataSize.ofMegabytes(10);
+
+  /** The number of rotated files to keep. */
+  private int maxHistory = 5;
+}
@@ -0,0 +1,45 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.config;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import dog.rescue.error.ErrorLogSampler;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * This class limits how often similar errors are logged. It is only loaded
+ * when the property {@code dog-rescue.errors.log-sampling.enabled} is
+ * {@code true}, which the "sampled-errors" profile sets. See
+ * {@link ErrorLogSampler}.
+ * 
+ * Without it, every error response is logged, which is what you want while
+ * debugging but not when a client is looking up missing IDs in bulk.
+ * 
+ * @author Promineo
+ *
+ */
+@Configuration
+@ConditionalOnProperty(name = "dog-rescue.errors.log-sampling.enabled",
+    havingValue = "true")
+public class ErrorLogSamplingConfig {
+
+  /**
+   * Create the error log sampler.
+   * 
+   * @param meterRegistry The registry of the skipped error counters.
+   * @param maxPerWindow The number of errors of each kind that are logged in
+   *        each window.
+   * @param window The length of a window.
+   * @return The sampler.
+   */
+  @Bean
+  public ErrorLogSampler errorLogSampler(MeterRegistry meterRegistry,
+      @Value("${dog-rescue.errors.log-sampling.max-per-window:10}") int maxPerWindow,
+      @Value("${dog-rescue.errors.log-sampling.window:1m}") Duration window) {
+    return new ErrorLogSampler(meterRegistry, maxPerWindow, window);
+  }
+}
@@ -0,0 +1,84 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.config;
+
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import dog.rescue.controller.JsonReadController;
+import dog.rescue.service.LocationJsonService;
+import dog.rescue.service.RescueService;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * This class turns on the JDBC read path for the JSON location listing and
+ * dogs at a location. It is only loaded when the property
+ * {@code dog-rescue.json-read-path.enabled} is {@code true}, which the
+ * "jdbc-json" profile sets. See {@link JsonReadController}.
+ * 
+ * The controller gets its own handler mapping, which is asked before the
+ * default one. Within one mapping, Spring prefers a handler without a
+ * "produces" condition when the Accept header is missing or *&#47;*, so the
+ * JSON handlers would only be used by clients that ask for application/json
+ * by name. Here they are used for every request that accepts JSON. When the
+ * client only accepts another format, this mapping finds no handler and the
+ * request goes on to {@link dog.rescue.controller.RescueController}.
+ * 
+ * @author Promineo
+ *
+ */
+@Configuration
+@ConditionalOnProperty(name = "dog-rescue.json-read-path.enabled",
+    havingValue = "true")
+public class JsonReadPathConfig {
+
+  /**
+   * Create the JSON read controller.
+   * 
+   * @param locationJsonService The JSON read path.
+   * @param rescueService The rescue service.
+   * @return The controller.
+   */
+  @Bean
+  public JsonReadController jsonReadController(
+      LocationJsonService locationJsonService, RescueService rescueService) {
+    return new JsonReadController(locationJsonService, rescueService);
+  }
+
+  /**
+   * Create the handler mapping that holds only the JSON read controller.
+   * 
+   * @param contentNegotiationManager Spring MVC's content negotiation
+   *        manager, so that Accept headers are read the same way as in the
+   *        default mapping.
+   * @return The handler mapping.
+   */
+  @Bean
+  public RequestMappingHandlerMapping jsonReadHandlerMapping(
+      @Qualifier("mvcContentNegotiationManager") ContentNegotiationManager contentNegotiationManager) {
+    RequestMappingHandlerMapping mapping = new RequestMappingHandlerMapping() {
+      @Override
+      protected boolean isHandler(Class<?> beanType) {
+        return JsonReadController.class.isAssignableFrom(beanType);
+      }
+
+      /* Let the default mapping handle, or reject, anything else. */
+      @Override
+      protected HandlerMethod handleNoMatch(Set<RequestMappingInfo> infos,
+          String lookupPath, HttpServletRequest request) {
+        return null;
+      }
+    };
+
+    mapping.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    mapping.setContentNegotiationManager(contentNegotiationManager);
+    return mapping;
+  }
+}
@@ -0,0 +1,118 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.config;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import dog.rescue.controller.SqlMetricsFilter;
+import dog.rescue.dao.FetchedRowCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * This class sets up the application's own metrics. Spring Boot already
+ * publishes the request latency ({@code http.server.requests}, with
+ * histogram buckets turned on in application.yaml) and the Hikari pool
+ * gauges and timers ({@code hikaricp.connections.*}). This class adds:
+ * <ul>
+ * <li>The {@code rescue.service} timer, tagged with the class and method, for
+ * every public method of the service classes annotated with
+ * {@code @Timed}.</li>
+ * <li>The number of SQL statements of each request and, if
+ * {@code dog-rescue.metrics.sql-rows.enabled} is {@code true}, the number of
+ * rows. See {@link SqlMetricsFilter}.</li>
+ * </ul>
+ * Counting rows puts a proxy in front of every result set, which adds a
+ * little to every row that is read, so it is off unless asked for.
+ * All of the meters can be read at /actuator/metrics and scraped in the
+ * Prometheus format at /actuator/prometheus.
+ * 
+ * @author Promineo
+ *
+ */
+@Configuration
+public class MetricsConfig {
+
+  /**
+   * Create the aspect that times the methods annotated with {@code @Timed}.
+   * 
+   * @param registry The meter registry.
+   * @return The aspect.
+   */
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry registry) {
+    return new TimedAspect(registry);
+  }
+
+  /**
+   * Wrap the data source in a proxy that counts the statements run on each
+   * thread and, if row counting is on, the rows read. Spring Boot still finds
+   * the Hikari pool behind the proxy for the pool metrics.
+   * 
+   * @param environment Used to read whether rows are counted. A bean post
+   *        processor is created before the other beans, so the property is
+   *        read from the environment.
+   * @return The bean post processor.
+   */
+  @Bean
+  public static BeanPostProcessor sqlCountingDataSourcePostProcessor(
+      Environment environment) {
+    boolean countRows = countRows(environment);
+
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean,
+          String beanName) {
+        if(bean instanceof DataSource dataSource
+            && !(bean instanceof ProxyDataSource)) {
+          ProxyDataSourceBuilder builder =
+              ProxyDataSourceBuilder.create(beanName, dataSource).countQuery();
+
+          if(countRows) {
+            builder.proxyResultSet().methodListener(new FetchedRowCounter());
+          }
+
+          return builder.build();
+        }
+
+        return bean;
+      }
+    };
+  }
+
+  /**
+   * Apply the SQL count filter to the API.
+   * 
+   * @param registry The meter registry.
+   * @param countRows If true, the rows read are recorded too.
+   * @return The filter registration.
+   */
+  @Bean
+  public FilterRegistrationBean<SqlMetricsFilter> sqlMetricsFilterRegistration(
+      MeterRegistry registry,
+      @Value("${dog-rescue.metrics.sql-rows.enabled:false}") boolean countRows) {
+    FilterRegistrationBean<SqlMetricsFilter> registration =
+        new FilterRegistrationBean<>(new SqlMetricsFilter(registry, countRows));
+
+    registration.addUrlPatterns("/dog_rescue/*");
+    return registration;
+  }
+
+  /**
+   * Return whether the rows read by each request are counted.
+   * 
+   * @param environment The environment.
+   * @return The value of {@code dog-rescue.metrics.sql-rows.enabled}.
+   */
+  private static boolean countRows(Environment environment) {
+    return environment.getProperty("dog-rescue.metrics.sql-rows.enabled",
+        Boolean.class, false);
+  }
+}
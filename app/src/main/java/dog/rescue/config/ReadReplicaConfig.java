@@ -0,0 +1,132 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import dog.rescue.dao.ReplicaPools;
+import dog.rescue.dao.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * This class sends read-only transactions to read replicas. It is only loaded
+ * when the property {@code dog-rescue.read-replicas.enabled} is {@code true},
+ * which the "read-replicas" profile sets.
+ * 
+ * The application's data source routes each transaction by its
+ * {@code @Transactional(readOnly = ...)} setting: read-only transactions go
+ * to the replicas listed under {@code dog-rescue.read-replicas.pools} and all
+ * others, including Flyway's migrations, go to the primary named by
+ * {@code spring.datasource}. Every pool takes the
+ * {@code spring.datasource.hikari} settings. See {@link ReplicaPools} for
+ * the lag fallback and the metrics.
+ * 
+ * A read-only transaction on a replica may not see a write that was just
+ * committed on the primary, up to the allowed lag. Responses that the
+ * "response-cache" profile stores are read from the primary instead.
+ * 
+ * @author Promineo
+ *
+ */
+@Configuration
+@ConditionalOnProperty(name = "dog-rescue.read-replicas.enabled",
+    havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+  private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+  /**
+   * Create the primary and replica pools.
+   * 
+   * @param dataSourceProperties The primary's connection properties.
+   * @param properties The replica properties.
+   * @param environment Used to bind the Hikari settings.
+   * @param registry The meter registry for the pool metrics.
+   * @return The pools.
+   */
+  @Bean(initMethod = "start", destroyMethod = "close")
+  public ReplicaPools replicaPools(DataSourceProperties dataSourceProperties,
+      ReadReplicaProperties properties, Environment environment,
+      MeterRegistry registry) {
+    if(Objects.isNull(properties.getLagQuery())) {
+      throw new IllegalStateException(
+          "dog-rescue.read-replicas.lag-query must be set.");
+    }
+
+    HikariDataSource primary = pool(ReplicaPools.PRIMARY,
+        dataSourceProperties.getUrl(), dataSourceProperties.getUsername(),
+        dataSourceProperties.getPassword(), environment, registry);
+    List<HikariDataSource> replicas = new ArrayList<>();
+
+    for(ReadReplicaProperties.Pool replica : properties.getPools()) {
+      HikariDataSource pool = pool(replica.getName(), replica.getUrl(),
+          Objects.requireNonNullElse(replica.getUsername(),
+              dataSourceProperties.getUsername()),
+          Objects.requireNonNullElse(replica.getPassword(),
+              dataSourceProperties.getPassword()),
+          environment, registry);
+
+      pool.setReadOnly(true);
+      replicas.add(pool);
+    }
+
+    return new ReplicaPools(primary, replicas, properties.getMaxLag(),
+        properties.getLagQuery(), properties.getLagCheckInterval());
+  }
+
+  /**
+   * Create the application's data source, which routes each connection to
+   * one of the pools.
+   * 
+   * @param pools The pools.
+   * @return The data source.
+   */
+  @Bean
+  public DataSource dataSource(ReplicaPools pools) {
+    return new LazyConnectionDataSourceProxy(
+        new ReplicaRoutingDataSource(pools));
+  }
+
+  /**
+   * Create a Hikari pool.
+   * 
+   * @param name The pool name.
+   * @param url The JDBC URL.
+   * @param username The user name.
+   * @param password The password.
+   * @param environment Used to bind the Hikari settings.
+   * @param registry The meter registry for the pool metrics.
+   * @return The pool. It connects when it is first used.
+   */
+  private HikariDataSource pool(String name, String url, String username,
+      String password, Environment environment, MeterRegistry registry) {
+    // @formatter:off
+    HikariDataSource pool = DataSourceBuilder.create()
+        .type(HikariDataSource.class)
+        .url(url)
+        .username(username)
+        .password(password)
+        .build();
+    // @formatter:on
+
+    Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+    pool.setPoolName(name);
+    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+
+    return pool;
+  }
+}
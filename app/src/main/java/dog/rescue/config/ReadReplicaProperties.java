@@ -0,0 +1,50 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class holds the {@code dog-rescue.read-replicas} properties. See
+ * {@link ReadReplicaConfig}.
+ * 
+ * @author Promineo
+ *
+ */
+@Data
+@NoArgsConstructor
+@ConfigurationProperties("dog-rescue.read-replicas")
+public class ReadReplicaProperties {
+  /** The largest lag at which a replica still takes reads. */
+  private Duration maxLag = Duration.ofSeconds(5);
+
+  /** How often the lag of each replica is read. */
+  private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+  /** The query that returns a replica's lag in seconds. */
+  private String lagQuery;
+
+  /** The replicas. */
+  private List<Pool> pools = new ArrayList<>();
+
+  /**
+   * This is the connection information of one replica. A missing user name
+   * or password is taken from {@code spring.datasource}.
+   * 
+   * @author Promineo
+   *
+   */
+  @Data
+  @NoArgsConstructor
+  public static class Pool {
+    private String name;
+    private String url;
+    private String username;
+    private String password;
+  }
+}
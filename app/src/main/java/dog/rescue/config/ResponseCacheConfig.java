@@ -0,0 +1,71 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import dog.rescue.controller.ResponseCacheFilter;
+import dog.rescue.controller.ResponseVersions;
+
+/**
+ * This class turns on the HTTP response cache for the location read
+ * endpoints. It is only loaded when the property
+ * {@code dog-rescue.cache.responses.enabled} is {@code true}, which the
+ * "response-cache" profile sets. See {@link ResponseCacheFilter}.
+ * 
+ * The cache is local to each application instance, so it is only correct
+ * when every write goes through this instance or when a short staleness
+ * across instances is acceptable.
+ * 
+ * @author Promineo
+ *
+ */
+@Configuration
+@ConditionalOnProperty(name = "dog-rescue.cache.responses.enabled",
+    havingValue = "true")
+public class ResponseCacheConfig {
+
+  /**
+   * Create the version counters that are bumped by writes.
+   * 
+   * @return The version counters.
+   */
+  @Bean
+  public ResponseVersions responseVersions() {
+    return new ResponseVersions();
+  }
+
+  /**
+   * Create the response cache filter.
+   * 
+   * @param versions The version counters.
+   * @param maxSize The maximum total size of the cached responses.
+   * @return The filter.
+   */
+  @Bean
+  public ResponseCacheFilter responseCacheFilter(ResponseVersions versions,
+      @Value("${dog-rescue.cache.responses.max-size:64MB}") DataSize maxSize) {
+    return new ResponseCacheFilter(versions, maxSize.toBytes());
+  }
+
+  /**
+   * Apply the response cache filter to the location endpoints only.
+   * 
+   * @param filter The filter.
+   * @return The filter registration.
+   */
+  @Bean
+  public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilterRegistration(
+      ResponseCacheFilter filter) {
+    FilterRegistrationBean<ResponseCacheFilter> registration =
+        new FilterRegistrationBean<>(filter);
+
+    registration.addUrlPatterns("/dog_rescue/location",
+        "/dog_rescue/location/*");
+    return registration;
+  }
+}
@@ -0,0 +1,96 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.config;
+
+import java.io.IOException;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+/**
+ * This class turns on the Hibernate second-level and query caches. It is only
+ * loaded when the property {@code dog-rescue.cache.second-level} is
+ * {@code true}, which the "l2-cache" profile sets.
+ * 
+ * The cache provider is Ehcache, an in-process cache, used through the JCache
+ * API. The regions, with their sizes and time to live, are configured in
+ * ehcache.xml (or the file named by {@code dog-rescue.cache.config}).
+ * Location and Breed entities, the breeds of each dog and the breed lookup
+ * query are cached. Hibernate is given the cache manager created here so that
+ * the hits, misses, puts, removals and evictions of every region can be
+ * published as Micrometer meters, for example
+ * {@code cache.gets{cache=location,result=hit}} and
+ * {@code cache.evictions{cache=location}}.
+ * 
+ * The cache is local to each application instance. It is kept up to date by
+ * Hibernate for writes made through JPA. The JDBC batch intake only inserts
+ * new dogs, which are never in the cache, so it does not make it stale.
+ * 
+ * @author Promineo
+ *
+ */
+@Configuration
+@ConditionalOnProperty(name = "dog-rescue.cache.second-level",
+    havingValue = "true")
+public class SecondLevelCacheConfig {
+  private static final String PROVIDER =
+      "org.ehcache.jsr107.EhcacheCachingProvider";
+
+  /**
+   * Create the JCache cache manager that holds the second-level cache
+   * regions.
+   * 
+   * @param config The Ehcache configuration file.
+   * @return The cache manager.
+   * @throws IOException Thrown if the configuration file cannot be found.
+   */
+  @Bean(destroyMethod = "close")
+  public CacheManager secondLevelCacheManager(
+      @Value("${dog-rescue.cache.config:classpath:ehcache.xml}") Resource config)
+      throws IOException {
+    return Caching.getCachingProvider(PROVIDER)
+        .getCacheManager(config.getURI(), getClass().getClassLoader());
+  }
+
+  /**
+   * Tell Hibernate to use the second-level and query caches in the given
+   * cache manager. A region that is not configured stops the application at
+   * startup instead of being created with no size limit.
+   * 
+   * @param cacheManager The cache manager.
+   * @return The Hibernate properties customizer.
+   */
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheProperties(
+      CacheManager cacheManager) {
+    return properties -> {
+      properties.put("hibernate.cache.use_second_level_cache", true);
+      properties.put("hibernate.cache.use_query_cache", true);
+      properties.put("hibernate.cache.region.factory_class", "jcache");
+      properties.put("hibernate.javax.cache.cache_manager", cacheManager);
+      properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+    };
+  }
+
+  /**
+   * Publish the statistics of every cache region as Micrometer meters.
+   * 
+   * @param cacheManager The cache manager.
+   * @return The meter binder.
+   */
+  @Bean
+  public MeterBinder secondLevelCacheMetrics(CacheManager cacheManager) {
+    return registry -> {
+      for(String name : cacheManager.getCacheNames()) {
+        JCacheMetrics.monitor(registry, cacheManager.getCache(name));
+      }
+    };
+  }
+}
@@ -0,0 +1,98 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class turns on the virtual-thread execution mode. It is only loaded
+ * when the property {@code dog-rescue.threads.virtual} is {@code true}, which
+ * the "virtual-threads" profile sets.
+ * 
+ * In this mode Tomcat runs every request on a new virtual thread instead of a
+ * thread from its fixed pool of platform threads. The controller and the
+ * transactional service methods run on the request thread, so blocking JDBC
+ * calls park a cheap virtual thread instead of holding a scarce platform
+ * thread. Asynchronous MVC work, such as the streaming export, also runs on
+ * virtual threads.
+ * 
+ * With an unbounded number of request threads, the database connection pool
+ * becomes the real concurrency limit. application-virtual-threads.yaml sizes
+ * the pool and sets a short connection timeout so that an overloaded pool
+ * fails fast instead of queuing threads forever.
+ * 
+ * Virtual threads need Java 21 or later. The executor is looked up
+ * reflectively so that the application still compiles and runs on Java 17 in
+ * the default mode. Turning this mode on with an older JVM stops the
+ * application at startup.
+ * 
+ * @author Promineo
+ *
+ */
+@Configuration
+@ConditionalOnProperty(name = "dog-rescue.threads.virtual",
+    havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+  /**
+   * Create the executor that starts a new virtual thread for each task.
+   * 
+   * @return The executor.
+   * @throws IllegalStateException Thrown if the JVM does not support virtual
+   *         threads.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService virtualThreadExecutor() {
+    try {
+      ExecutorService executor = (ExecutorService)Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+
+      log.info("Running requests on virtual threads");
+      return executor;
+    }
+    catch(NoSuchMethodException | IllegalAccessException
+        | InvocationTargetException e) {
+      throw new IllegalStateException("dog-rescue.threads.virtual is true but"
+          + " Java " + Runtime.version().feature()
+          + " does not support virtual threads. Use Java 21 or later.", e);
+    }
+  }
+
+  /**
+   * Make Tomcat run each request on a virtual thread.
+   * 
+   * @param virtualThreadExecutor The virtual-thread executor.
+   * @return The Tomcat customizer.
+   */
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler(
+      ExecutorService virtualThreadExecutor) {
+    return protocolHandler -> protocolHandler
+        .setExecutor(virtualThreadExecutor);
+  }
+
+  /**
+   * Replace Spring Boot's thread pool for asynchronous work, which Spring MVC
+   * uses to run streaming responses, with the virtual-thread executor.
+   * 
+   * @param virtualThreadExecutor The virtual-thread executor.
+   * @return The task executor.
+   */
+  @Bean(
+      name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+  public AsyncTaskExecutor applicationTaskExecutor(
+      ExecutorService virtualThreadExecutor) {
+    return new TaskExecutorAdapter(virtualThreadExecutor);
+  }
+}
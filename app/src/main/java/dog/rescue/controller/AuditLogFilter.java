@@ -0,0 +1,100 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerMapping;
+import dog.rescue.audit.AuditLog;
+import dog.rescue.audit.AuditRecord;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * This filter adds an {@link AuditRecord} to the {@link AuditLog} for every
+ * API request: the method, the URI template, the path variables, the status,
+ * the latency and the exception, if any. The record is built from values that
+ * Spring MVC has already computed, and writing it is left to the audit log's
+ * own thread.
+ * 
+ * A request that starts an asynchronous response, such as the streaming
+ * export, is recorded when the request thread returns, so its latency does
+ * not include the streaming.
+ * 
+ * @author Promineo
+ *
+ */
+public class AuditLogFilter extends OncePerRequestFilter {
+  private static final long NANOS_PER_MICRO = 1000;
+
+  private final AuditLog auditLog;
+
+  /**
+   * Create the filter.
+   * 
+   * @param auditLog The audit log.
+   */
+  public AuditLogFilter(AuditLog auditLog) {
+    this.auditLog = auditLog;
+  }
+
+  /**
+   * Run the request and record how it ended.
+   */
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+      HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    long start = System.nanoTime();
+    Throwable thrown = null;
+
+    try {
+      filterChain.doFilter(request, response);
+    }
+    catch(IOException | ServletException | RuntimeException e) {
+      thrown = e;
+      throw e;
+    }
+    finally {
+      long latency = System.nanoTime() - start;
+
+      auditLog.record(buildRecord(request, response, latency, thrown));
+    }
+  }
+
+  /**
+   * Build the audit record of a request.
+   * 
+   * @param request The request.
+   * @param response The response.
+   * @param latency The time spent on the request in nanoseconds.
+   * @param thrown The exception that left the filter chain, or {@code null}.
+   * @return The record.
+   */
+  @SuppressWarnings("unchecked")
+  private AuditRecord buildRecord(HttpServletRequest request,
+      HttpServletResponse response, long latency, Throwable thrown) {
+    String route = Objects.toString(
+        request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE),
+        request.getRequestURI().substring(request.getContextPath().length()));
+
+    Map<String, String> ids = (Map<String, String>)request
+        .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+
+    Object exception = Objects.nonNull(thrown) ? thrown
+        : request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+
+    int status = Objects.isNull(thrown) ? response.getStatus()
+        : HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+
+    return new AuditRecord(System.currentTimeMillis(), request.getMethod(),
+        route, Objects.isNull(ids) ? Map.of() : Map.copyOf(ids), status,
+        latency / NANOS_PER_MICRO, Objects.isNull(exception) ? null
+            : exception.getClass().getSimpleName());
+  }
+}
@@ -0,0 +1,137 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.ResponseEntity.BodyBuilder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import dog.rescue.service.LocationJsonService;
+import dog.rescue.service.LocationJsonService.DogsJson;
+import dog.rescue.service.LocationJsonService.LocationsJson;
+import dog.rescue.service.RescueService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class answers the JSON requests for the location listing and for the
+ * dogs at a location from {@link LocationJsonService}, which writes the JSON
+ * straight from the JDBC rows. The responses are the same, headers and body,
+ * as those of {@link RescueController}, which still answers every other
+ * request, including these two in CBOR or Smile.
+ *
+ * This class is not a {@code @RestController}. It is only created, and given
+ * its own handler mapping, when the "jdbc-json" profile is active. See
+ * {@link dog.rescue.config.JsonReadPathConfig}.
+ *
+ * @author Promineo
+ *
+ */
+@RequestMapping("/dog_rescue")
+@Slf4j
+public class JsonReadController {
+  private final LocationJsonService locationJsonService;
+  private final RescueService rescueService;
+
+  /**
+   * Create the controller.
+   *
+   * @param locationJsonService The JSON read path.
+   * @param rescueService The rescue service, used to look up ETags.
+   */
+  public JsonReadController(LocationJsonService locationJsonService,
+      RescueService rescueService) {
+    this.locationJsonService = locationJsonService;
+    this.rescueService = rescueService;
+  }
+
+  /**
+   * Retrieve one page of locations with details as JSON. See
+   * {@link RescueController#retrieveAllLocations(int, String)}.
+   *
+   * @param limit The maximum number of locations to return. Defaults to 100.
+   * @param pageToken The token from the previous page. Omit it for the first
+   *        page.
+   * @return The JSON list of locations and dogs.
+   */
+  @GetMapping(value = "/location", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<byte[]> retrieveAllLocations(
+      @RequestParam(defaultValue = "100") int limit,
+      @RequestParam(required = false) String pageToken) {
+    log.debug("Retrieving locations as JSON, limit={}", limit);
+
+    LocationsJson page =
+        locationJsonService.retrieveAllLocations(limit, pageToken);
+    BodyBuilder response = ResponseEntity.ok();
+
+    if(Objects.nonNull(page.nextPageToken())) {
+      response.header(RescueController.NEXT_PAGE_TOKEN_HEADER,
+          page.nextPageToken());
+    }
+
+    return response.contentType(MediaType.APPLICATION_JSON).body(page.json());
+  }
+
+  /**
+   * Retrieve one page of the dogs at a location as JSON. See
+   * {@link RescueController#retrieveAllDogsAtLocation(Long, int, int, String,
+   * String)}.
+   *
+   * A conditional request reads the location's version first, so a 304
+   * response costs a primary key lookup. Otherwise the version is read by the
+   * same query as the dogs.
+   *
+   * @param locationId The ID of the location.
+   * @param page The zero-based page number. Defaults to 0.
+   * @param limit The maximum number of dogs to return. Defaults to 100.
+   * @param ifNoneMatch The ETags that the client already has, if any.
+   * @return The JSON list of the dogs on the requested page.
+   */
+  @GetMapping(value = "/location/{locationId}/dog",
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<byte[]> retrieveAllDogsAtLocation(
+      @PathVariable Long locationId,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "100") int limit,
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH,
+          required = false) String ifNoneMatch) {
+    log.debug("Retrieving dogs at location ID={} as JSON, page={}, limit={}",
+        locationId, page, limit);
+
+    String resource = RescueController.dogsResource(locationId, page, limit);
+
+    if(Objects.nonNull(ifNoneMatch)) {
+      Optional<Long> version =
+          rescueService.retrieveLocationVersion(locationId);
+
+      if(version.isPresent()) {
+        String eTag =
+            RescueController.eTag(resource, version.get(), WireFormat.JSON);
+
+        if(RescueController.matchesETag(ifNoneMatch, eTag)) {
+          return RescueController
+              .withETag(ResponseEntity.status(HttpStatus.NOT_MODIFIED), eTag)
+              .build();
+        }
+      }
+    }
+
+    DogsJson dogs =
+        locationJsonService.retrieveAllDogsAtLocation(locationId, page, limit);
+    BodyBuilder response = ResponseEntity.ok();
+
+    if(Objects.nonNull(dogs.version())) {
+      response = RescueController.withETag(response,
+          RescueController.eTag(resource, dogs.version(), WireFormat.JSON));
+    }
+
+    return response.contentType(MediaType.APPLICATION_JSON).body(dogs.json());
+  }
+}
@@ -0,0 +1,524 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.ResponseEntity.BodyBuilder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import dog.rescue.controller.model.DogCounts;
+import dog.rescue.controller.model.DogInfo;
+import dog.rescue.controller.model.DogIntakeReport;
+import dog.rescue.controller.model.DogSearchCriteria;
+import dog.rescue.controller.model.DogSearchResult;
+import dog.rescue.controller.model.LocationData;
+import dog.rescue.controller.model.LocationPage;
+import dog.rescue.controller.model.LocationPatch;
+import dog.rescue.controller.model.LocationSummary;
+import dog.rescue.controller.model.NearbyLocation;
+import dog.rescue.service.DogCountService;
+import dog.rescue.service.InventoryExportService;
+import dog.rescue.service.LocationGeoIndex;
+import dog.rescue.service.RescueService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class is the controller. Spring routes HTTP requests to methods in this
+ * class. The controller methods call methods in the service layer and return
+ * the results. The @RequestMapping annotation specifies that every HTTP request
+ * URI must start with "/dog_rescue".
+ * 
+ * @author Promineo
+ *
+ */
+@RestController
+@RequestMapping("/dog_rescue")
+@Slf4j
+public class RescueController {
+  /** The response header that carries the token for the next page. */
+  public static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+
+  /* Spring will inject the rescue service in this variable. */
+  @Autowired
+  private RescueService rescueService;
+
+  @Autowired
+  private InventoryExportService inventoryExportService;
+
+  @Autowired
+  private DogCountService dogCountService;
+
+  @Autowired
+  private LocationGeoIndex locationGeoIndex;
+
+  /**
+   * This method creates a dog rescue location. The location data is formatted
+   * as JSON. It is passed in the HTTP request payload. To call this method,
+   * send a POST HTTP request to http://localhost:8080/dog_rescue/location.
+   * 
+   * @param locationData The input location data to add. It must not create the
+   *        primary key value.
+   * @return A locationData object with the primary key value.
+   */
+  @PostMapping("/location")
+  @ResponseStatus(code = HttpStatus.CREATED)
+  public LocationData createLocation(@RequestBody LocationData locationData) {
+    log.debug("Creating location {}", locationData);
+    return rescueService.saveLocation(locationData);
+  }
+
+ /**
+   * This method modifies a dog rescue location. The location data is formatted
+   * as JSON. It is passed in the HTTP request payload. To call this method,
+   * send a PUT HTTP request to http://localhost:8080/dog_rescue/location/{ID}
+   * where {ID} is the location ID.
+   * 
+   * @param locationId The ID of the location to modify.
+   * @param locationData The modified location data.
+   * @return The locationData object containing the modified data.
+   */
+  @PutMapping("/location/{locationId}")
+  public LocationData updateLocation(@PathVariable Long locationId,
+      @RequestBody LocationData locationData) {
+    locationData.setLocationId(locationId);
+    log.debug("Updating location {}", locationData);
+    return rescueService.saveLocation(locationData);
+  }
+
+  /**
+   * This method changes some of the fields of a dog rescue location. Only the
+   * fields in the JSON request payload are changed, and the location's dogs
+   * are not read or written. To call this method, send a PATCH HTTP request
+   * to http://localhost:8080/dog_rescue/location/{ID} where {ID} is the
+   * location ID, with a body such as {"phone": "(410) 555-0100"}.
+   * 
+   * @param locationId The ID of the location to modify.
+   * @param patch The fields to change.
+   * @return A summary of the modified location.
+   */
+  @PatchMapping("/location/{locationId}")
+  public LocationSummary patchLocation(@PathVariable Long locationId,
+      @RequestBody LocationPatch patch) {
+    log.debug("Patching location with ID={}: {}", locationId, patch);
+    return rescueService.patchLocation(locationId, patch);
+  }
+
+  /**
+   * Retrieve all details of the location with the given ID. To call this
+   * method, send an HTTP GET request to
+   * http://localhost:8080/dog_rescue/location/{ID} where {ID} is the ID of the
+   * location to retrieve.
+   * 
+   * The response carries an ETag that changes whenever the location or any of
+   * its dogs changes. If the request's If-None-Match header has the current
+   * ETag, a 304 (Not Modified) response with no body is returned and the
+   * location is not loaded. Each format has its own ETag.
+   * 
+   * @param locationId The ID of the location to retrieve.
+   * @param ifNoneMatch The ETags that the client already has, if any.
+   * @param accept The Accept header, which selects the format, if any.
+   * @return The location details.
+   */
+  @GetMapping("/location/{locationId}")
+  public ResponseEntity<LocationData> retrieveLocation(
+      @PathVariable Long locationId,
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH,
+          required = false) String ifNoneMatch,
+      @RequestHeader(name = HttpHeaders.ACCEPT,
+          required = false) String accept) {
+    log.debug("Retrieving location with ID={}", locationId);
+    return conditionalGet(locationId, locationResource(locationId),
+        WireFormat.negotiate(accept), ifNoneMatch,
+        () -> rescueService.retrieveLocationById(locationId));
+  }
+
+  /**
+   * Answer a GET request for a location or its dogs, honoring If-None-Match.
+   * The location's version is read first with a single primary key lookup.
+   * If the client already has it, 304 is returned and the body is never
+   * built. Otherwise the body is built and returned with the ETag. If the
+   * location changes between the two steps, the client simply gets an older
+   * ETag with the newer body and fetches the body again on its next request.
+   * 
+   * @param <T> The type of the response body.
+   * @param locationId The location ID.
+   * @param resource Names the representation, so that each one has its own
+   *        ETag. See {@link #locationResource(Long)} and
+   *        {@link #dogsResource(Long, int, int)}.
+   * @param format The format that the body will be written in.
+   * @param ifNoneMatch The If-None-Match request header, or {@code null}.
+   * @param body Builds the response body.
+   * @return The response.
+   */
+  private <T> ResponseEntity<T> conditionalGet(Long locationId,
+      String resource, WireFormat format, String ifNoneMatch,
+      Supplier<T> body) {
+    Optional<Long> version = rescueService.retrieveLocationVersion(locationId);
+
+    if(version.isEmpty()) {
+      return ResponseEntity.ok(body.get());
+    }
+
+    String eTag = eTag(resource, version.get(), format);
+
+    if(matchesETag(ifNoneMatch, eTag)) {
+      return withETag(ResponseEntity.status(HttpStatus.NOT_MODIFIED), eTag)
+          .build();
+    }
+
+    return withETag(ResponseEntity.ok(), eTag).body(body.get());
+  }
+
+  /**
+   * Build the ETag of a representation of a location or its dogs. The
+   * location's version changes whenever the location or any of its dogs
+   * changes. A strong ETag must identify a single representation, so the
+   * resource and the format are part of the tag: the location, and each page
+   * of its dogs, have different ETags at the same version, and so do the
+   * JSON, CBOR and Smile bodies of each.
+   * 
+   * @param resource The resource, such as "loc-1" or "dogs-1-p0-l100".
+   * @param version The location's version.
+   * @param format The format of the body.
+   * @return The ETag.
+   */
+  static String eTag(String resource, long version, WireFormat format) {
+    return "\"" + resource + "-v" + version + "-" + format.getSuffix() + "\"";
+  }
+
+  /**
+   * Name a location's details for its ETag.
+   * 
+   * @param locationId The location ID.
+   * @return The resource name.
+   */
+  static String locationResource(Long locationId) {
+    return "loc-" + locationId;
+  }
+
+  /**
+   * Name one page of the dogs at a location for its ETag.
+   * 
+   * @param locationId The location ID.
+   * @param page The zero-based page number.
+   * @param limit The page size.
+   * @return The resource name.
+   */
+  static String dogsResource(Long locationId, int page, int limit) {
+    return "dogs-" + locationId + "-p" + page + "-l" + limit;
+  }
+
+  /**
+   * Add an ETag and the headers that go with it to a response. The client
+   * must revalidate before reusing the response, and caches keep one copy
+   * per format.
+   * 
+   * @param response The response.
+   * @param eTag The ETag.
+   * @return The response.
+   */
+  static BodyBuilder withETag(BodyBuilder response, String eTag) {
+    // @formatter:off
+    return response
+        .eTag(eTag)
+        .cacheControl(CacheControl.noCache())
+        .varyBy(HttpHeaders.ACCEPT);
+    // @formatter:on
+  }
+
+  /**
+   * Check whether an If-None-Match header matches an ETag. The header may
+   * list several ETags or be "*". ETags are compared weakly, as required for
+   * If-None-Match, so a "W/" prefix is ignored. The ETags name the resource,
+   * the version and the format, so a tag only matches the same resource in
+   * the same format. See {@link #eTag(String, long, WireFormat)}.
+   * 
+   * @param ifNoneMatch The If-None-Match request header, or {@code null}.
+   * @param eTag The current ETag.
+   * @return {@code true} if the client already has the current version.
+   */
+  static boolean matchesETag(String ifNoneMatch, String eTag) {
+    if(Objects.isNull(ifNoneMatch)) {
+      return false;
+    }
+
+    for(String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+
+      if(tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+
+      if(tag.equals("*") || tag.equals(eTag)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Retrieve one page of locations with details, sorted by business name. To
+   * call this method, send an HTTP GET request to
+   * http://localhost:8080/dog_rescue/location?limit=100. If there are more
+   * locations, the response carries an {@value #NEXT_PAGE_TOKEN_HEADER} header.
+   * To get the next page, send the value of that header back in the pageToken
+   * parameter: http://localhost:8080/dog_rescue/location?pageToken={token}.
+   * 
+   * @param limit The maximum number of locations to return. Defaults to 100.
+   * @param pageToken The token from the previous page. Omit it for the first
+   *        page.
+   * @return A list of locations and dogs.
+   */
+  @GetMapping("/location")
+  public ResponseEntity<List<LocationData>> retrieveAllLocations(
+      @RequestParam(defaultValue = "100") int limit,
+      @RequestParam(required = false) String pageToken) {
+    log.debug("Retrieving locations, limit={}", limit);
+    return toResponse(rescueService.retrieveAllLocations(limit, pageToken));
+  }
+
+  /**
+   * Retrieve one page of location summaries, sorted by business name. A
+   * summary has the location's name, address, phone number and number of
+   * dogs but not the dogs themselves. To call this method, send an HTTP GET
+   * request to http://localhost:8080/dog_rescue/location/summary?limit=100.
+   * Paging works the same way as in {@link #retrieveAllLocations(int, String)}.
+   * 
+   * @param limit The maximum number of locations to return. Defaults to 100.
+   * @param pageToken The token from the previous page. Omit it for the first
+   *        page.
+   * @return A list of location summaries.
+   */
+  @GetMapping("/location/summary")
+  public ResponseEntity<List<LocationSummary>> retrieveLocationSummaries(
+      @RequestParam(defaultValue = "100") int limit,
+      @RequestParam(required = false) String pageToken) {
+    log.debug("Retrieving location summaries, limit={}", limit);
+    return toResponse(
+        rescueService.retrieveLocationSummaries(limit, pageToken));
+  }
+
+  /**
+   * Find the locations nearest to a ZIP code, closest first. The lookup uses
+   * an in-memory index and does not touch the database. To call this method,
+   * send an HTTP GET request to
+   * http://localhost:8080/dog_rescue/location/nearest?zip=21201&limit=5&withDogs=true.
+   * 
+   * @param zip The caller's ZIP code.
+   * @param limit The maximum number of locations to return. Defaults to 5.
+   * @param withDogs If true, only locations that have dogs are returned.
+   *        Defaults to true.
+   * @return The nearest locations with their distances in kilometers.
+   */
+  @GetMapping("/location/nearest")
+  public List<NearbyLocation> retrieveNearestLocations(@RequestParam String zip,
+      @RequestParam(defaultValue = "5") int limit,
+      @RequestParam(defaultValue = "true") boolean withDogs) {
+    log.debug("Retrieving {} locations nearest to ZIP code {}", limit, zip);
+    return locationGeoIndex.findNearest(zip, limit, withDogs);
+  }
+
+  /**
+   * Convert a page of locations to a response. The locations are returned in
+   * the body and the next page token, if any, in the
+   * {@value #NEXT_PAGE_TOKEN_HEADER} header.
+   * 
+   * @param <T> The type of the location objects.
+   * @param page The page of locations.
+   * @return The response.
+   */
+  private <T> ResponseEntity<List<T>> toResponse(LocationPage<T> page) {
+    BodyBuilder response = ResponseEntity.ok();
+
+    if(Objects.nonNull(page.getNextPageToken())) {
+      response.header(NEXT_PAGE_TOKEN_HEADER, page.getNextPageToken());
+    }
+
+    return response.body(page.getLocations());
+  }
+
+  /**
+   * Retrieve one page of the dogs at a location. To call this method, send an
+   * HTTP GET request to
+   * http://localhost:8080/dog_rescue/location/{locationID}/dog?page=0&limit=100
+   * where {locationId} is the location ID. The page and limit parameters are
+   * optional.
+   * 
+   * @param locationId The ID of the location. This is passed in the URI as
+   *        described above.
+   * @param page The zero-based page number. Defaults to 0.
+   * @param limit The maximum number of dogs to return. Defaults to 100.
+   * @param ifNoneMatch The ETags that the client already has, if any. See
+   *        {@link #retrieveLocation(Long, String, String)}.
+   * @param accept The Accept header, which selects the format, if any.
+   * @return List of the dogs on the requested page, sorted by dog ID.
+   */
+  @GetMapping("/location/{locationId}/dog")
+  public ResponseEntity<List<DogInfo>> retrieveAllDogsAtLocation(
+      @PathVariable Long locationId,
+      @RequestParam(defaultValue = "0") int page,
+      @RequestParam(defaultValue = "100") int limit,
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH,
+          required = false) String ifNoneMatch,
+      @RequestHeader(name = HttpHeaders.ACCEPT,
+          required = false) String accept) {
+    log.debug("Retrieving dogs at location ID={}, page={}, limit={}",
+        locationId, page, limit);
+    return conditionalGet(locationId,
+        dogsResource(locationId, page, limit), WireFormat.negotiate(accept),
+        ifNoneMatch,
+        () -> rescueService.retrieveAllDogsAtLocation(locationId, page, limit));
+  }
+
+  /**
+   * Retrieve the number of dogs at a location, in total and by breed. The
+   * counts are kept in memory, so this does not touch the database. To call
+   * this method, send an HTTP GET request to
+   * http://localhost:8080/dog_rescue/location/{locationID}/dog/count where
+   * {locationId} is the location ID.
+   * 
+   * @param locationId The ID of the location.
+   * @return The dog counts. A location with no dogs has a total of zero.
+   */
+  @GetMapping("/location/{locationId}/dog/count")
+  public DogCounts retrieveDogCounts(@PathVariable Long locationId) {
+    log.debug("Retrieving dog counts at location ID={}", locationId);
+    return dogCountService.retrieveDogCounts(locationId);
+  }
+
+  /**
+   * Retrieve the number of dogs at every location that has dogs, in total and
+   * by breed. To call this method, send an HTTP GET request to
+   * http://localhost:8080/dog_rescue/dog/count.
+   * 
+   * @return The dog counts sorted by location ID.
+   */
+  @GetMapping("/dog/count")
+  public List<DogCounts> retrieveAllDogCounts() {
+    log.debug("Retrieving dog counts at all locations");
+    return dogCountService.retrieveAllDogCounts();
+  }
+
+  /**
+   * Add a dog to a location. To call this method, send an HTTP POST request to
+   * http://localhost:8080/dog_rescue/location/{locationID}/dog where
+   * {locationId} is the location ID.
+   * 
+   * @param locationId The ID of the location in which to add a dog. This is
+   *        passed in the URI as described above.
+   * @param dogInfo The dog information. This is passes as JSON in the request
+   *        body.
+   * @return The dog object with location information.
+   */
+  @PostMapping("/location/{locationId}/dog")
+  @ResponseStatus(code = HttpStatus.CREATED)
+  public DogInfo insertDog(@PathVariable Long locationId,
+      @RequestBody DogInfo dogInfo) {
+    log.debug("Creating dog {} at location ID={}", dogInfo, locationId);
+    return rescueService.saveDog(locationId, dogInfo);
+  }
+
+  /**
+   * Add many dogs to a location at once, as happens with a hoarding case or a
+   * shelter transfer. To call this method, send an HTTP POST request to
+   * http://localhost:8080/dog_rescue/location/{locationID}/dog/batch where
+   * {locationId} is the location ID. The request body is a JSON array of dogs.
+   * All of the valid dogs are added in a single transaction.
+   * 
+   * @param locationId The ID of the location in which to add the dogs.
+   * @param dogInfos The dogs to add. Dog IDs must not be set.
+   * @return A report with the outcome of each dog and the throughput.
+   */
+  @PostMapping("/location/{locationId}/dog/batch")
+  public DogIntakeReport insertDogs(@PathVariable Long locationId,
+      @RequestBody List<DogInfo> dogInfos) {
+    log.debug("Creating {} dogs at location ID={}", dogInfos.size(),
+        locationId);
+    DogIntakeReport report = rescueService.saveDogs(locationId, dogInfos);
+
+    log.debug("Created {} and rejected {} dogs at location ID={} ({} dogs/sec)",
+        report.getCreated(), report.getRejected(), locationId,
+        Math.round(report.getDogsPerSecond()));
+    return report;
+  }
+
+  /**
+   * Search for dogs across all locations. To call this method, send an HTTP
+   * GET request to
+   * http://localhost:8080/dog_rescue/dog/search?breed=Beagle&minAge=2&limit=20.
+   * The filters are breed, color, minAge, maxAge and locationId, and all are
+   * optional. Breed, color and locationId may be repeated to match any of
+   * several values. The response has the total number of matches, the first
+   * matching dogs, and the number of matches for each breed, color, age range
+   * and location.
+   * 
+   * @param criteria The search filters, bound from the query parameters.
+   * @return The search result.
+   */
+  @GetMapping("/dog/search")
+  public DogSearchResult searchDogs(DogSearchCriteria criteria) {
+    log.debug("Searching dogs {}", criteria);
+    return rescueService.searchDogs(criteria);
+  }
+
+  /**
+   * Export the whole inventory (breeds, locations and dogs) as
+   * newline-delimited JSON. To call this method, send an HTTP GET request to
+   * http://localhost:8080/dog_rescue/export. The response is streamed as it
+   * is read from the database, so it can be of any size.
+   * 
+   * @return The streaming response body.
+   */
+  @GetMapping(value = "/export", produces = "application/x-ndjson")
+  public ResponseEntity<StreamingResponseBody> exportInventory() {
+    log.debug("Exporting the inventory");
+
+    // @formatter:off
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"dog-rescue-inventory.ndjson\"")
+        .body(inventoryExportService::exportInventory);
+    // @formatter:on
+  }
+
+  /**
+   * Delete a location, all dog records and all dog breed join table records.
+   * This does not delete breed records. To call this method, send an HTTP
+   * DELETE request to http://localhost:8080/dog_rescue/location/{locationId}
+   * where {locationId} is the ID of the location to delete.
+   * 
+   * @param locationId The ID of the location to delete.
+   * @return A message indicating success.
+   */
+  @DeleteMapping("/location/{locationId}")
+  public Map<String, String> deleteLocation(@PathVariable Long locationId) {
+    log.debug("Deleting location with ID={}", locationId);
+    rescueService.deleteLocation(locationId);
+
+    return Map.of("message",
+        "Location with ID=" + locationId + " was successfully deleted.");
+  }
+}
@@ -0,0 +1,230 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dog.rescue.dao.ReplicaPools;
+import dog.rescue.dao.ReplicaPools.PinnedReads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * This filter caches the serialized responses of the location read endpoints:
+ * the location listing, a single location and the dogs at a location. A cache
+ * hit is written straight from the stored bytes, so neither JPA nor Jackson is
+ * involved. If the request's If-None-Match header matches the stored ETag, a
+ * 304 response is sent instead.
+ *
+ * Every key has a version from {@link ResponseVersions}: the global version
+ * for the listing and the location's version for the others. Writes bump the
+ * versions, so a stale response is never looked up again. The key also has
+ * the path, the query string and the Accept header.
+ *
+ * A response that will be cached is built with its reads pinned to the
+ * primary database (see {@link ReplicaPools#readFromPrimary()}). With the
+ * "read-replicas" profile, a lagging replica could otherwise supply an old
+ * copy that would be stored under the current version and served until the
+ * next write.
+ *
+ * Only 200 responses are cached. The cache is bounded by the total size of
+ * the stored bodies and evicts with Caffeine's W-TinyLFU policy, which keeps
+ * frequently requested responses over ones that were requested once.
+ *
+ * @author Promineo
+ *
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter
+    implements MeterBinder {
+  private static final String CACHE_NAME = "http.responses";
+
+  private static final Pattern LOCATIONS =
+      Pattern.compile("/dog_rescue/location");
+  private static final Pattern LOCATION =
+      Pattern.compile("/dog_rescue/location/(\\d+)(/dog)?");
+
+  /* These response headers are stored with the body and replayed on a hit. */
+  private static final List<String> CACHED_HEADERS =
+      List.of(HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL, HttpHeaders.VARY,
+          RescueController.NEXT_PAGE_TOKEN_HEADER);
+
+  /* The approximate size of a cache entry apart from its body and key. */
+  private static final int ENTRY_OVERHEAD = 128;
+
+  private final ResponseVersions versions;
+  private final Cache<String, CachedResponse> cache;
+
+  /**
+   * Create the filter.
+   *
+   * @param versions The version counters.
+   * @param maxBytes The maximum total size of the cached responses.
+   */
+  public ResponseCacheFilter(ResponseVersions versions, long maxBytes) {
+    this.versions = versions;
+
+    // @formatter:off
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((String key, CachedResponse response) ->
+            key.length() * 2 + response.body().length + ENTRY_OVERHEAD)
+        .recordStats()
+        .build();
+    // @formatter:on
+  }
+
+  /**
+   * Publish the cache statistics as Micrometer meters tagged
+   * {@code cache=http.responses}.
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+  }
+
+  /**
+   * Only GET requests are cached.
+   */
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !HttpMethod.GET.matches(request.getMethod());
+  }
+
+  /**
+   * Answer the request from the cache, or pass it on and cache the response.
+   */
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+      HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    String key = cacheKey(request);
+
+    if(Objects.isNull(key)) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    CachedResponse cached = cache.getIfPresent(key);
+
+    if(Objects.nonNull(cached)) {
+      cached.writeTo(request, response);
+      return;
+    }
+
+    ContentCachingResponseWrapper wrapper =
+        new ContentCachingResponseWrapper(response);
+
+    try(PinnedReads pinned = ReplicaPools.readFromPrimary()) {
+      filterChain.doFilter(request, wrapper);
+    }
+
+    if(wrapper.getStatus() == HttpStatus.OK.value()) {
+      cache.put(key, CachedResponse.of(wrapper));
+    }
+
+    wrapper.copyBodyToResponse();
+  }
+
+  /**
+   * Build the cache key of a request.
+   *
+   * @param request The request.
+   * @return The key, or {@code null} if the request is not cached.
+   */
+  private String cacheKey(HttpServletRequest request) {
+    String path =
+        request.getRequestURI().substring(request.getContextPath().length());
+    String version;
+
+    if(LOCATIONS.matcher(path).matches()) {
+      version = versions.global();
+    }
+    else {
+      Matcher matcher = LOCATION.matcher(path);
+
+      if(!matcher.matches()) {
+        return null;
+      }
+
+      version = versions.location(Long.valueOf(matcher.group(1)));
+    }
+
+    return String.join("|", version, path,
+        Objects.toString(request.getQueryString(), ""),
+        Objects.toString(request.getHeader(HttpHeaders.ACCEPT), ""));
+  }
+
+  /**
+   * This is a stored response.
+   *
+   * @param contentType The Content-Type header.
+   * @param headers The other stored headers.
+   * @param body The serialized body.
+   */
+  private record CachedResponse(String contentType,
+      Map<String, String> headers, byte[] body) {
+
+    /**
+     * Copy a response that has been written to a wrapper.
+     *
+     * @param wrapper The response wrapper.
+     * @return The stored response.
+     */
+    static CachedResponse of(ContentCachingResponseWrapper wrapper) {
+      Map<String, String> headers = new LinkedHashMap<>();
+
+      for(String name : CACHED_HEADERS) {
+        String value = wrapper.getHeader(name);
+
+        if(Objects.nonNull(value)) {
+          headers.put(name, value);
+        }
+      }
+
+      return new CachedResponse(wrapper.getContentType(), headers,
+          wrapper.getContentAsByteArray());
+    }
+
+    /**
+     * Write this response, or a 304 response if the client already has it.
+     *
+     * @param request The request.
+     * @param response The response to write to.
+     * @throws IOException Thrown if the response cannot be written.
+     */
+    void writeTo(HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+      headers.forEach(response::setHeader);
+
+      String eTag = headers.get(HttpHeaders.ETAG);
+
+      if(Objects.nonNull(eTag) && RescueController.matchesETag(
+          request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+        response.setStatus(HttpStatus.NOT_MODIFIED.value());
+        return;
+      }
+
+      response.setStatus(HttpStatus.OK.value());
+      response.setContentType(contentType);
+      response.setContentLength(body.length);
+      response.getOutputStream().write(body);
+    }
+  }
+}
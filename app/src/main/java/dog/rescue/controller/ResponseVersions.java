@@ -0,0 +1,131 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.transaction.event.TransactionalEventListener;
+import dog.rescue.controller.model.DogInfo;
+import dog.rescue.event.DogsSavedEvent;
+import dog.rescue.event.DogsSavedEvent.DogChange;
+import dog.rescue.event.LocationDeletedEvent;
+import dog.rescue.event.LocationSavedEvent;
+import dog.rescue.service.InMemoryIndex;
+
+/**
+ * This class keeps the version counters that are part of every
+ * {@link ResponseCacheFilter} key. There is a counter for each location and a
+ * global counter. A change to a location or to any of its dogs bumps both the
+ * location's counter and the global counter, so the cached responses that
+ * could show the change are never looked up again. They age out of the cache
+ * on their own.
+ * 
+ * The counters are bumped after the transaction commits. A response that is
+ * built while a write is in flight is therefore stored under the old version,
+ * which no request uses once the write has committed.
+ * 
+ * @author Promineo
+ *
+ */
+public class ResponseVersions implements InMemoryIndex {
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicLong global = new AtomicLong();
+  private final ConcurrentMap<Long, AtomicLong> byLocation =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Return the version of everything. This changes whenever any location or
+   * dog changes.
+   * 
+   * @return The global version, qualified by the generation.
+   */
+  public String global() {
+    return generation.get() + "." + global.get();
+  }
+
+  /**
+   * Return the version of a location and its dogs.
+   * 
+   * @param locationId The location ID.
+   * @return The location's version, qualified by the generation.
+   */
+  public String location(Long locationId) {
+    AtomicLong version = byLocation.get(locationId);
+
+    return generation.get() + "."
+        + (Objects.isNull(version) ? 0 : version.get());
+  }
+
+  /**
+   * Start a new generation of versions, so that nothing cached so far is
+   * looked up again. This is needed when the tables are changed behind the
+   * application's back, as the tests do.
+   */
+  @Override
+  public void rebuild() {
+    generation.incrementAndGet();
+    byLocation.clear();
+  }
+
+  /**
+   * Bump the versions of the locations of the saved dogs, including the old
+   * location of a dog that moved.
+   * 
+   * @param event The saved dogs.
+   */
+  @TransactionalEventListener
+  public void dogsSaved(DogsSavedEvent event) {
+    for(DogChange change : event.changes()) {
+      if(Objects.nonNull(change.before())) {
+        bump(locationId(change.before()));
+      }
+
+      bump(locationId(change.after()));
+    }
+  }
+
+  /**
+   * Bump the version of a saved location.
+   * 
+   * @param event The saved location.
+   */
+  @TransactionalEventListener
+  public void locationSaved(LocationSavedEvent event) {
+    bump(event.location().getLocationId());
+  }
+
+  /**
+   * Bump the version of a deleted location. The counter is kept, not
+   * removed, so that the location's version never goes back to a value that
+   * may still be in the cache.
+   * 
+   * @param event The deleted location.
+   */
+  @TransactionalEventListener
+  public void locationDeleted(LocationDeletedEvent event) {
+    bump(event.locationId());
+  }
+
+  /**
+   * Bump a location's version and the global version.
+   * 
+   * @param locationId The location ID.
+   */
+  private void bump(Long locationId) {
+    byLocation.computeIfAbsent(locationId, id -> new AtomicLong())
+        .incrementAndGet();
+    global.incrementAndGet();
+  }
+
+  /**
+   * Return the location ID of a dog.
+   * 
+   * @param dogInfo The dog.
+   * @return The location ID.
+   */
+  private Long locationId(DogInfo dogInfo) {
+    return dogInfo.getLocation().getLocationId();
+  }
+}
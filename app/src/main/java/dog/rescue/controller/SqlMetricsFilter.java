@@ -0,0 +1,100 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import java.io.IOException;
+import java.util.Objects;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import dog.rescue.dao.FetchedRowCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.QueryCountHolder;
+
+/**
+ * This filter records how many SQL statements each request runs and, if row
+ * counting is on, how many rows it reads. The counts are published as the
+ * distribution summaries {@code http.server.requests.sql.statements} and
+ * {@code http.server.requests.sql.rows}, tagged with the HTTP method and the
+ * URI template the same way as {@code http.server.requests}. Read together
+ * with the request latency and the {@code rescue.service} timers, they show
+ * whether a slow endpoint is spending its time in the database.
+ * 
+ * The counts come from the data source proxy and are kept per thread, so
+ * work that a request hands to another thread, such as the streaming export,
+ * is not included.
+ * 
+ * @author Promineo
+ *
+ */
+public class SqlMetricsFilter extends OncePerRequestFilter {
+  private static final String UNKNOWN_URI = "UNKNOWN";
+
+  private final MeterRegistry registry;
+  private final boolean countRows;
+
+  /**
+   * Create the filter.
+   * 
+   * @param registry The registry to publish the summaries in.
+   * @param countRows If true, the rows read are recorded too. The data source
+   *        proxy must then be counting them.
+   */
+  public SqlMetricsFilter(MeterRegistry registry, boolean countRows) {
+    this.registry = registry;
+    this.countRows = countRows;
+  }
+
+  /**
+   * Reset the counts, run the request and record what it ran.
+   */
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+      HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    QueryCountHolder.clear();
+    FetchedRowCounter.clear();
+
+    try {
+      filterChain.doFilter(request, response);
+    }
+    finally {
+      String uri = Objects.toString(request.getAttribute(
+          HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), UNKNOWN_URI);
+
+      record("http.server.requests.sql.statements", "statements", request,
+          uri, QueryCountHolder.getGrandTotal().getTotal());
+
+      if(countRows) {
+        record("http.server.requests.sql.rows", "rows", request, uri,
+            FetchedRowCounter.get());
+      }
+    }
+  }
+
+  /**
+   * Record one count.
+   * 
+   * @param name The summary name.
+   * @param baseUnit The unit of the count.
+   * @param request The request.
+   * @param uri The URI template.
+   * @param amount The count.
+   */
+  private void record(String name, String baseUnit, HttpServletRequest request,
+      String uri, long amount) {
+    // @formatter:off
+    DistributionSummary.builder(name)
+        .baseUnit(baseUnit)
+        .tag("method", request.getMethod())
+        .tag("uri", uri)
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(amount);
+    // @formatter:on
+  }
+}
@@ -0,0 +1,102 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * This enum lists the formats that the API writes objects in. See
+ * {@link dog.rescue.config.WireFormatConfig}. The same object has a different
+ * body in each format, so the format is part of the ETag.
+ * 
+ * @author Promineo
+ *
+ */
+public enum WireFormat {
+  /** JSON, the default. */
+  JSON(MediaType.APPLICATION_JSON, "json"),
+
+  /** CBOR. */
+  CBOR(MediaType.APPLICATION_CBOR, "cbor"),
+
+  /** Smile. */
+  SMILE(MediaType.parseMediaType("application/x-jackson-smile"), "smile");
+
+  private final MediaType mediaType;
+  private final String suffix;
+
+  /**
+   * Create a format.
+   * 
+   * @param mediaType The media type of the format.
+   * @param suffix The short name of the format, added to the ETag.
+   */
+  WireFormat(MediaType mediaType, String suffix) {
+    this.mediaType = mediaType;
+    this.suffix = suffix;
+  }
+
+  /**
+   * Return the short name of the format.
+   * 
+   * @return The short name.
+   */
+  public String getSuffix() {
+    return suffix;
+  }
+
+  /**
+   * Pick the format that Spring MVC will write a response in, given the
+   * request's Accept header. This follows the message converters' own
+   * negotiation: every accepted type is paired with each format that it is
+   * compatible with, in the order the converters are registered, and the most
+   * specific pair with the highest quality wins. A missing or malformed
+   * header gets JSON.
+   * 
+   * @param accept The Accept request header, or {@code null}.
+   * @return The format of the response.
+   */
+  public static WireFormat negotiate(String accept) {
+    if(Objects.isNull(accept) || accept.isBlank()) {
+      return JSON;
+    }
+
+    List<MediaType> acceptable;
+
+    try {
+      acceptable = MediaType.parseMediaTypes(accept);
+    }
+    catch(InvalidMediaTypeException e) {
+      return JSON;
+    }
+
+    MimeTypeUtils.sortBySpecificity(acceptable);
+
+    List<MediaType> candidates = new ArrayList<>();
+
+    for(MediaType requested : acceptable) {
+      for(WireFormat format : values()) {
+        if(requested.isCompatibleWith(format.mediaType)) {
+          candidates.add(format.mediaType.copyQualityValue(requested));
+        }
+      }
+    }
+
+    MimeTypeUtils.sortBySpecificity(candidates);
+
+    for(MediaType candidate : candidates) {
+      for(WireFormat format : values()) {
+        if(format.mediaType.equalsTypeAndSubtype(candidate)) {
+          return format;
+        }
+      }
+    }
+
+    return JSON;
+  }
+}
@@ -0,0 +1,24 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller.model;
+
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class holds the number of dogs at a location, in total and by breed. A
+ * dog with two breeds is counted under both breeds, so the breed counts can
+ * add up to more than the total. Breeds with no dogs are left out.
+ * 
+ * @author Promineo
+ *
+ */
+@Data
+@NoArgsConstructor
+public class DogCounts {
+  private Long locationId;
+  private long total;
+  private Map<String, Long> breeds = new TreeMap<>();
+}
@@ -2,7 +2,7 @@
 
 package dog.rescue.controller.model;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
 import dog.rescue.entity.Breed;
@@ -17,6 +17,9 @@ import lombok.NoArgsConstructor;
  * have the recursive variables that make printing and converting to/from JSON
  * so problematic.
  * 
+ * The breeds are held in a linked set, so they are written to JSON in breed
+ * ID order, as the entity holds them.
+ * 
  * @author Promineo
  *
  */
@@ -28,7 +31,7 @@ public class DogInfo {
   private int age;
   private String color;
   private DogInfoLocation location;
-  private Set<DogInfoBreed> breeds = new HashSet<>();
+  private Set<DogInfoBreed> breeds = new LinkedHashSet<>();
 
   /**
    * This constructor converts from a {@link Dog} entity object to a DogInfo
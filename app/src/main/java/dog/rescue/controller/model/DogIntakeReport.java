@@ -0,0 +1,70 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class is the result of a batch dog intake. It has one result for each
+ * dog in the request, in request order, along with totals and the throughput
+ * of the batch.
+ * 
+ * @author Promineo
+ *
+ */
+@Data
+@NoArgsConstructor
+public class DogIntakeReport {
+  private Long locationId;
+  private int received;
+  private int created;
+  private int rejected;
+  private long elapsedMillis;
+  private double dogsPerSecond;
+  private List<DogIntakeResult> results = new ArrayList<>();
+
+  /**
+   * The outcome of a single dog in the batch.
+   */
+  public enum Status {
+    CREATED, REJECTED
+  }
+
+  /**
+   * This inner class is the outcome of a single dog in the batch.
+   * 
+   * @author Promineo
+   *
+   */
+  @Data
+  @NoArgsConstructor
+  public static class DogIntakeResult {
+    /** The zero-based position of the dog in the request. */
+    private int index;
+    private Long dogId;
+    private Status status;
+
+    /** The reason that the dog was rejected. */
+    private String message;
+
+    /**
+     * Create the result of a dog.
+     * 
+     * @param index The position of the dog in the request.
+     * @param dogId The ID of the new dog row or {@code null} if the dog was
+     *        rejected.
+     * @param status The outcome.
+     * @param message The reason for a rejection or {@code null}.
+     */
+    public DogIntakeResult(int index, Long dogId, Status status,
+        String message) {
+      this.index = index;
+      this.dogId = dogId;
+      this.status = status;
+      this.message = message;
+    }
+  }
+}
@@ -0,0 +1,31 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class holds the filters of a dog search. Spring fills it in from the
+ * query parameters, so a parameter can be repeated to give several values,
+ * for example {@code ?breed=Poodle&breed=Beagle}. A dog matches a filter with
+ * several values if it matches any of them, and it matches the search if it
+ * matches every filter that is given.
+ * 
+ * @author Promineo
+ *
+ */
+@Data
+@NoArgsConstructor
+public class DogSearchCriteria {
+  private List<String> breed = new ArrayList<>();
+  private List<String> color = new ArrayList<>();
+  private Integer minAge;
+  private Integer maxAge;
+  private List<Long> locationId = new ArrayList<>();
+
+  /** The maximum number of dogs to return. The facet counts cover all. */
+  private int limit = 20;
+}
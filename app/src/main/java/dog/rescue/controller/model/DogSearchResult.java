@@ -0,0 +1,27 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class is the result of a dog search. It has the number of matching
+ * dogs, the first few matching dogs sorted by dog ID, and the facet counts.
+ * The facet counts give, for each facet (breed, color, age and locationId),
+ * the number of matching dogs with each value of the facet.
+ * 
+ * @author Promineo
+ *
+ */
+@Data
+@NoArgsConstructor
+public class DogSearchResult {
+  private long total;
+  private List<DogInfo> dogs = new ArrayList<>();
+  private Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+}
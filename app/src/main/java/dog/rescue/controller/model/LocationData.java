@@ -2,7 +2,7 @@
 
 package dog.rescue.controller.model;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import dog.rescue.entity.Breed;
 import dog.rescue.entity.Dog;
@@ -25,6 +25,9 @@ import lombok.NoArgsConstructor;
  *       constructor to marshal/unmarshal JSON, the zero-argument constructor is
  *       added back with the NoArgsConstructor annotation.
  * 
+ * The dogs and breeds are held in linked sets, so they are written to JSON in
+ * the order in which the entities hold them: by dog ID and by breed ID.
+ * 
  * @author Promineo
  *
  */
@@ -38,7 +41,7 @@ public class LocationData {
   private String state;
   private String zip;
   private String phone;
-  private Set<DogData> dogs = new HashSet<>();
+  private Set<DogData> dogs = new LinkedHashSet<>();
 
   /**
    * This constructor converts a Location entity to a LocationData object.
@@ -120,7 +123,7 @@ public class LocationData {
     private String name;
     private int age;
     private String color;
-    private Set<BreedData> breeds = new HashSet<>();
+    private Set<BreedData> breeds = new LinkedHashSet<>();
 
     /**
      * Convert from a Dog entity object to a DogData object.
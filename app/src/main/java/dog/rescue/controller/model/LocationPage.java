@@ -0,0 +1,37 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller.model;
+
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class holds one page of a location listing along with the token that
+ * is used to request the next page.
+ * 
+ * @param <T> The type of the location objects on the page.
+ * 
+ * @author Promineo
+ *
+ */
+@Data
+@NoArgsConstructor
+public class LocationPage<T> {
+  private List<T> locations;
+
+  /** This is {@code null} if this is the last page. */
+  private String nextPageToken;
+
+  /**
+   * Create a page of locations.
+   * 
+   * @param locations The locations on the page.
+   * @param nextPageToken The token for the next page or {@code null} if this
+   *        is the last page.
+   */
+  public LocationPage(List<T> locations, String nextPageToken) {
+    this.locations = locations;
+    this.nextPageToken = nextPageToken;
+  }
+}
@@ -0,0 +1,27 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class holds a partial update of a location. Only the fields that are
+ * present (not {@code null}) are changed; the rest of the location, including
+ * its dogs, is left alone.
+ * 
+ * @author Promineo
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationPatch {
+  private String businessName;
+  private String streetAddress;
+  private String city;
+  private String state;
+  private String zip;
+  private String phone;
+}
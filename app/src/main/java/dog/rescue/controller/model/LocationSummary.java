@@ -0,0 +1,54 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class is a lightweight view of a location. It has the location's name,
+ * address and phone number and the number of dogs at the location, but not the
+ * dogs themselves. It is filled in directly by a JPA constructor expression so
+ * that no Location, Dog or Breed entities are loaded.
+ * 
+ * @author Promineo
+ *
+ */
+@Data
+@NoArgsConstructor
+public class LocationSummary {
+  private Long locationId;
+  private String businessName;
+  private String streetAddress;
+  private String city;
+  private String state;
+  private String zip;
+  private String phone;
+  private long dogCount;
+
+  /**
+   * This constructor is called by the JPA query in
+   * {@link dog.rescue.dao.LocationDao} and by the tests.
+   * 
+   * @param locationId The location ID (primary key)
+   * @param businessName The name of the business
+   * @param streetAddress The street address of the business
+   * @param city The address city
+   * @param state The address state
+   * @param zip The address zip code
+   * @param phone The business phone number
+   * @param dogCount The number of dogs at the location
+   */
+  public LocationSummary(Long locationId, String businessName,
+      String streetAddress, String city, String state, String zip,
+      String phone, long dogCount) {
+    this.locationId = locationId;
+    this.businessName = businessName;
+    this.streetAddress = streetAddress;
+    this.city = city;
+    this.state = state;
+    this.zip = zip;
+    this.phone = phone;
+    this.dogCount = dogCount;
+  }
+}
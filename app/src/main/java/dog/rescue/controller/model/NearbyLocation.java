@@ -0,0 +1,29 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class is a location returned by the nearest-location lookup. It has
+ * enough of the location to call or visit it, the straight-line distance from
+ * the caller's ZIP code and the number of dogs at the location.
+ * 
+ * @author Promineo
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyLocation {
+  private Long locationId;
+  private String businessName;
+  private String city;
+  private String state;
+  private String zip;
+  private String phone;
+  private double distanceKm;
+  private long dogCount;
+}
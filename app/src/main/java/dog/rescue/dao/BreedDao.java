@@ -3,7 +3,10 @@
 package dog.rescue.dao;
 
 import java.util.Set;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import dog.rescue.entity.Breed;
 
 /**
@@ -17,10 +20,12 @@ public interface BreedDao extends JpaRepository<Breed, Long> {
 
   /**
    * Spring JPA creates the implementing method to find a list of Breed entities
-   * given the breed names.
+   * given the breed names. The result is held in the query cache when the
+   * l2-cache profile is active.
    * 
    * @param breedNames A set of breed names.
    * @return A set of Breed entities.
    */
+  @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
   Set<Breed> findByNameIn(Set<String> breedNames);
 }
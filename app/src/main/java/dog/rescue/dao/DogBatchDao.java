@@ -0,0 +1,147 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import dog.rescue.entity.Breed;
+import dog.rescue.entity.Dog;
+
+/**
+ * This class writes many dogs at once with JDBC batch statements. Hibernate
+ * cannot batch inserts into a table with IDENTITY keys because it must read
+ * each generated key before it can write the next row. Here all of the dog
+ * rows are sent in batches, the generated keys are read back per batch, and
+ * then all of the dog_breed rows are sent in batches.
+ * 
+ * The statements run on the connection of the current Spring transaction, so
+ * they commit or roll back with it.
+ * 
+ * @author Promineo
+ *
+ */
+@Repository
+public class DogBatchDao {
+  /** The number of rows sent to the database in each batch. */
+  private static final int BATCH_SIZE = 500;
+
+  // @formatter:off
+  private static final String INSERT_DOG_SQL =
+      "INSERT INTO dog (location_id, name, age, color) VALUES (?, ?, ?, ?)";
+
+  private static final String INSERT_DOG_BREED_SQL =
+      "INSERT INTO dog_breed (dog_id, breed_id) VALUES (?, ?)";
+  // @formatter:on
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  /**
+   * Insert the dogs at the given location and their dog_breed rows. The
+   * generated dog IDs are set in the Dog objects.
+   * 
+   * @param locationId The ID of the location where the dogs are added.
+   * @param dogs The dogs to insert. The dog IDs must be {@code null}.
+   */
+  public void insertDogs(Long locationId, List<Dog> dogs) {
+    List<Long> dogIds = jdbcTemplate.execute(
+        (ConnectionCallback<List<Long>>)con -> insertDogRows(con
+            .prepareStatement(INSERT_DOG_SQL, Statement.RETURN_GENERATED_KEYS),
+            locationId, dogs));
+
+    if(dogIds.size() != dogs.size()) {
+      throw new IllegalStateException("Expected " + dogs.size()
+          + " generated dog IDs but received " + dogIds.size() + ".");
+    }
+
+    for(int index = 0; index < dogs.size(); index++) {
+      dogs.get(index).setDogId(dogIds.get(index));
+    }
+
+    insertDogBreedRows(dogs);
+  }
+
+  /**
+   * Insert the dog rows in batches and collect the generated keys.
+   * 
+   * @param stmt The insert statement. It is closed by this method.
+   * @param locationId The location ID.
+   * @param dogs The dogs to insert.
+   * @return The generated dog IDs in the same order as the dogs.
+   * @throws SQLException Thrown if the insert fails.
+   */
+  private List<Long> insertDogRows(PreparedStatement stmt, Long locationId,
+      List<Dog> dogs) throws SQLException {
+    List<Long> dogIds = new ArrayList<>(dogs.size());
+
+    try(stmt) {
+      int pending = 0;
+
+      for(Dog dog : dogs) {
+        stmt.setLong(1, locationId);
+        stmt.setString(2, dog.getName());
+        stmt.setInt(3, dog.getAge());
+        stmt.setString(4, dog.getColor());
+        stmt.addBatch();
+
+        if(++pending == BATCH_SIZE) {
+          executeBatch(stmt, dogIds);
+          pending = 0;
+        }
+      }
+
+      if(pending > 0) {
+        executeBatch(stmt, dogIds);
+      }
+    }
+
+    return dogIds;
+  }
+
+  /**
+   * Send the pending batch and add the generated keys to the list.
+   * 
+   * @param stmt The statement with the pending batch.
+   * @param dogIds The list of generated dog IDs.
+   * @throws SQLException Thrown if the batch fails.
+   */
+  private void executeBatch(PreparedStatement stmt, List<Long> dogIds)
+      throws SQLException {
+    stmt.executeBatch();
+
+    try(ResultSet keys = stmt.getGeneratedKeys()) {
+      while(keys.next()) {
+        dogIds.add(keys.getLong(1));
+      }
+    }
+  }
+
+  /**
+   * Insert the dog_breed rows for all of the dogs in batches.
+   * 
+   * @param dogs The dogs, with dog IDs and breeds.
+   */
+  private void insertDogBreedRows(List<Dog> dogs) {
+    List<long[]> rows = new ArrayList<>();
+
+    for(Dog dog : dogs) {
+      for(Breed breed : dog.getBreeds()) {
+        rows.add(new long[] {dog.getDogId(), breed.getBreedId()});
+      }
+    }
+
+    jdbcTemplate.batchUpdate(INSERT_DOG_BREED_SQL, rows, BATCH_SIZE,
+        (ps, row) -> {
+          ps.setLong(1, row[0]);
+          ps.setLong(2, row[1]);
+        });
+  }
+}
@@ -0,0 +1,18 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.dao;
+
+/**
+ * This is a Spring Data projection of a dog count grouped by location and, in
+ * {@link DogDao#countByLocationAndBreed()}, by breed.
+ * 
+ * @author Promineo
+ *
+ */
+public interface DogCountRow {
+  Long getLocationId();
+
+  String getBreedName();
+
+  long getDogCount();
+}
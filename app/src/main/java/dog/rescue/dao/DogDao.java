@@ -0,0 +1,97 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import dog.rescue.entity.Dog;
+
+/**
+ * This interface extends the Spring JPA interface JPA repository. Spring
+ * creates the backing class for the methods in this interface.
+ * 
+ * @author Promineo
+ *
+ */
+public interface DogDao extends JpaRepository<Dog, Long> {
+
+  /**
+   * Find the IDs on one page of the dogs at a location. The filter is applied
+   * in the database (WHERE location_id = ?) and is backed by the index on
+   * dog.location_id. A Slice is returned instead of a Page so that no COUNT
+   * query is run.
+   * 
+   * @param locationId The location ID.
+   * @param pageable The page number, page size and sort order.
+   * @return A slice of dog IDs.
+   */
+  // @formatter:off
+  @Query("SELECT d.dogId FROM Dog d"
+      + " WHERE d.location.locationId = :locationId")
+  // @formatter:on
+  Slice<Long> findIdsByLocationId(Long locationId, Pageable pageable);
+
+  /**
+   * Read the searchable fields of every dog, one row per dog and breed,
+   * sorted by dog ID. The rows are streamed so they are not all held in
+   * memory. This must be called in a transaction and the stream must be
+   * closed.
+   * 
+   * @return A stream of rows.
+   */
+  // @formatter:off
+  @Query("SELECT d.dogId AS dogId, d.location.locationId AS locationId,"
+      + " d.age AS age, d.color AS color, b.name AS breedName"
+      + " FROM Dog d LEFT JOIN d.breeds b ORDER BY d.dogId")
+  // @formatter:on
+  Stream<DogFacetRow> streamFacetRows();
+
+  /**
+   * Count the dogs of each breed at each location. A dog with two breeds is
+   * counted once for each breed.
+   * 
+   * @return The counts by location ID and breed name.
+   */
+  // @formatter:off
+  @Query("SELECT d.location.locationId AS locationId, b.name AS breedName,"
+      + " COUNT(d) AS dogCount"
+      + " FROM Dog d JOIN d.breeds b"
+      + " GROUP BY d.location.locationId, b.name")
+  // @formatter:on
+  List<DogCountRow> countByLocationAndBreed();
+
+  /**
+   * Count the dogs at each location. The breed name of each row is
+   * {@code null}.
+   * 
+   * @return The counts by location ID.
+   */
+  // @formatter:off
+  @Query("SELECT d.location.locationId AS locationId,"
+      + " CAST(NULL AS String) AS breedName, COUNT(d) AS dogCount"
+      + " FROM Dog d"
+      + " GROUP BY d.location.locationId")
+  // @formatter:on
+  List<DogCountRow> countByLocation();
+
+  /**
+   * Loads the given dogs with their locations and breeds in one query, sorted
+   * by dog ID. The breeds are read in breed ID order. Hibernate does not apply
+   * a collection's OrderBy to a fetch plan, so the order is spelled out here.
+   * 
+   * @param dogIds The IDs of the dogs to load.
+   * @return A list of Dog entities.
+   */
+  // @formatter:off
+  @Query("SELECT d FROM Dog d"
+      + " JOIN FETCH d.location LEFT JOIN FETCH d.breeds b"
+      + " WHERE d.dogId IN :dogIds"
+      + " ORDER BY d.dogId, b.breedId")
+  // @formatter:on
+  List<Dog> findByDogIdIn(Collection<Long> dogIds);
+}
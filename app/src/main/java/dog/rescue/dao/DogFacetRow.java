@@ -0,0 +1,23 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.dao;
+
+/**
+ * This is a Spring Data projection of the dog fields that the search index
+ * uses. There is one row per dog and breed, so a dog with two breeds has two
+ * rows. A dog with no breeds has one row with a {@code null} breed name.
+ * 
+ * @author Promineo
+ *
+ */
+public interface DogFacetRow {
+  Long getDogId();
+
+  Long getLocationId();
+
+  int getAge();
+
+  String getColor();
+
+  String getBreedName();
+}
@@ -0,0 +1,53 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.dao;
+
+import java.sql.ResultSet;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+
+/**
+ * This listener counts the rows read from every JDBC result set on the
+ * current thread. It is attached to the data source proxy, which reports each
+ * call to {@link ResultSet#next()}; a call that returns {@code true} is one
+ * row. The count is kept per thread, the same way datasource-proxy's
+ * {@code QueryCountHolder} keeps the statement count, so a request can clear
+ * it when it starts and read it when it ends.
+ * 
+ * @author Promineo
+ *
+ */
+public class FetchedRowCounter implements MethodExecutionListener {
+  private static final ThreadLocal<long[]> ROWS =
+      ThreadLocal.withInitial(() -> new long[1]);
+
+  /**
+   * Return the number of rows read on this thread since the last
+   * {@link #clear()}.
+   * 
+   * @return The number of rows.
+   */
+  public static long get() {
+    return ROWS.get()[0];
+  }
+
+  /**
+   * Reset this thread's row count to zero.
+   */
+  public static void clear() {
+    ROWS.remove();
+  }
+
+  @Override
+  public void beforeMethod(MethodExecutionContext executionContext) {
+  }
+
+  @Override
+  public void afterMethod(MethodExecutionContext executionContext) {
+    if(executionContext.getTarget() instanceof ResultSet
+        && "next".equals(executionContext.getMethod().getName())
+        && Boolean.TRUE.equals(executionContext.getResult())) {
+      ROWS.get()[0]++;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.dao;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * This class reads the whole rescue inventory one row at a time for the
+ * export. Each query runs through a forward-only, read-only cursor with a
+ * fixed fetch size and hands every row to a callback as soon as it is read,
+ * so no result is ever held in memory. No entities are created.
+ * 
+ * MySQL only honors the fetch size when the connection URL has
+ * useCursorFetch=true. Without it, Connector/J reads the whole result into
+ * memory.
+ * 
+ * @author Promineo
+ *
+ */
+@Repository
+public class InventoryExportDao {
+  // @formatter:off
+  private static final String BREED_SQL =
+      "SELECT breed_id, name FROM breed ORDER BY breed_id";
+
+  private static final String LOCATION_SQL =
+      "SELECT location_id, business_name, street_address, city, state, zip,"
+      + " phone FROM location ORDER BY location_id";
+
+  private static final String DOG_SQL =
+      "SELECT d.dog_id, d.location_id, d.name, d.age, d.color, db.breed_id"
+      + " FROM dog d LEFT JOIN dog_breed db ON db.dog_id = d.dog_id"
+      + " ORDER BY d.dog_id, db.breed_id";
+  // @formatter:on
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Create the DAO with its own JdbcTemplate so that the fetch size does not
+   * affect other queries.
+   * 
+   * @param dataSource The data source.
+   * @param fetchSize The number of rows that the driver reads at a time.
+   */
+  @Autowired
+  public InventoryExportDao(DataSource dataSource,
+      @Value("${dog-rescue.export.fetch-size:500}") int fetchSize) {
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.setFetchSize(fetchSize);
+  }
+
+  /**
+   * Read every breed row: breed_id, name.
+   * 
+   * @param handler Called once for each row.
+   */
+  public void forEachBreed(RowCallbackHandler handler) {
+    jdbcTemplate.query(BREED_SQL, handler);
+  }
+
+  /**
+   * Read every location row: location_id, business_name, street_address,
+   * city, state, zip, phone.
+   * 
+   * @param handler Called once for each row.
+   */
+  public void forEachLocation(RowCallbackHandler handler) {
+    jdbcTemplate.query(LOCATION_SQL, handler);
+  }
+
+  /**
+   * Read every dog joined to its breeds: dog_id, location_id, name, age,
+   * color, breed_id. A dog with several breeds has one row per breed and the
+   * rows are adjacent. A dog with no breeds has one row with a null breed_id.
+   * 
+   * @param handler Called once for each row.
+   */
+  public void forEachDogBreed(RowCallbackHandler handler) {
+    jdbcTemplate.query(DOG_SQL, handler);
+  }
+}
@@ -0,0 +1,155 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import dog.rescue.controller.model.LocationSummary;
+import dog.rescue.entity.Location;
+
+/**
+ * This interface extends the Spring JPA interface JPA repository. Spring
+ * creates the backing class for the methods in this interface.
+ * 
+ * Listing queries are split in two. The first query finds the IDs on a page
+ * and the second loads those locations with a fetch plan. This keeps the page
+ * limit in the database, which Hibernate cannot do when a collection is join
+ * fetched.
+ * 
+ * @author Promineo
+ *
+ */
+public interface LocationDao extends JpaRepository<Location, Long> {
+
+  /** The JPA constructor expression for {@link LocationSummary}. */
+  // @formatter:off
+  String SELECT_SUMMARY = "SELECT new dog.rescue.controller.model"
+      + ".LocationSummary(l.locationId, l.businessName, l.streetAddress,"
+      + " l.city, l.state, l.zip, l.phone, COUNT(d.dogId))";
+
+  /** The GROUP BY clause that goes with {@link #SELECT_SUMMARY}. */
+  String GROUP_SUMMARY = " GROUP BY l.businessName, l.locationId,"
+      + " l.streetAddress, l.city, l.state, l.zip, l.phone";
+  // @formatter:on
+
+  /**
+   * Returns the IDs on the first page of locations sorted by business name and
+   * location ID. The sort is satisfied by the (business_name, location_id)
+   * index so the database reads only the rows on the page.
+   * 
+   * @param pageable The page size. The page number must be zero.
+   * @return A list of location IDs.
+   */
+  // @formatter:off
+  @Query("SELECT l.locationId FROM Location l"
+      + " ORDER BY l.businessName, l.locationId")
+  // @formatter:on
+  List<Long> findFirstPageIds(Pageable pageable);
+
+  /**
+   * Returns the IDs on the page of locations that immediately follows the
+   * given (business name, location ID) key, sorted the same way as
+   * {@link #findFirstPageIds(Pageable)}. This is keyset (seek) pagination: the
+   * database starts reading the index at the key instead of skipping over all
+   * of the earlier rows.
+   * 
+   * @param businessName The business name of the last location on the
+   *        previous page.
+   * @param locationId The location ID of the last location on the previous
+   *        page.
+   * @param pageable The page size. The page number must be zero.
+   * @return A list of location IDs.
+   */
+  // @formatter:off
+  @Query("SELECT l.locationId FROM Location l"
+      + " WHERE l.businessName > :businessName"
+      + " OR (l.businessName = :businessName AND l.locationId > :locationId)"
+      + " ORDER BY l.businessName, l.locationId")
+  // @formatter:on
+  List<Long> findPageIdsAfter(String businessName, Long locationId,
+      Pageable pageable);
+
+  /**
+   * Returns the first page of location summaries sorted by business name and
+   * location ID. The dog counts are computed by a single GROUP BY on the
+   * location and dog tables. No entities are loaded.
+   * 
+   * @param pageable The page size. The page number must be zero.
+   * @return A list of location summaries.
+   */
+  // @formatter:off
+  @Query(SELECT_SUMMARY
+      + " FROM Location l LEFT JOIN l.dogs d"
+      + GROUP_SUMMARY
+      + " ORDER BY l.businessName, l.locationId")
+  // @formatter:on
+  List<LocationSummary> findFirstSummaryPage(Pageable pageable);
+
+  /**
+   * Returns the page of location summaries that immediately follows the given
+   * (business name, location ID) key. See
+   * {@link #findFirstSummaryPage(Pageable)}.
+   * 
+   * @param businessName The business name of the last location on the
+   *        previous page.
+   * @param locationId The location ID of the last location on the previous
+   *        page.
+   * @param pageable The page size. The page number must be zero.
+   * @return A list of location summaries.
+   */
+  // @formatter:off
+  @Query(SELECT_SUMMARY
+      + " FROM Location l LEFT JOIN l.dogs d"
+      + " WHERE l.businessName > :businessName"
+      + " OR (l.businessName = :businessName AND l.locationId > :locationId)"
+      + GROUP_SUMMARY
+      + " ORDER BY l.businessName, l.locationId")
+  // @formatter:on
+  List<LocationSummary> findSummaryPageAfter(String businessName,
+      Long locationId, Pageable pageable);
+
+  /**
+   * Loads the given locations with their dogs and breeds in one query. The
+   * locations are sorted by business name and location ID, and the dogs and
+   * breeds are read in ID order. Hibernate does not apply a collection's
+   * OrderBy to a fetch plan, so the order is spelled out here.
+   * 
+   * @param locationIds The IDs of the locations to load.
+   * @return A list of Location entities.
+   */
+  // @formatter:off
+  @Query("SELECT l FROM Location l"
+      + " LEFT JOIN FETCH l.dogs d LEFT JOIN FETCH d.breeds b"
+      + " WHERE l.locationId IN :locationIds"
+      + " ORDER BY l.businessName, l.locationId, d.dogId, b.breedId")
+  // @formatter:on
+  List<Location> findByLocationIdIn(Collection<Long> locationIds);
+
+  /**
+   * Loads a single location with its dogs and breeds in one query using the
+   * {@link Location#WITH_DOGS_AND_BREEDS} fetch plan.
+   * 
+   * @param locationId The location ID.
+   * @return The Location entity if found.
+   */
+  @EntityGraph(Location.WITH_DOGS_AND_BREEDS)
+  Optional<Location> findWithDogsAndBreedsByLocationId(Long locationId);
+
+  /**
+   * Returns the version of a location without loading the location. This is
+   * a primary key lookup that is used to answer conditional GET requests.
+   * 
+   * @param locationId The location ID.
+   * @return The version if the location exists.
+   */
+  // @formatter:off
+  @Query("SELECT l.version FROM Location l"
+      + " WHERE l.locationId = :locationId")
+  // @formatter:on
+  Optional<Long> findVersionByLocationId(Long locationId);
+}
@@ -0,0 +1,127 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.dao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+/**
+ * This class reads the location listing and the dogs at a location as flat
+ * join rows for the JSON read path. Each read is a single query: the page is
+ * selected in a derived table, then joined to the dogs, the dog_breed rows and
+ * the breeds. The rows are sorted so that the rows of a location, and within
+ * it the rows of a dog, are adjacent. No entities are created.
+ *
+ * The rows are handed to a {@link ResultSetExtractor} so that the caller can
+ * stop reading as soon as it has what it needs.
+ *
+ * @author Promineo
+ *
+ */
+@Repository
+public class LocationJsonDao {
+  // @formatter:off
+  private static final String LOCATION_COLUMNS =
+      "location_id, business_name, street_address, city, state, zip, phone";
+
+  private static final String JOIN_DOGS_AND_BREEDS =
+      " LEFT JOIN dog d ON d.location_id = l.location_id"
+      + " LEFT JOIN dog_breed db ON db.dog_id = d.dog_id"
+      + " LEFT JOIN breed b ON b.breed_id = db.breed_id";
+
+  private static final String SELECT_LOCATION_ROWS =
+      "SELECT l.location_id, l.business_name, l.street_address, l.city,"
+      + " l.state, l.zip, l.phone, d.dog_id, d.name AS dog_name, d.age,"
+      + " d.color, b.breed_id, b.name AS breed_name FROM (SELECT "
+      + LOCATION_COLUMNS + " FROM location";
+
+  private static final String ORDER_LOCATION_ROWS =
+      " ORDER BY business_name, location_id LIMIT ?) l"
+      + JOIN_DOGS_AND_BREEDS
+      + " ORDER BY l.business_name, l.location_id, d.dog_id, b.breed_id";
+
+  private static final String FIRST_LOCATION_PAGE_SQL =
+      SELECT_LOCATION_ROWS + ORDER_LOCATION_ROWS;
+
+  private static final String LOCATION_PAGE_AFTER_SQL =
+      SELECT_LOCATION_ROWS
+      + " WHERE business_name > ?"
+      + " OR (business_name = ? AND location_id > ?)"
+      + ORDER_LOCATION_ROWS;
+
+  private static final String DOGS_AT_LOCATION_SQL =
+      "SELECT l.version, d.dog_id, d.name AS dog_name, d.age, d.color,"
+      + " b.breed_id, b.name AS breed_name"
+      + " FROM location l"
+      + " LEFT JOIN (SELECT dog_id, location_id, name, age, color FROM dog"
+      + " WHERE location_id = ? ORDER BY dog_id LIMIT ? OFFSET ?) d"
+      + " ON d.location_id = l.location_id"
+      + " LEFT JOIN dog_breed db ON db.dog_id = d.dog_id"
+      + " LEFT JOIN breed b ON b.breed_id = db.breed_id"
+      + " WHERE l.location_id = ?"
+      + " ORDER BY d.dog_id, b.breed_id";
+  // @formatter:on
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  /**
+   * Read the first page of locations, sorted by business name and location
+   * ID, joined to their dogs and breeds. Each row has location_id,
+   * business_name, street_address, city, state, zip, phone, dog_id, dog_name,
+   * age, color, breed_id and breed_name. A location with no dogs has one row
+   * with a null dog_id, and a dog with no breeds has one row with a null
+   * breed_id.
+   *
+   * @param <T> The type of the extractor's result.
+   * @param limit The maximum number of locations.
+   * @param extractor Reads the rows.
+   * @return The extractor's result.
+   */
+  public <T> T readFirstLocationPage(int limit,
+      ResultSetExtractor<T> extractor) {
+    return jdbcTemplate.query(FIRST_LOCATION_PAGE_SQL, extractor, limit);
+  }
+
+  /**
+   * Read the page of locations that immediately follows the given (business
+   * name, location ID) key. The rows are the same as in
+   * {@link #readFirstLocationPage(int, ResultSetExtractor)}.
+   *
+   * @param <T> The type of the extractor's result.
+   * @param businessName The business name of the last location on the
+   *        previous page.
+   * @param locationId The location ID of the last location on the previous
+   *        page.
+   * @param limit The maximum number of locations.
+   * @param extractor Reads the rows.
+   * @return The extractor's result.
+   */
+  public <T> T readLocationPageAfter(String businessName, Long locationId,
+      int limit, ResultSetExtractor<T> extractor) {
+    return jdbcTemplate.query(LOCATION_PAGE_AFTER_SQL, extractor,
+        businessName, businessName, locationId, limit);
+  }
+
+  /**
+   * Read one page of the dogs at a location, sorted by dog ID, joined to
+   * their breeds. Each row has the location's version, dog_id, dog_name, age,
+   * color, breed_id and breed_name. If the location exists but there are no
+   * dogs on the page, there is one row with a null dog_id. If the location
+   * does not exist, there are no rows.
+   *
+   * @param <T> The type of the extractor's result.
+   * @param locationId The location ID.
+   * @param limit The maximum number of dogs.
+   * @param offset The number of dogs to skip.
+   * @param extractor Reads the rows.
+   * @return The extractor's result.
+   */
+  public <T> T readDogsAtLocation(Long locationId, int limit, long offset,
+      ResultSetExtractor<T> extractor) {
+    return jdbcTemplate.query(DOGS_AT_LOCATION_SQL, extractor, locationId,
+        limit, offset, locationId);
+  }
+}
@@ -0,0 +1,299 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.dao;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class holds the connection pools of the primary database and its read
+ * replicas, and decides which pool serves a connection. Writes always go to
+ * the primary. Read-only work goes to the replicas in turn, skipping any
+ * replica that is too far behind the primary or cannot be reached; if no
+ * replica is available it falls back to the primary. Work that must not see
+ * a lagging copy, such as building a response that will be cached, can pin
+ * the reads of its thread to the primary with {@link #readFromPrimary()}.
+ * 
+ * The lag of each replica is read with a configurable query that returns the
+ * lag in seconds, once at startup and then at a fixed interval. A replica
+ * whose query fails or returns no value is treated as unavailable.
+ * 
+ * The following meters are published, tagged with the pool name:
+ * <ul>
+ * <li>{@code datasource.routing} counts the connections routed to each pool,
+ * with a {@code reason} tag of write, read, fallback or pinned.</li>
+ * <li>{@code datasource.replica.lag} is the last lag read, in seconds.</li>
+ * <li>{@code datasource.replica.available} is 1 while a replica takes reads
+ * and 0 otherwise.</li>
+ * </ul>
+ * The pool metrics ({@code hikaricp.connections.*}) are published by each
+ * Hikari pool.
+ * 
+ * @author Promineo
+ *
+ */
+@Slf4j
+public class ReplicaPools implements MeterBinder, AutoCloseable {
+  /** The lookup key and pool name of the primary. */
+  public static final String PRIMARY = "primary";
+
+  private static final String ROUTING_METER = "datasource.routing";
+
+  /* True while the reads of the thread are pinned to the primary. */
+  private static final ThreadLocal<Boolean> PINNED =
+      ThreadLocal.withInitial(() -> false);
+
+  private final HikariDataSource primary;
+  private final List<Replica> replicas = new ArrayList<>();
+  private final Duration maxLag;
+  private final String lagQuery;
+  private final Duration lagCheckInterval;
+  private final AtomicInteger next = new AtomicInteger();
+  private final Map<String, Counter> routed = new ConcurrentHashMap<>();
+  private ScheduledExecutorService lagChecker;
+
+  /**
+   * Create the pools.
+   * 
+   * @param primary The primary pool.
+   * @param replicaPools The replica pools. The pool names must be unique.
+   * @param maxLag The largest lag at which a replica still takes reads.
+   * @param lagQuery The query that returns a replica's lag in seconds.
+   * @param lagCheckInterval How often the lag is read.
+   */
+  public ReplicaPools(HikariDataSource primary,
+      List<HikariDataSource> replicaPools, Duration maxLag, String lagQuery,
+      Duration lagCheckInterval) {
+    this.primary = primary;
+    this.maxLag = maxLag;
+    this.lagQuery = lagQuery;
+    this.lagCheckInterval = lagCheckInterval;
+
+    for(HikariDataSource pool : replicaPools) {
+      replicas.add(new Replica(pool));
+    }
+  }
+
+  /**
+   * Send the read-only transactions of the current thread to the primary
+   * until the returned handle is closed. The handle must be closed on the same
+   * thread, normally with try-with-resources. Calls may be nested. This has no
+   * effect when the read replicas are not enabled.
+   * 
+   * @return The handle that ends the pinning.
+   */
+  public static PinnedReads readFromPrimary() {
+    boolean outer = PINNED.get();
+
+    PINNED.set(true);
+    return () -> PINNED.set(outer);
+  }
+
+  /**
+   * Read the lag of every replica now and then at the configured interval.
+   */
+  public void start() {
+    checkLag();
+
+    lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "replica-lag-check");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    long interval = lagCheckInterval.toMillis();
+    lagChecker.scheduleWithFixedDelay(this::checkLag, interval, interval,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stop the lag checks and close every pool.
+   */
+  @Override
+  public void close() {
+    if(Objects.nonNull(lagChecker)) {
+      lagChecker.shutdownNow();
+    }
+
+    replicas.forEach(replica -> replica.pool.close());
+    primary.close();
+  }
+
+  /**
+   * Return the primary pool.
+   * 
+   * @return The primary pool.
+   */
+  public HikariDataSource getPrimary() {
+    return primary;
+  }
+
+  /**
+   * Return every pool by its lookup key, which is the pool name.
+   * 
+   * @return The pools.
+   */
+  public Map<Object, Object> getTargets() {
+    Map<Object, Object> targets = new HashMap<>();
+
+    targets.put(PRIMARY, primary);
+    replicas.forEach(
+        replica -> targets.put(replica.pool.getPoolName(), replica.pool));
+
+    return targets;
+  }
+
+  /**
+   * Choose the pool for a new connection.
+   * 
+   * @param readOnly {@code true} if the connection is for a read-only
+   *        transaction.
+   * @return The lookup key of the pool.
+   */
+  public String route(boolean readOnly) {
+    if(!readOnly) {
+      return count(PRIMARY, "write");
+    }
+
+    if(PINNED.get()) {
+      return count(PRIMARY, "pinned");
+    }
+
+    int size = replicas.size();
+    int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+
+    for(int offset = 0; offset < size; offset++) {
+      Replica replica = replicas.get((start + offset) % size);
+
+      if(replica.available) {
+        return count(replica.pool.getPoolName(), "read");
+      }
+    }
+
+    return count(PRIMARY, "fallback");
+  }
+
+  /**
+   * Read the lag of every replica and mark it available if the lag is within
+   * the limit.
+   */
+  public void checkLag() {
+    for(Replica replica : replicas) {
+      double lagSeconds = readLag(replica.pool);
+      boolean available = !Double.isNaN(lagSeconds)
+          && lagSeconds * 1000 <= maxLag.toMillis();
+
+      if(available != replica.available) {
+        log.warn("Replica {} is {} (lag {} s)", replica.pool.getPoolName(),
+            available ? "available" : "unavailable", lagSeconds);
+      }
+
+      replica.lagSeconds = lagSeconds;
+      replica.available = available;
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for(Object pool : getTargets().keySet()) {
+      for(String reason : List.of("write", "read", "fallback", "pinned")) {
+        // @formatter:off
+        routed.put(pool + "|" + reason, Counter.builder(ROUTING_METER)
+            .tag("pool", pool.toString())
+            .tag("reason", reason)
+            .register(registry));
+        // @formatter:on
+      }
+    }
+
+    for(Replica replica : replicas) {
+      String pool = replica.pool.getPoolName();
+
+      Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+          .tag("pool", pool).baseUnit("seconds").register(registry);
+      Gauge.builder("datasource.replica.available", replica,
+          r -> r.available ? 1 : 0).tag("pool", pool).register(registry);
+    }
+  }
+
+  /**
+   * Count a routed connection.
+   * 
+   * @param pool The pool name.
+   * @param reason Why the pool was chosen.
+   * @return The pool name.
+   */
+  private String count(String pool, String reason) {
+    Counter counter = routed.get(pool + "|" + reason);
+
+    if(Objects.nonNull(counter)) {
+      counter.increment();
+    }
+
+    return pool;
+  }
+
+  /**
+   * Run the lag query on a replica.
+   * 
+   * @param pool The replica pool.
+   * @return The lag in seconds, or NaN if it could not be read.
+   */
+  private double readLag(HikariDataSource pool) {
+    try(Connection conn = pool.getConnection();
+        Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery(lagQuery)) {
+      if(rs.next()) {
+        double lag = rs.getDouble(1);
+        return rs.wasNull() ? Double.NaN : lag;
+      }
+    }
+    catch(SQLException e) {
+      log.debug("Could not read the lag of replica {}", pool.getPoolName(), e);
+    }
+
+    return Double.NaN;
+  }
+
+  /**
+   * This is returned by {@link ReplicaPools#readFromPrimary()}. Closing it
+   * ends the pinning.
+   */
+  public interface PinnedReads extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  /**
+   * This is the state of one replica. The fields are written by the lag
+   * checks and read by the request threads.
+   */
+  private static class Replica {
+    private final HikariDataSource pool;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean available;
+
+    Replica(HikariDataSource pool) {
+      this.pool = pool;
+    }
+  }
+}
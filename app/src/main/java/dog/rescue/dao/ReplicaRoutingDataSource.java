@@ -0,0 +1,43 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.dao;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * This data source sends the connections of read-only transactions to a read
+ * replica and all others to the primary. {@link ReplicaPools} chooses the
+ * pool.
+ * 
+ * The transaction is only marked read-only after its connection has been
+ * requested, so this data source must be wrapped in a
+ * {@link LazyConnectionDataSourceProxy}, which waits for the first statement
+ * before it fetches the real connection.
+ * 
+ * @author Promineo
+ *
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+  private final ReplicaPools pools;
+
+  /**
+   * Create the data source.
+   * 
+   * @param pools The primary and replica pools.
+   */
+  public ReplicaRoutingDataSource(ReplicaPools pools) {
+    this.pools = pools;
+
+    setTargetDataSources(pools.getTargets());
+    setDefaultTargetDataSource(pools.getPrimary());
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return pools.route(
+        TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+  }
+}
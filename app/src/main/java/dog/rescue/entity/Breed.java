@@ -4,23 +4,33 @@ package dog.rescue.entity;
 
 import java.util.HashSet;
 import java.util.Set;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 /**
- * This entity class tells Spring JPA how to manage the breed table.
+ * This entity class tells Spring JPA how to manage the breed table. Changes
+ * to breeds are published as events by {@link BreedChangeListener}.
+ * Breeds are also held in the "breed" second-level cache region when the
+ * l2-cache profile is active.
  * 
  * @author Promineo
  *
  */
 @Entity
 @Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "breed")
+@EntityListeners(BreedChangeListener.class)
 public class Breed {
   /**
    * This tells Spring JPA that the <em>breedId</em> field is the identity
@@ -0,0 +1,43 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.entity;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import dog.rescue.event.BreedChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * This JPA entity listener publishes a {@link BreedChangedEvent} whenever a
+ * {@link Breed} entity is inserted, updated or deleted. Spring Boot lets
+ * Hibernate create entity listeners as Spring beans, so the event publisher
+ * can be injected.
+ * 
+ * The JPA callbacks run when the change is flushed, before the transaction
+ * ends, so nothing that depends on the change is updated here. The breed
+ * cache in the service layer listens for the event and empties itself once
+ * the transaction has ended. The listener lives with the entities so that
+ * they do not depend on the service layer.
+ * 
+ * @author Promineo
+ *
+ */
+public class BreedChangeListener {
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Report that a breed was changed.
+   * 
+   * @param breed The changed breed.
+   */
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void breedChanged(Breed breed) {
+    eventPublisher.publishEvent(new BreedChangedEvent(breed.getBreedId()));
+  }
+}
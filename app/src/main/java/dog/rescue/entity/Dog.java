@@ -2,9 +2,8 @@
 
 package dog.rescue.entity;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -13,6 +12,10 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -54,6 +57,11 @@ public class Dog {
   @EqualsAndHashCode.Exclude
   private String color;
 
+  /** The row version. Hibernate increments it whenever the dog is updated. */
+  @EqualsAndHashCode.Exclude
+  @Version
+  private long version;
+
   /**
    * This defines the "owned" side of the one-to-many relationship between
    * location and dog. A dog can have only one location but a location can have
@@ -69,12 +77,20 @@ public class Dog {
 
   /**
    * This defines the "owner" side of the many-to-many relationship between dog
-   * and breed. It tells Spring JPA how the join table is formatted.
+   * and breed. It tells Spring JPA how the join table is formatted. Breeds are
+   * reference data and are never created through a dog, so nothing is
+   * cascaded. This lets a dog hold the detached breeds from the breed cache.
+   * The breed IDs of each dog are held in the "dog.breeds" second-level cache
+   * region when the l2-cache profile is active. As with the location's dogs,
+   * the breeds are kept in the order in which they were read, which is breed
+   * ID order.
    */
   @EqualsAndHashCode.Exclude
   @ToString.Exclude
-  @ManyToMany(cascade = CascadeType.PERSIST)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dog.breeds")
+  @ManyToMany
   @JoinTable(name = "dog_breed", joinColumns = @JoinColumn(name = "dog_id"),
       inverseJoinColumns = @JoinColumn(name = "breed_id"))
-  private Set<Breed> breeds = new HashSet<>();
+  @OrderBy("breedId")
+  private Set<Breed> breeds = new LinkedHashSet<>();
 }
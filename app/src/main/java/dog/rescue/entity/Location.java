@@ -0,0 +1,94 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.entity;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import lombok.Data;
+
+/**
+ * This class is used by Spring JPA to manage data I/O on the breed table. It
+ * defines the relationship between the breed table and the dog table.
+ * 
+ * The named entity graph is a fetch plan. A query that uses it loads the
+ * location, its dogs and the dogs' breeds in a single SQL statement instead of
+ * one statement per location and one per dog.
+ * 
+ * DynamicUpdate makes Hibernate write only the columns that changed, so a
+ * partial update of one field is a single narrow UPDATE statement.
+ * 
+ * Locations are held in the "location" second-level cache region when the
+ * l2-cache profile is active. The dogs are not part of the cached entry.
+ * 
+ * @author Promineo
+ *
+ */
+@Entity
+@Data
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "location")
+// @formatter:off
+@NamedEntityGraph(name = Location.WITH_DOGS_AND_BREEDS,
+    attributeNodes = @NamedAttributeNode(value = "dogs", subgraph = "dogs"),
+    subgraphs = @NamedSubgraph(name = "dogs",
+        attributeNodes = @NamedAttributeNode("breeds")))
+// @formatter:on
+public class Location {
+  /** Fetch plan that loads the location, its dogs and their breeds. */
+  public static final String WITH_DOGS_AND_BREEDS = "Location.dogsAndBreeds";
+
+  /**
+   * These annotations tell Spring JPA that the <em>locationId</em> field is the
+   * primary key field and that the values in the primary key are managed by
+   * MySQL.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long locationId;
+
+  private String businessName;
+  private String streetAddress;
+  private String city;
+  private String state;
+  private String zip;
+  private String phone;
+
+  /**
+   * The row version. Hibernate increments it whenever the location is updated
+   * and the service layer forces an increment whenever one of the location's
+   * dogs is added or changed, so it identifies the state of the location and
+   * all of its dogs. The ETags of the location and of its dogs are built from
+   * it.
+   */
+  @Version
+  private long version;
+
+  /**
+   * This defines the one-to-many relationship between the location and dog
+   * tables. This is the "owner" side of the relationship. The "mappedBy"
+   * attributes causes Hibernate to create a bidirectional one-to-many
+   * relationship. Because the collection is ordered, Hibernate holds it in
+   * a linked set that keeps the dogs in the order in which they were read.
+   * The listing queries read them in dog ID order.
+   */
+  @OneToMany(mappedBy = "location", cascade = CascadeType.ALL,
+      orphanRemoval = true)
+  @OrderBy("dogId")
+  private Set<Dog> dogs = new LinkedHashSet<>();
+}
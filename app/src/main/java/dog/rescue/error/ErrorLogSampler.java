@@ -0,0 +1,144 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.error;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * This class limits how often the same kind of error is logged. Errors are
+ * grouped by exception type and endpoint. In each window, the first few
+ * errors of a group are logged and the rest are only counted. The next error
+ * that is logged carries the number that were skipped since the last one, so
+ * the log still shows how many there were.
+ * 
+ * Skipped errors are also counted by the
+ * {@code http.server.errors.suppressed} counter, tagged with the exception
+ * type and the endpoint. The endpoint is the URI pattern, such as
+ * "/dog_rescue/location/{locationId}", so the number of groups stays small
+ * even when every request has a different ID.
+ * 
+ * @author Promineo
+ *
+ */
+public class ErrorLogSampler {
+  /** Returned by {@link #sample(Class, String)} for an error to skip. */
+  public static final long SKIP = -1;
+
+  private final MeterRegistry meterRegistry;
+  private final int maxPerWindow;
+  private final long windowNanos;
+  private final Map<Group, Window> windows = new ConcurrentHashMap<>();
+
+  /**
+   * This identifies a group of similar errors.
+   * 
+   * @param exception The exception type.
+   * @param uri The URI pattern of the endpoint.
+   */
+  private record Group(Class<?> exception, String uri) {
+  }
+
+  /**
+   * Create the sampler.
+   * 
+   * @param meterRegistry The registry of the skipped error counters.
+   * @param maxPerWindow The number of errors in a group that are logged in
+   *        each window.
+   * @param window The length of a window.
+   */
+  public ErrorLogSampler(MeterRegistry meterRegistry, int maxPerWindow,
+      Duration window) {
+    this.meterRegistry = meterRegistry;
+    this.maxPerWindow = maxPerWindow;
+    this.windowNanos = window.toNanos();
+  }
+
+  /**
+   * Decide whether to log an error.
+   * 
+   * @param exception The exception type.
+   * @param uri The URI pattern of the endpoint.
+   * @return {@link #SKIP} if the error should not be logged. Otherwise, the
+   *         number of errors in the group that were skipped since the last
+   *         one that was logged.
+   */
+  public long sample(Class<?> exception, String uri) {
+    Group group = new Group(exception, uri);
+
+    return windows.computeIfAbsent(group, this::createWindow)
+        .sample(System.nanoTime());
+  }
+
+  /**
+   * Create the window of a new group.
+   * 
+   * @param group The group.
+   * @return The window.
+   */
+  private Window createWindow(Group group) {
+    // @formatter:off
+    Counter suppressed = Counter.builder("http.server.errors.suppressed")
+        .description("Errors that were not logged because too many similar"
+            + " errors were logged recently")
+        .tag("exception", group.exception().getSimpleName())
+        .tag("uri", group.uri())
+        .register(meterRegistry);
+    // @formatter:on
+
+    return new Window(suppressed);
+  }
+
+  /**
+   * This inner class counts the errors of one group in the current window.
+   * The counts change together, so they are guarded by the window's lock,
+   * which is only contended by errors of the same group.
+   * 
+   * @author Promineo
+   *
+   */
+  private class Window {
+    private final Counter suppressed;
+    private long start = Long.MIN_VALUE;
+    private int logged;
+    private long skipped;
+
+    /**
+     * Create a window.
+     * 
+     * @param suppressed Counts the skipped errors.
+     */
+    Window(Counter suppressed) {
+      this.suppressed = suppressed;
+    }
+
+    /**
+     * Count an error and decide whether to log it.
+     * 
+     * @param now The current time from {@link System#nanoTime()}.
+     * @return {@link ErrorLogSampler#SKIP} or the number of errors skipped
+     *         since the last one that was logged.
+     */
+    synchronized long sample(long now) {
+      if(start == Long.MIN_VALUE || now - start >= windowNanos) {
+        start = now;
+        logged = 0;
+      }
+
+      if(logged < maxPerWindow) {
+        long count = skipped;
+
+        logged++;
+        skipped = 0;
+        return count;
+      }
+
+      skipped++;
+      suppressed.increment();
+      return SKIP;
+    }
+  }
+}
@@ -1,16 +1,19 @@
 package dog.rescue.error;
 
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Clock;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.HandlerMapping;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -20,10 +23,25 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class GlobalControllerErrorHandler {
 	
+	private static final String UNKNOWN_URI = "UNKNOWN";
+	
 	private enum LogStatus {
 		STACK_TRACE, MESSAGE_ONLY
 	}
 	
+	/*
+	 * Formats the timestamps. The format has a resolution of one second, so
+	 * each second is only formatted once.
+	 */
+	private final HttpDateClock clock = new HttpDateClock(Clock.systemDefaultZone());
+	
+	/*
+	 * Limits how often similar errors are logged. It only exists when the
+	 * "sampled-errors" profile is active. Without it, every error is logged.
+	 */
+	@Autowired(required = false)
+	private ErrorLogSampler errorLogSampler;
+	
 	@Data
 	@NoArgsConstructor
 	private class ExceptionMessage {
@@ -61,6 +79,15 @@ public class GlobalControllerErrorHandler {
 		return buildExceptionMessage(e, HttpStatus.CONFLICT, webRequest, LogStatus.MESSAGE_ONLY);
 	}
 
+	/*
+	 * Exception handler for IllegalArgumentException
+	 */
+	@ExceptionHandler(IllegalArgumentException.class)
+	@ResponseStatus(code = HttpStatus.BAD_REQUEST)
+	public ExceptionMessage handleIllegalArgumentException(IllegalArgumentException e, WebRequest webRequest) {
+		return buildExceptionMessage(e, HttpStatus.BAD_REQUEST, webRequest, LogStatus.MESSAGE_ONLY);
+	}
+
 	/*
 	 * Exception handler for UnsupportedOperationException
 	 */
@@ -76,18 +103,13 @@ public class GlobalControllerErrorHandler {
 		String statusReason = status.getReasonPhrase();
 		int statusCode = status.value();
 		String uri = null;
-		String timestamp = ZonedDateTime.now().format(DateTimeFormatter.RFC_1123_DATE_TIME);
+		String timestamp = clock.now();
 		
 		if (webRequest instanceof ServletWebRequest swr) {
 			uri = swr.getRequest().getRequestURI();
 		}
 		
-		if (logStatus == LogStatus.MESSAGE_ONLY) {
-			log.error("Exception: {}", e.toString());
-		}
-		else {
-			log.error("Exception: ", e);
-		}
+		logException(e, webRequest, logStatus);
 		
 		ExceptionMessage em = new ExceptionMessage();
 		em.setMessage(message);
@@ -99,4 +121,33 @@ public class GlobalControllerErrorHandler {
 		return em;
 	}
 
+	/*
+	 * Log an exception, unless the error log sampler says that too many
+	 * similar errors were logged recently. Errors are grouped by exception
+	 * type and URI pattern.
+	 */
+	private void logException(Exception e, WebRequest webRequest, LogStatus logStatus) {
+		long skipped = 0;
+		
+		if (Objects.nonNull(errorLogSampler)) {
+			String uri = Objects.toString(webRequest.getAttribute(
+					HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST), UNKNOWN_URI);
+			
+			skipped = errorLogSampler.sample(e.getClass(), uri);
+			
+			if (skipped == ErrorLogSampler.SKIP) {
+				return;
+			}
+		}
+		
+		String suffix = skipped > 0 ? " (" + skipped + " similar errors were not logged)" : "";
+		
+		if (logStatus == LogStatus.MESSAGE_ONLY) {
+			log.error("Exception: {}{}", e.toString(), suffix);
+		}
+		else {
+			log.error("Exception{}: ", suffix, e);
+		}
+	}
+
 }
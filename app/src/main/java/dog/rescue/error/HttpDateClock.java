@@ -0,0 +1,62 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.error;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * This class returns the current time in the RFC 1123 format used in error
+ * responses, such as "Tue, 3 Jun 2008 11:05:30 GMT". The format has a
+ * resolution of one second, so the formatted time is cached and only
+ * formatted again when the second changes. Every error in the same second
+ * shares one string.
+ * 
+ * @author Promineo
+ *
+ */
+class HttpDateClock {
+  private final Clock clock;
+  private volatile Entry current = new Entry(Long.MIN_VALUE, null);
+
+  /**
+   * This is a formatted time.
+   * 
+   * @param epochSecond The time in seconds since the epoch.
+   * @param text The formatted time.
+   */
+  private record Entry(long epochSecond, String text) {
+  }
+
+  /**
+   * Create the clock.
+   * 
+   * @param clock The clock that gives the time and the time zone.
+   */
+  HttpDateClock(Clock clock) {
+    this.clock = clock;
+  }
+
+  /**
+   * Return the current time as text. Two threads may both format a new
+   * second, but they produce the same text, so either result may be kept.
+   * 
+   * @return The formatted time.
+   */
+  String now() {
+    Instant now = clock.instant();
+    Entry entry = current;
+
+    if(entry.epochSecond() != now.getEpochSecond()) {
+      String text = ZonedDateTime.ofInstant(now, clock.getZone())
+          .format(DateTimeFormatter.RFC_1123_DATE_TIME);
+
+      entry = new Entry(now.getEpochSecond(), text);
+      current = entry;
+    }
+
+    return entry.text();
+  }
+}
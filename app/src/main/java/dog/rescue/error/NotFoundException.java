@@ -0,0 +1,48 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.error;
+
+import java.util.NoSuchElementException;
+
+/**
+ * This exception is thrown when a client asks for something that does not
+ * exist, such as a location or dog ID that is not in the database. That is an
+ * expected outcome, answered with a 404 response, so the exception does not
+ * record a stack trace. Filling in the stack trace is most of the cost of
+ * creating an exception, and a client that looks up missing IDs in bulk can
+ * create a great many of them.
+ * 
+ * It is a {@link NoSuchElementException} and reports itself as one in
+ * {@link #toString()}, so the error responses are the same as before.
+ * 
+ * @author Promineo
+ *
+ */
+public class NotFoundException extends NoSuchElementException {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Create the exception.
+   * 
+   * @param message The message, which is returned to the client.
+   */
+  public NotFoundException(String message) {
+    super(message);
+  }
+
+  /**
+   * Do not record a stack trace.
+   */
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+
+  /**
+   * Describe the exception as a {@link NoSuchElementException}.
+   */
+  @Override
+  public String toString() {
+    return NoSuchElementException.class.getName() + ": " + getMessage();
+  }
+}
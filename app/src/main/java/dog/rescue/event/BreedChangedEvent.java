@@ -0,0 +1,17 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.event;
+
+/**
+ * This event is published when a breed is inserted, updated or deleted
+ * through JPA. It is published while the transaction is still open, so the
+ * breed cache listens for the end of the transaction before it discards its
+ * copy of the breeds.
+ * 
+ * @param breedId The ID of the changed breed.
+ * 
+ * @author Promineo
+ *
+ */
+public record BreedChangedEvent(Long breedId) {
+}
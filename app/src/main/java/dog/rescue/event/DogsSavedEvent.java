@@ -0,0 +1,42 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.event;
+
+import java.util.List;
+import dog.rescue.controller.model.DogInfo;
+
+/**
+ * This event is published by the service layer when one or more dogs are
+ * inserted or updated. Listeners that keep in-memory views of the dogs use
+ * {@code @TransactionalEventListener} so that they only see the change once
+ * the transaction has committed.
+ * 
+ * @param changes The saved dogs.
+ * 
+ * @author Promineo
+ *
+ */
+public record DogsSavedEvent(List<DogChange> changes) {
+
+  /**
+   * The state of a single dog before and after it was saved.
+   * 
+   * @param before The dog before the change, or {@code null} if the dog was
+   *        inserted.
+   * @param after The dog after the change, with its location and breeds.
+   */
+  public record DogChange(DogInfo before, DogInfo after) {
+  }
+
+  /**
+   * Create an event for a single dog.
+   * 
+   * @param before The dog before the change, or {@code null} if the dog was
+   *        inserted.
+   * @param after The dog after the change.
+   * @return The event.
+   */
+  public static DogsSavedEvent of(DogInfo before, DogInfo after) {
+    return new DogsSavedEvent(List.of(new DogChange(before, after)));
+  }
+}
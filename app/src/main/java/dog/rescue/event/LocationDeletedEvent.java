@@ -0,0 +1,15 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.event;
+
+/**
+ * This event is published by the service layer when a location is deleted,
+ * along with all of its dogs.
+ * 
+ * @param locationId The ID of the deleted location.
+ * 
+ * @author Promineo
+ *
+ */
+public record LocationDeletedEvent(Long locationId) {
+}
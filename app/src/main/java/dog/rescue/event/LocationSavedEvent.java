@@ -0,0 +1,17 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.event;
+
+import dog.rescue.controller.model.LocationData;
+
+/**
+ * This event is published by the service layer when a location is inserted
+ * or updated.
+ * 
+ * @param location The saved location.
+ * 
+ * @author Promineo
+ *
+ */
+public record LocationSavedEvent(LocationData location) {
+}
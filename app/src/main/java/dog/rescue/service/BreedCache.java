@@ -0,0 +1,268 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import dog.rescue.dao.BreedDao;
+import dog.rescue.dao.ReplicaPools;
+import dog.rescue.dao.ReplicaPools.PinnedReads;
+import dog.rescue.entity.Breed;
+import dog.rescue.event.BreedChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class keeps the breed table in memory, keyed by breed name. The breed
+ * table is reference data that is seeded at startup and rarely changes, so
+ * saving a dog can resolve its breeds without a database round trip.
+ * 
+ * The cache is loaded when the application is ready and is reloaded on the
+ * next lookup after {@link #invalidate()} is called. That happens when a
+ * transaction that inserted, updated or deleted a Breed entity through JPA
+ * ends (see {@link dog.rescue.entity.BreedChangeListener}). A name that is
+ * not in the cache is looked up in the database, so breeds added behind the
+ * application's back are still found.
+ * 
+ * Loads read the database without holding a lock, so a load can overlap an
+ * invalidation and read the breeds as they were before it. Every
+ * invalidation bumps a generation counter, and a load only installs what it
+ * read if the generation has not changed since it started.
+ * 
+ * Hits and misses are published as the Micrometer meters
+ * {@code cache.gets{cache=breed,result=hit|miss}} and the number of cached
+ * breeds as {@code cache.size{cache=breed}}.
+ * 
+ * @author Promineo
+ *
+ */
+@Component
+@Slf4j
+public class BreedCache implements InMemoryIndex, MeterBinder {
+  private static final String CACHE_NAME = "breed";
+
+  @Autowired
+  private BreedDao breedDao;
+
+  /*
+   * This is replaced, never modified, so readers need no locking. A null value
+   * means that the cache must be reloaded. It is only replaced while holding
+   * this object's lock.
+   */
+  private volatile Map<String, Long> breedIdsByName;
+
+  /* Bumped by every invalidation while holding this object's lock. */
+  private volatile long generation;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Load the cache once the application has started.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warm() {
+    reload();
+  }
+
+  /**
+   * Reload the cached breeds now. A load that is already running does not
+   * install what it read.
+   */
+  @Override
+  public void rebuild() {
+    invalidate();
+    reload();
+  }
+
+  /**
+   * Discard the cached breeds once a transaction that changed a breed has
+   * ended. The cache is also discarded after a rollback, because a lookup in
+   * that transaction may have cached a breed that was never committed.
+   * 
+   * @param event The changed breed.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION,
+      fallbackExecution = true)
+  public void breedChanged(BreedChangedEvent event) {
+    invalidate();
+  }
+
+  /**
+   * Discard the cached breeds. They are reloaded on the next lookup. A load
+   * that is already running does not install what it read.
+   */
+  public synchronized void invalidate() {
+    generation++;
+    breedIdsByName = null;
+  }
+
+  /**
+   * Return the Breed objects with the given names. Names that are not in the
+   * cache are looked up in the database with a single query. Names that are
+   * not in the breed table are ignored, as they are by
+   * {@link BreedDao#findByNameIn(Set)}.
+   * 
+   * The returned Breed objects are new, detached instances. They carry the ID
+   * and name, which is all that is needed to write the dog_breed rows and to
+   * build the response.
+   * 
+   * @param breedNames The breed names.
+   * @return The matching breeds.
+   */
+  public Set<Breed> findByNameIn(Set<String> breedNames) {
+    Map<String, Long> cached = breedIdsByName;
+
+    if(cached == null) {
+      cached = reload();
+    }
+
+    Set<Breed> breeds = new HashSet<>();
+    Set<String> missing = new HashSet<>();
+
+    for(String name : breedNames) {
+      Long breedId = cached.get(name);
+
+      if(breedId == null) {
+        missing.add(name);
+      }
+      else {
+        breeds.add(newBreed(breedId, name));
+      }
+    }
+
+    hits.add(breedNames.size() - missing.size());
+
+    if(!missing.isEmpty()) {
+      misses.add(missing.size());
+      breeds.addAll(loadMissing(missing));
+    }
+
+    return breeds;
+  }
+
+  /**
+   * Look up breeds that are not in the cache and add any that are found,
+   * unless the cache was invalidated during the lookup.
+   * 
+   * @param names The breed names that are not cached.
+   * @return The breeds that were found in the database.
+   */
+  private Set<Breed> loadMissing(Set<String> names) {
+    long started = generation;
+    Set<Breed> found;
+
+    try(PinnedReads pinned = ReplicaPools.readFromPrimary()) {
+      found = breedDao.findByNameIn(names);
+    }
+
+    if(!found.isEmpty()) {
+      synchronized(this) {
+        Map<String, Long> current = breedIdsByName;
+
+        if(generation == started && current != null) {
+          Map<String, Long> updated = new HashMap<>(current);
+
+          for(Breed breed : found) {
+            updated.put(breed.getName(), breed.getBreedId());
+          }
+
+          breedIdsByName = Map.copyOf(updated);
+        }
+      }
+    }
+
+    return found;
+  }
+
+  /**
+   * Read the whole breed table into the cache. If the cache is invalidated
+   * while the table is being read, what was read is returned to the caller
+   * but not cached. Like the lookups of missing breeds, this reads from the
+   * primary, so that a lagging replica cannot put an old breed in the cache.
+   * 
+   * @return The breeds that were read.
+   */
+  private Map<String, Long> reload() {
+    long started = generation;
+    Map<String, Long> loaded = new HashMap<>();
+
+    try(PinnedReads pinned = ReplicaPools.readFromPrimary()) {
+      for(Breed breed : breedDao.findAll()) {
+        loaded.put(breed.getName(), breed.getBreedId());
+      }
+    }
+
+    Map<String, Long> snapshot = Map.copyOf(loaded);
+
+    synchronized(this) {
+      if(generation == started) {
+        breedIdsByName = snapshot;
+        log.info("Loaded {} breeds into the breed cache", snapshot.size());
+      }
+    }
+
+    return snapshot;
+  }
+
+  /**
+   * Create a detached Breed object.
+   * 
+   * @param breedId The breed ID.
+   * @param name The breed name.
+   * @return The Breed object.
+   */
+  private Breed newBreed(Long breedId, String name) {
+    Breed breed = new Breed();
+
+    breed.setBreedId(breedId);
+    breed.setName(name);
+
+    return breed;
+  }
+
+  /**
+   * Register the hit, miss and size meters.
+   */
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    // @formatter:off
+    FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+        .tags("cache", CACHE_NAME, "result", "hit")
+        .description("Breed names found in the breed cache")
+        .register(registry);
+
+    FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+        .tags("cache", CACHE_NAME, "result", "miss")
+        .description("Breed names looked up in the database")
+        .register(registry);
+
+    Gauge.builder("cache.size", this, cache -> cache.size())
+        .tags("cache", CACHE_NAME)
+        .description("The number of breeds in the breed cache")
+        .register(registry);
+    // @formatter:on
+  }
+
+  /**
+   * Return the number of cached breeds.
+   * 
+   * @return The number of breeds or zero if the cache is not loaded.
+   */
+  private int size() {
+    Map<String, Long> cached = breedIdsByName;
+    return cached == null ? 0 : cached.size();
+  }
+}
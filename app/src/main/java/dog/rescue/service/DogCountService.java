@@ -0,0 +1,273 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import dog.rescue.controller.model.DogCounts;
+import dog.rescue.controller.model.DogInfo;
+import dog.rescue.controller.model.DogInfo.DogInfoBreed;
+import dog.rescue.dao.DogCountRow;
+import dog.rescue.dao.DogDao;
+import dog.rescue.dao.ReplicaPools;
+import dog.rescue.dao.ReplicaPools.PinnedReads;
+import dog.rescue.event.DogsSavedEvent;
+import dog.rescue.event.DogsSavedEvent.DogChange;
+import dog.rescue.event.LocationDeletedEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class keeps the number of dogs at each location, in total and by
+ * breed, so that the counts can be read without touching the database. The
+ * counters are seeded with two GROUP BY queries when the application is ready
+ * and are then adjusted from the {@link DogsSavedEvent} and
+ * {@link LocationDeletedEvent} events after each transaction commits. A
+ * rolled-back transaction never changes a count.
+ * 
+ * Each count is a {@link LongAdder} in a {@link ConcurrentHashMap}, so many
+ * requests can update the same location at once without contending on a lock.
+ * 
+ * The events are applied as changes to the counts, so a rebuild must see
+ * exactly the transactions whose changes are thrown away with the old
+ * counters. A transaction that changes dogs holds a shared commit lock from
+ * just before it commits until its change is applied, and a rebuild holds the
+ * lock exclusively while it reads the tables. A rebuild therefore waits for
+ * the commits in progress and holds off new ones until the new counters are
+ * in place.
+ * 
+ * @author Promineo
+ *
+ */
+@Service
+@Slf4j
+public class DogCountService implements InMemoryIndex {
+
+  @Autowired
+  private DogDao dogDao;
+
+  private final ReadWriteLock commitLock = new ReentrantReadWriteLock();
+
+  /* This is replaced on a rebuild so that readers never see a partial load. */
+  private volatile ConcurrentMap<Long, LocationCounters> countersByLocation =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Seed the counters once the application has started.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warm() {
+    rebuild();
+  }
+
+  /**
+   * Seed the counters from the dog and dog_breed tables. No dog change is
+   * committed while the tables are read, and they are read from the primary,
+   * since a replica may not have applied the latest commits yet.
+   */
+  @Override
+  public void rebuild() {
+    ConcurrentMap<Long, LocationCounters> seeded = new ConcurrentHashMap<>();
+
+    commitLock.writeLock().lock();
+
+    try(PinnedReads pinned = ReplicaPools.readFromPrimary()) {
+      for(DogCountRow row : dogDao.countByLocation()) {
+        counters(seeded, row.getLocationId()).total.add(row.getDogCount());
+      }
+
+      for(DogCountRow row : dogDao.countByLocationAndBreed()) {
+        counters(seeded, row.getLocationId()).breed(row.getBreedName())
+            .add(row.getDogCount());
+      }
+
+      countersByLocation = seeded;
+    }
+    finally {
+      commitLock.writeLock().unlock();
+    }
+
+    log.info("Seeded dog counts for {} locations", seeded.size());
+  }
+
+  /**
+   * Return the dog counts for a location. This is a single map lookup. A
+   * location that does not exist or has no dogs has a total of zero.
+   * 
+   * @param locationId The location ID.
+   * @return The dog counts.
+   */
+  public DogCounts retrieveDogCounts(Long locationId) {
+    DogCounts dogCounts = new DogCounts();
+    LocationCounters counters = countersByLocation.get(locationId);
+
+    dogCounts.setLocationId(locationId);
+
+    if(Objects.nonNull(counters)) {
+      dogCounts.setTotal(counters.total.sum());
+
+      for(Map.Entry<String, LongAdder> entry : counters.byBreed.entrySet()) {
+        long count = entry.getValue().sum();
+
+        if(count > 0) {
+          dogCounts.getBreeds().put(entry.getKey(), count);
+        }
+      }
+    }
+
+    return dogCounts;
+  }
+
+  /**
+   * Return the number of dogs at a location. This is a single map lookup.
+   * 
+   * @param locationId The location ID.
+   * @return The number of dogs, or zero if the location is not known.
+   */
+  public long countDogs(Long locationId) {
+    LocationCounters counters = countersByLocation.get(locationId);
+
+    return Objects.isNull(counters) ? 0 : counters.total.sum();
+  }
+
+  /**
+   * Return the dog counts for every location that has dogs, sorted by
+   * location ID.
+   * 
+   * @return The dog counts.
+   */
+  public List<DogCounts> retrieveAllDogCounts() {
+    // @formatter:off
+    return countersByLocation.keySet()
+        .stream()
+        .sorted()
+        .map(this::retrieveDogCounts)
+        .filter(dogCounts -> dogCounts.getTotal() > 0)
+        .toList();
+    // @formatter:on
+  }
+
+  /**
+   * Adjust the counters after dogs are saved. An updated dog is taken away
+   * from its old location and breeds and added to its new ones.
+   * 
+   * @param event The saved dogs.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void dogsSaved(DogsSavedEvent event) {
+    afterCommit(() -> {
+      for(DogChange change : event.changes()) {
+        if(Objects.nonNull(change.before())) {
+          add(change.before(), -1);
+        }
+
+        add(change.after(), 1);
+      }
+    });
+  }
+
+  /**
+   * Drop the counters of a deleted location.
+   * 
+   * @param event The deleted location.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void locationDeleted(LocationDeletedEvent event) {
+    afterCommit(() -> countersByLocation.remove(event.locationId()));
+  }
+
+  /**
+   * Take the shared commit lock and apply a change to the counters once the
+   * transaction commits. The lock is released when the transaction completes,
+   * whether it commits or not.
+   * 
+   * @param change The change to the counters.
+   */
+  private void afterCommit(Runnable change) {
+    commitLock.readLock().lock();
+
+    try {
+      TransactionSynchronizationManager
+          .registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              try {
+                if(status == STATUS_COMMITTED) {
+                  change.run();
+                }
+              }
+              finally {
+                commitLock.readLock().unlock();
+              }
+            }
+          });
+    }
+    catch(RuntimeException e) {
+      commitLock.readLock().unlock();
+      throw e;
+    }
+  }
+
+  /**
+   * Add a dog to, or take it away from, the counters of its location.
+   * 
+   * @param dogInfo The dog with its location and breeds.
+   * @param delta 1 to add the dog or -1 to take it away.
+   */
+  private void add(DogInfo dogInfo, int delta) {
+    LocationCounters counters = counters(countersByLocation,
+        dogInfo.getLocation().getLocationId());
+
+    counters.total.add(delta);
+
+    for(DogInfoBreed breed : dogInfo.getBreeds()) {
+      counters.breed(breed.getName()).add(delta);
+    }
+  }
+
+  /**
+   * Return the counters of a location, creating them if necessary.
+   * 
+   * @param countersByLocation The counters of every location.
+   * @param locationId The location ID.
+   * @return The location's counters.
+   */
+  private static LocationCounters counters(
+      ConcurrentMap<Long, LocationCounters> countersByLocation,
+      Long locationId) {
+    return countersByLocation.computeIfAbsent(locationId,
+        id -> new LocationCounters());
+  }
+
+  /**
+   * This inner class holds the counters of one location.
+   */
+  private static class LocationCounters {
+    private final LongAdder total = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> byBreed =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Return the counter of a breed, creating it if necessary.
+     * 
+     * @param breedName The breed name.
+     * @return The counter.
+     */
+    LongAdder breed(String breedName) {
+      return byBreed.computeIfAbsent(breedName, name -> new LongAdder());
+    }
+  }
+}
@@ -0,0 +1,534 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import dog.rescue.controller.model.DogInfo;
+import dog.rescue.controller.model.DogInfo.DogInfoBreed;
+import dog.rescue.controller.model.DogSearchCriteria;
+import dog.rescue.dao.DogDao;
+import dog.rescue.dao.DogFacetRow;
+import dog.rescue.dao.ReplicaPools;
+import dog.rescue.dao.ReplicaPools.PinnedReads;
+import dog.rescue.event.DogsSavedEvent;
+import dog.rescue.event.DogsSavedEvent.DogChange;
+import dog.rescue.event.LocationDeletedEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class is an in-memory inverted index of the dogs for faceted search.
+ * It keeps a compressed bitmap (a Roaring bitmap) of dog IDs for every breed,
+ * color, age and location. A search intersects the bitmaps of its filters and
+ * the facet counts are the sizes of the intersections of the result with each
+ * facet value's bitmap. No table is read.
+ * 
+ * The index is loaded from the database when the application is ready and is
+ * then kept up to date from the {@link DogsSavedEvent} and
+ * {@link LocationDeletedEvent} events after each transaction commits.
+ * 
+ * Bitmaps are not thread safe, so searches share a read lock and updates take
+ * the write lock.
+ * 
+ * The bitmaps hold 32-bit values, so the index only holds dog IDs up to
+ * {@link Integer#MAX_VALUE}. A higher ID fails the rebuild, and with it the
+ * application start, rather than being indexed under the wrong dog.
+ * 
+ * @author Promineo
+ *
+ */
+@Component
+@Slf4j
+public class DogSearchIndex implements InMemoryIndex {
+  public static final String BREED_FACET = "breed";
+  public static final String COLOR_FACET = "color";
+  public static final String AGE_FACET = "age";
+  public static final String LOCATION_FACET = "locationId";
+
+  /* The lowest age in each age bucket of the age facet. */
+  private static final int[] AGE_BUCKETS = {0, 2, 5, 8, 11};
+
+  @Autowired
+  private DogDao dogDao;
+
+  private final TransactionTemplate readOnlyTransaction;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private Bitmaps bitmaps = new Bitmaps();
+
+  /**
+   * Create the index.
+   * 
+   * @param transactionManager Used to read the dogs in a transaction.
+   */
+  @Autowired
+  public DogSearchIndex(PlatformTransactionManager transactionManager) {
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+  }
+
+  /**
+   * Load the index once the application has started.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warm() {
+    rebuild();
+  }
+
+  /**
+   * Load the index from the dog, dog_breed and breed tables. The write lock is
+   * held for the whole load, so an update that arrives from a transaction
+   * that commits meanwhile waits and is then applied to the new bitmaps
+   * instead of to the old ones that are about to be thrown away. Applying an
+   * update again to a dog that the load already read does no harm, since it
+   * replaces the dog. Searches wait for the load to finish. The tables are
+   * read from the primary, since a replica may not have applied the latest
+   * commits yet.
+   */
+  @Override
+  public void rebuild() {
+    lock.writeLock().lock();
+
+    try(PinnedReads pinned = ReplicaPools.readFromPrimary()) {
+      bitmaps = readOnlyTransaction.execute(status -> {
+        Bitmaps fresh = new Bitmaps();
+
+        try(Stream<DogFacetRow> rows = dogDao.streamFacetRows()) {
+          rows.forEach(fresh::add);
+        }
+
+        return fresh;
+      });
+
+      log.info("Indexed {} dogs for search", bitmaps.all.getCardinality());
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Update the index after dogs are saved.
+   * 
+   * @param event The saved dogs.
+   */
+  @TransactionalEventListener
+  public void dogsSaved(DogsSavedEvent event) {
+    lock.writeLock().lock();
+
+    try {
+      for(DogChange change : event.changes()) {
+        bitmaps.add(change.after());
+      }
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remove the dogs of a deleted location from the index.
+   * 
+   * @param event The deleted location.
+   */
+  @TransactionalEventListener
+  public void locationDeleted(LocationDeletedEvent event) {
+    lock.writeLock().lock();
+
+    try {
+      bitmaps.removeLocation(event.locationId());
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Find the dogs that match the criteria.
+   * 
+   * @param criteria The search filters and limit.
+   * @return The number of matches, the first matching dog IDs and the facet
+   *         counts.
+   */
+  public SearchHits search(DogSearchCriteria criteria) {
+    lock.readLock().lock();
+
+    try {
+      return bitmaps.search(criteria);
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * This is the result of {@link DogSearchIndex#search(DogSearchCriteria)}.
+   * 
+   * @param total The number of matching dogs.
+   * @param dogIds The lowest matching dog IDs, up to the criteria's limit.
+   * @param facets The facet counts by facet name and value.
+   */
+  public record SearchHits(long total, List<Long> dogIds,
+      Map<String, Map<String, Long>> facets) {
+  }
+
+  /**
+   * Convert a dog ID to the value that is stored in the bitmaps.
+   * 
+   * @param dogId The dog ID.
+   * @return The ID as an int.
+   * @throws IllegalStateException Thrown if the ID is too high to be indexed.
+   */
+  private static int indexedId(Long dogId) {
+    if(dogId > Integer.MAX_VALUE) {
+      throw new IllegalStateException("Dog ID " + dogId
+          + " is higher than the search index can hold ("
+          + Integer.MAX_VALUE + ")");
+    }
+
+    return dogId.intValue();
+  }
+
+  /**
+   * Normalize a color so that "Brown" and " brown" are the same facet value.
+   * 
+   * @param color The color.
+   * @return The normalized color or {@code null}.
+   */
+  private static String normalizeColor(String color) {
+    return Objects.isNull(color) ? null
+        : color.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Return the label of the age bucket that holds the age.
+   * 
+   * @param age The age.
+   * @return The bucket label, for example "2-4" or "11+".
+   */
+  private static String ageBucket(int age) {
+    for(int bucket = AGE_BUCKETS.length - 1; bucket > 0; bucket--) {
+      if(age >= AGE_BUCKETS[bucket]) {
+        return bucket == AGE_BUCKETS.length - 1 ? AGE_BUCKETS[bucket] + "+"
+            : AGE_BUCKETS[bucket] + "-" + (AGE_BUCKETS[bucket + 1] - 1);
+      }
+    }
+
+    return AGE_BUCKETS[0] + "-" + (AGE_BUCKETS[1] - 1);
+  }
+
+  /**
+   * This inner class is what the dog needs to have in order to be removed
+   * from the bitmaps when it changes.
+   */
+  private record IndexedDog(long locationId, int age, String color,
+      Set<String> breeds) {
+  }
+
+  /**
+   * This inner class holds the bitmaps. It is not thread safe; the enclosing
+   * class does the locking.
+   */
+  private static class Bitmaps {
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<String, RoaringBitmap> byBreed = new HashMap<>();
+    private final Map<String, RoaringBitmap> byColor = new HashMap<>();
+    private final NavigableMap<Integer, RoaringBitmap> byAge = new TreeMap<>();
+    private final Map<Long, RoaringBitmap> byLocation = new HashMap<>();
+    private final Map<Integer, IndexedDog> dogs = new HashMap<>();
+
+    /**
+     * Add a row read from the database. Rows for the same dog are adjacent.
+     * 
+     * @param row The row.
+     */
+    void add(DogFacetRow row) {
+      int dogId = indexedId(row.getDogId());
+      IndexedDog dog = dogs.get(dogId);
+
+      if(Objects.isNull(dog)) {
+        dog = new IndexedDog(row.getLocationId(), row.getAge(),
+            normalizeColor(row.getColor()), new HashSet<>());
+        insert(dogId, dog);
+      }
+
+      if(Objects.nonNull(row.getBreedName())) {
+        dog.breeds().add(row.getBreedName());
+        bitmap(byBreed, row.getBreedName()).add(dogId);
+      }
+    }
+
+    /**
+     * Add a saved dog, replacing the earlier version of the dog if there is
+     * one.
+     * 
+     * @param dogInfo The saved dog with its location and breeds.
+     */
+    void add(DogInfo dogInfo) {
+      int dogId = indexedId(dogInfo.getDogId());
+      Set<String> breeds = new HashSet<>();
+
+      for(DogInfoBreed breed : dogInfo.getBreeds()) {
+        breeds.add(breed.getName());
+      }
+
+      remove(dogId);
+      insert(dogId, new IndexedDog(dogInfo.getLocation().getLocationId(),
+          dogInfo.getAge(), normalizeColor(dogInfo.getColor()), breeds));
+    }
+
+    /**
+     * Add a dog to every bitmap that it belongs in.
+     * 
+     * @param dogId The dog ID.
+     * @param dog The indexed fields.
+     */
+    private void insert(int dogId, IndexedDog dog) {
+      dogs.put(dogId, dog);
+      all.add(dogId);
+      bitmap(byLocation, dog.locationId()).add(dogId);
+      bitmap(byAge, dog.age()).add(dogId);
+
+      if(Objects.nonNull(dog.color())) {
+        bitmap(byColor, dog.color()).add(dogId);
+      }
+
+      for(String breed : dog.breeds()) {
+        bitmap(byBreed, breed).add(dogId);
+      }
+    }
+
+    /**
+     * Remove a dog from every bitmap. Empty bitmaps are dropped.
+     * 
+     * @param dogId The dog ID.
+     */
+    private void remove(int dogId) {
+      IndexedDog dog = dogs.remove(dogId);
+
+      if(Objects.isNull(dog)) {
+        return;
+      }
+
+      all.remove(dogId);
+      unmap(byLocation, dog.locationId(), dogId);
+      unmap(byAge, dog.age(), dogId);
+
+      if(Objects.nonNull(dog.color())) {
+        unmap(byColor, dog.color(), dogId);
+      }
+
+      for(String breed : dog.breeds()) {
+        unmap(byBreed, breed, dogId);
+      }
+    }
+
+    /**
+     * Remove every dog at a location.
+     * 
+     * @param locationId The location ID.
+     */
+    void removeLocation(Long locationId) {
+      RoaringBitmap atLocation = byLocation.get(locationId);
+
+      if(Objects.nonNull(atLocation)) {
+        for(int dogId : atLocation.toArray()) {
+          remove(dogId);
+        }
+      }
+    }
+
+    /**
+     * Run a search. See {@link DogSearchIndex#search(DogSearchCriteria)}.
+     * 
+     * @param criteria The search criteria.
+     * @return The search hits.
+     */
+    SearchHits search(DogSearchCriteria criteria) {
+      RoaringBitmap match = all.clone();
+
+      if(!criteria.getBreed().isEmpty()) {
+        match.and(union(byBreed, criteria.getBreed()));
+      }
+
+      if(!criteria.getColor().isEmpty()) {
+        match.and(union(byColor, criteria.getColor().stream()
+            .map(DogSearchIndex::normalizeColor).toList()));
+      }
+
+      if(!criteria.getLocationId().isEmpty()) {
+        match.and(union(byLocation, criteria.getLocationId()));
+      }
+
+      if(Objects.nonNull(criteria.getMinAge())
+          || Objects.nonNull(criteria.getMaxAge())) {
+        int min = Objects.requireNonNullElse(criteria.getMinAge(), 0);
+        int max =
+            Objects.requireNonNullElse(criteria.getMaxAge(), Integer.MAX_VALUE);
+
+        match.and(min > max ? new RoaringBitmap()
+            : RoaringBitmap.or(byAge.subMap(min, true, max, true).values()
+                .iterator()));
+      }
+
+      Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+
+      facets.put(BREED_FACET, counts(match, byBreed));
+      facets.put(COLOR_FACET, counts(match, byColor));
+      facets.put(AGE_FACET, ageCounts(match));
+      facets.put(LOCATION_FACET, counts(match, byLocation));
+
+      return new SearchHits(match.getLongCardinality(),
+          firstIds(match, criteria.getLimit()), facets);
+    }
+
+    /**
+     * Return the union of the bitmaps of the given facet values.
+     * 
+     * @param <K> The type of the facet values.
+     * @param index The bitmaps of the facet.
+     * @param values The facet values.
+     * @return The union.
+     */
+    private static <K> RoaringBitmap union(Map<K, RoaringBitmap> index,
+        Collection<K> values) {
+      RoaringBitmap union = new RoaringBitmap();
+
+      for(K value : values) {
+        RoaringBitmap bitmap = index.get(value);
+
+        if(Objects.nonNull(bitmap)) {
+          union.or(bitmap);
+        }
+      }
+
+      return union;
+    }
+
+    /**
+     * Count the matching dogs for each value of a facet. Values with no
+     * matching dogs are left out. The values are sorted by their own type
+     * before they are turned into strings, so location IDs are in numeric
+     * order ("9" before "10").
+     * 
+     * @param <K> The type of the facet values.
+     * @param match The matching dogs.
+     * @param index The bitmaps of the facet.
+     * @return The counts by facet value, in facet value order.
+     */
+    private static <K extends Comparable<K>> Map<String, Long> counts(
+        RoaringBitmap match, Map<K, RoaringBitmap> index) {
+      NavigableMap<K, Long> sorted = new TreeMap<>();
+
+      for(Map.Entry<K, RoaringBitmap> entry : index.entrySet()) {
+        long count = RoaringBitmap.andCardinality(match, entry.getValue());
+
+        if(count > 0) {
+          sorted.put(entry.getKey(), count);
+        }
+      }
+
+      Map<String, Long> counts = new LinkedHashMap<>();
+
+      for(Map.Entry<K, Long> entry : sorted.entrySet()) {
+        counts.put(String.valueOf(entry.getKey()), entry.getValue());
+      }
+
+      return counts;
+    }
+
+    /**
+     * Count the matching dogs in each age bucket.
+     * 
+     * @param match The matching dogs.
+     * @return The counts by age bucket, youngest first.
+     */
+    private Map<String, Long> ageCounts(RoaringBitmap match) {
+      Map<String, Long> counts = new LinkedHashMap<>();
+
+      for(Map.Entry<Integer, RoaringBitmap> entry : byAge.entrySet()) {
+        long count = RoaringBitmap.andCardinality(match, entry.getValue());
+
+        if(count > 0) {
+          counts.merge(ageBucket(entry.getKey()), count, Long::sum);
+        }
+      }
+
+      return counts;
+    }
+
+    /**
+     * Return the lowest dog IDs in the bitmap.
+     * 
+     * @param match The matching dogs.
+     * @param limit The maximum number of IDs.
+     * @return The dog IDs in ascending order.
+     */
+    private static List<Long> firstIds(RoaringBitmap match, int limit) {
+      List<Long> dogIds = new ArrayList<>();
+      IntIterator it = match.getIntIterator();
+
+      while(it.hasNext() && dogIds.size() < limit) {
+        dogIds.add((long)it.next());
+      }
+
+      return dogIds;
+    }
+
+    /**
+     * Return the bitmap for a facet value, creating it if necessary.
+     * 
+     * @param <K> The type of the facet values.
+     * @param index The bitmaps of the facet.
+     * @param key The facet value.
+     * @return The bitmap.
+     */
+    private static <K> RoaringBitmap bitmap(Map<K, RoaringBitmap> index,
+        K key) {
+      return index.computeIfAbsent(key, k -> new RoaringBitmap());
+    }
+
+    /**
+     * Remove a dog from the bitmap of a facet value and drop the bitmap if it
+     * is empty.
+     * 
+     * @param <K> The type of the facet values.
+     * @param index The bitmaps of the facet.
+     * @param key The facet value.
+     * @param dogId The dog ID.
+     */
+    private static <K> void unmap(Map<K, RoaringBitmap> index, K key,
+        int dogId) {
+      RoaringBitmap bitmap = index.get(key);
+
+      if(Objects.nonNull(bitmap)) {
+        bitmap.remove(dogId);
+
+        if(bitmap.isEmpty()) {
+          index.remove(key);
+        }
+      }
+    }
+  }
+}
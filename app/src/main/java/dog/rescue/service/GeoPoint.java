@@ -0,0 +1,38 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.service;
+
+/**
+ * This is a point on the earth's surface.
+ * 
+ * @param latitude The latitude in decimal degrees.
+ * @param longitude The longitude in decimal degrees.
+ * 
+ * @author Promineo
+ *
+ */
+public record GeoPoint(double latitude, double longitude) {
+  /** The mean radius of the earth in kilometers. */
+  public static final double EARTH_RADIUS_KM = 6371.0088;
+
+  /** The length of one degree of latitude in kilometers. */
+  public static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+  /**
+   * Return the great-circle distance to another point, using the haversine
+   * formula.
+   * 
+   * @param other The other point.
+   * @return The distance in kilometers.
+   */
+  public double distanceKm(GeoPoint other) {
+    double dLat = Math.toRadians(other.latitude - latitude);
+    double dLon = Math.toRadians(other.longitude - longitude);
+    double a = Math.pow(Math.sin(dLat / 2), 2)
+        + Math.cos(Math.toRadians(latitude))
+            * Math.cos(Math.toRadians(other.latitude))
+            * Math.pow(Math.sin(dLon / 2), 2);
+
+    return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+}
@@ -0,0 +1,21 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.service;
+
+/**
+ * This interface is implemented by the components that keep a copy of
+ * database data in memory. Each one loads itself when the application is
+ * ready and keeps itself up to date from then on. {@link #rebuild()} reloads
+ * it from the database, which is needed when the tables are changed behind
+ * the application's back, as the tests do before each test.
+ * 
+ * @author Promineo
+ *
+ */
+public interface InMemoryIndex {
+
+  /**
+   * Discard the in-memory data and load it again from the database.
+   */
+  void rebuild();
+}
@@ -0,0 +1,227 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dog.rescue.dao.InventoryExportDao;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class writes the whole rescue inventory as newline-delimited JSON
+ * (NDJSON). Every breed, then every location, then every dog is written as
+ * one JSON object per line:
+ * 
+ * <pre>
+ * {"type":"breed","breedId":15,"name":"Chihuahua"}
+ * {"type":"location","locationId":1,"businessName":"...",...}
+ * {"type":"dog","dogId":1,"locationId":1,"name":"Ralphy",...,"breedIds":[15,22]}
+ * </pre>
+ * 
+ * Rows are written to the output as they are read from the database cursor,
+ * so memory use does not depend on the size of the inventory. A write to a
+ * slow client blocks, which in turn stops the cursor from being read until the
+ * client catches up.
+ * 
+ * @author Promineo
+ *
+ */
+@Service
+@Slf4j
+public class InventoryExportService {
+
+  @Autowired
+  private InventoryExportDao inventoryExportDao;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  /**
+   * Write the inventory to the output stream. All of the reads run in one
+   * read-only transaction so that the export is a consistent snapshot.
+   * 
+   * @param out The output stream. It is flushed but not closed.
+   * @throws IOException Thrown if the output cannot be written.
+   */
+  @Transactional(readOnly = true)
+  public void exportInventory(OutputStream out) throws IOException {
+    long start = System.currentTimeMillis();
+
+    try(JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+      json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+      /* Each line ends with a newline, so no other separator is needed. */
+      json.setPrettyPrinter(new MinimalPrettyPrinter(""));
+
+      inventoryExportDao.forEachBreed(rs -> writeBreed(json, rs));
+      inventoryExportDao.forEachLocation(rs -> writeLocation(json, rs));
+
+      DogWriter dogWriter = new DogWriter(json);
+      inventoryExportDao.forEachDogBreed(dogWriter::processRow);
+      dogWriter.finish();
+    }
+    catch(UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    out.flush();
+    log.info("Exported the inventory in {} ms",
+        System.currentTimeMillis() - start);
+  }
+
+  /**
+   * Write one breed line.
+   * 
+   * @param json The JSON generator.
+   * @param rs The breed row.
+   * @throws SQLException Thrown if the row cannot be read.
+   */
+  private void writeBreed(JsonGenerator json, ResultSet rs)
+      throws SQLException {
+    try {
+      json.writeStartObject();
+      json.writeStringField("type", "breed");
+      json.writeNumberField("breedId", rs.getLong("breed_id"));
+      json.writeStringField("name", rs.getString("name"));
+      endLine(json);
+    }
+    catch(IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Write one location line.
+   * 
+   * @param json The JSON generator.
+   * @param rs The location row.
+   * @throws SQLException Thrown if the row cannot be read.
+   */
+  private void writeLocation(JsonGenerator json, ResultSet rs)
+      throws SQLException {
+    try {
+      json.writeStartObject();
+      json.writeStringField("type", "location");
+      json.writeNumberField("locationId", rs.getLong("location_id"));
+      json.writeStringField("businessName", rs.getString("business_name"));
+      json.writeStringField("streetAddress", rs.getString("street_address"));
+      json.writeStringField("city", rs.getString("city"));
+      json.writeStringField("state", rs.getString("state"));
+      json.writeStringField("zip", rs.getString("zip"));
+      json.writeStringField("phone", rs.getString("phone"));
+      endLine(json);
+    }
+    catch(IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Close the current object and end the line.
+   * 
+   * @param json The JSON generator.
+   * @throws IOException Thrown if the output cannot be written.
+   */
+  private static void endLine(JsonGenerator json) throws IOException {
+    json.writeEndObject();
+    json.writeRaw('\n');
+  }
+
+  /**
+   * This inner class turns the dog/breed join rows into one line per dog. The
+   * rows for a dog are adjacent, so only the current dog is held in memory.
+   * 
+   * @author Promineo
+   *
+   */
+  private static class DogWriter {
+    private final JsonGenerator json;
+    private long currentDogId = -1;
+
+    /**
+     * Create a dog writer.
+     * 
+     * @param json The JSON generator.
+     */
+    DogWriter(JsonGenerator json) {
+      this.json = json;
+    }
+
+    /**
+     * Start a new dog line if the row is for a new dog, then add the row's
+     * breed ID to the current line.
+     * 
+     * @param rs The dog/breed row.
+     * @throws SQLException Thrown if the row cannot be read.
+     */
+    void processRow(ResultSet rs) throws SQLException {
+      try {
+        long dogId = rs.getLong("dog_id");
+
+        if(dogId != currentDogId) {
+          finish();
+          startDog(dogId, rs);
+        }
+
+        long breedId = rs.getLong("breed_id");
+
+        if(!rs.wasNull()) {
+          json.writeNumber(breedId);
+        }
+      }
+      catch(IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /**
+     * Write the dog fields and open the breed ID array.
+     * 
+     * @param dogId The dog ID.
+     * @param rs The first row for the dog.
+     * @throws SQLException Thrown if the row cannot be read.
+     * @throws IOException Thrown if the output cannot be written.
+     */
+    private void startDog(long dogId, ResultSet rs)
+        throws SQLException, IOException {
+      currentDogId = dogId;
+
+      json.writeStartObject();
+      json.writeStringField("type", "dog");
+      json.writeNumberField("dogId", dogId);
+      json.writeNumberField("locationId", rs.getLong("location_id"));
+      json.writeStringField("name", rs.getString("name"));
+      json.writeNumberField("age", rs.getInt("age"));
+      json.writeStringField("color", rs.getString("color"));
+      json.writeArrayFieldStart("breedIds");
+    }
+
+    /**
+     * Close the current dog line, if there is one.
+     */
+    void finish() {
+      if(currentDogId < 0) {
+        return;
+      }
+
+      try {
+        json.writeEndArray();
+        endLine(json);
+      }
+      catch(IOException e) {
+        throw new UncheckedIOException(e);
+      }
+
+      currentDogId = -1;
+    }
+  }
+}
@@ -0,0 +1,413 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import dog.rescue.controller.model.LocationData;
+import dog.rescue.controller.model.NearbyLocation;
+import dog.rescue.dao.LocationDao;
+import dog.rescue.dao.ReplicaPools;
+import dog.rescue.dao.ReplicaPools.PinnedReads;
+import dog.rescue.entity.Location;
+import dog.rescue.error.NotFoundException;
+import dog.rescue.event.LocationDeletedEvent;
+import dog.rescue.event.LocationSavedEvent;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class is an in-memory spatial index of the locations, used to find the
+ * locations nearest to a ZIP code without touching the database. Each
+ * location is placed at the centroid of its ZIP code (see
+ * {@link ZipCentroids}) and filed in a grid of one-degree cells. A lookup
+ * searches rings of cells around the caller's cell, working outward, and
+ * stops as soon as no unsearched cell can hold anything closer than what has
+ * been found.
+ *
+ * The index is loaded when the application is ready and is kept up to date
+ * from the {@link LocationSavedEvent} and {@link LocationDeletedEvent} events
+ * after each transaction commits. Locations whose ZIP code is not in the
+ * centroid table are left out.
+ *
+ * @author Promineo
+ *
+ */
+@Component
+@Slf4j
+public class LocationGeoIndex implements InMemoryIndex {
+  private static final int LATITUDE_CELLS = 180;
+  private static final int LONGITUDE_CELLS = 360;
+
+  /* Orders lookup candidates farthest first so the worst is at the head. */
+  private static final Comparator<NearbyLocation> FARTHEST_FIRST =
+      Comparator.comparingDouble(NearbyLocation::getDistanceKm).reversed()
+          .thenComparing(NearbyLocation::getLocationId,
+              Comparator.reverseOrder());
+
+  @Autowired
+  private LocationDao locationDao;
+
+  @Autowired
+  private ZipCentroids zipCentroids;
+
+  @Autowired
+  private DogCountService dogCountService;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private Map<Integer, List<IndexedLocation>> grid = new HashMap<>();
+  private Map<Long, IndexedLocation> locations = new HashMap<>();
+
+  /**
+   * Load the index once the application has started.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warm() {
+    rebuild();
+  }
+
+  /**
+   * Load the index from the location table. The write lock is held from the
+   * read through the swap, so a save or delete that arrives from a
+   * transaction that commits meanwhile waits and is then applied to the new
+   * grid instead of being lost with the old one. Applying one that the read
+   * already saw does no harm, since it replaces or removes the whole
+   * location. Lookups wait for the load to finish. The table is read from the
+   * primary, since a replica may not have applied the latest commits yet.
+   */
+  @Override
+  public void rebuild() {
+    Map<Integer, List<IndexedLocation>> newGrid = new HashMap<>();
+    Map<Long, IndexedLocation> newLocations = new HashMap<>();
+
+    lock.writeLock().lock();
+
+    try(PinnedReads pinned = ReplicaPools.readFromPrimary()) {
+      for(Location location : locationDao.findAll()) {
+        index(location.getLocationId(), location.getBusinessName(),
+            location.getCity(), location.getState(), location.getZip(),
+            location.getPhone()).ifPresent(indexed -> {
+              newLocations.put(indexed.locationId(), indexed);
+              newGrid
+                  .computeIfAbsent(indexed.cell(), cell -> new ArrayList<>())
+                  .add(indexed);
+            });
+      }
+
+      grid = newGrid;
+      locations = newLocations;
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+
+    log.info("Indexed {} locations by ZIP code", newLocations.size());
+  }
+
+  /**
+   * Add or move a location after it is saved.
+   *
+   * @param event The saved location.
+   */
+  @TransactionalEventListener
+  public void locationSaved(LocationSavedEvent event) {
+    LocationData location = event.location();
+    Optional<IndexedLocation> indexed = index(location.getLocationId(),
+        location.getBusinessName(), location.getCity(), location.getState(),
+        location.getZip(), location.getPhone());
+
+    lock.writeLock().lock();
+
+    try {
+      remove(location.getLocationId());
+
+      indexed.ifPresent(added -> {
+        locations.put(added.locationId(), added);
+        grid.computeIfAbsent(added.cell(), cell -> new ArrayList<>())
+            .add(added);
+      });
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remove a location after it is deleted.
+   *
+   * @param event The deleted location.
+   */
+  @TransactionalEventListener
+  public void locationDeleted(LocationDeletedEvent event) {
+    lock.writeLock().lock();
+
+    try {
+      remove(event.locationId());
+    }
+    finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Find the locations nearest to a ZIP code, closest first. Distances are
+   * measured in a straight line between ZIP code centroids.
+   *
+   * @param zip The caller's ZIP code.
+   * @param limit The maximum number of locations to return.
+   * @param withDogs If {@code true}, only locations that have dogs are
+   *        returned.
+   * @return The nearest locations.
+   * @throws NoSuchElementException Thrown if the ZIP code is not known.
+   * @throws IllegalArgumentException Thrown if the limit is not between 1 and
+   *         {@link RescueService#MAX_PAGE_SIZE}.
+   */
+  public List<NearbyLocation> findNearest(String zip, int limit,
+      boolean withDogs) {
+    if(limit < 1 || limit > RescueService.MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("Limit must be between 1 and "
+          + RescueService.MAX_PAGE_SIZE + " but was " + limit + ".");
+    }
+
+    GeoPoint origin = zipCentroids.find(zip).orElseThrow(
+        () -> new NotFoundException("ZIP code " + zip + " is not known."));
+
+    PriorityQueue<NearbyLocation> nearest = new PriorityQueue<>(FARTHEST_FIRST);
+
+    lock.readLock().lock();
+
+    try {
+      int originLatitudeCell = latitudeCell(origin.latitude());
+      int originLongitudeCell = longitudeCell(origin.longitude());
+      int searched = 0;
+
+      for(int ring = 0; searched < locations.size(); ring++) {
+        if(2 * ring + 1 >= LONGITUDE_CELLS) {
+          /* The rings now wrap around the globe, so check everything. */
+          nearest.clear();
+
+          for(IndexedLocation location : locations.values()) {
+            offer(nearest, location, origin, limit, withDogs);
+          }
+
+          break;
+        }
+
+        for(int dLat = -ring; dLat <= ring; dLat++) {
+          int latitudeCell = originLatitudeCell + dLat;
+
+          if(latitudeCell < 0 || latitudeCell >= LATITUDE_CELLS) {
+            continue;
+          }
+
+          for(int dLon = -ring; dLon <= ring; dLon++) {
+            if(Math.abs(dLat) != ring && Math.abs(dLon) != ring) {
+              continue;
+            }
+
+            int longitudeCell =
+                Math.floorMod(originLongitudeCell + dLon, LONGITUDE_CELLS);
+            List<IndexedLocation> cell =
+                grid.get(cell(latitudeCell, longitudeCell));
+
+            if(Objects.nonNull(cell)) {
+              searched += cell.size();
+
+              for(IndexedLocation location : cell) {
+                offer(nearest, location, origin, limit, withDogs);
+              }
+            }
+          }
+        }
+
+        if(nearest.size() == limit && nearest.peek()
+            .getDistanceKm() <= distanceOutside(origin, ring)) {
+          break;
+        }
+      }
+    }
+    finally {
+      lock.readLock().unlock();
+    }
+
+    List<NearbyLocation> result = new ArrayList<>(nearest);
+
+    result.sort(FARTHEST_FIRST.reversed());
+    return result;
+  }
+
+  /**
+   * Consider a location for the lookup result, keeping only the nearest
+   * {@code limit} locations.
+   *
+   * @param nearest The nearest locations found so far, farthest first.
+   * @param location The location to consider.
+   * @param origin The caller's position.
+   * @param limit The maximum number of locations to keep.
+   * @param withDogs If {@code true}, locations without dogs are skipped.
+   */
+  private void offer(PriorityQueue<NearbyLocation> nearest,
+      IndexedLocation location, GeoPoint origin, int limit,
+      boolean withDogs) {
+    long dogCount = dogCountService.countDogs(location.locationId());
+
+    if(withDogs && dogCount == 0) {
+      return;
+    }
+
+    NearbyLocation candidate = new NearbyLocation(location.locationId(),
+        location.businessName(), location.city(), location.state(),
+        location.zip(), location.phone(),
+        origin.distanceKm(location.point()), dogCount);
+
+    if(nearest.size() < limit) {
+      nearest.add(candidate);
+    }
+    else if(FARTHEST_FIRST.compare(candidate, nearest.peek()) > 0) {
+      nearest.poll();
+      nearest.add(candidate);
+    }
+  }
+
+  /**
+   * Return a lower bound on the distance from the origin to any point outside
+   * the cells searched so far, that is, to the nearest edge of the block of
+   * cells around the origin's cell.
+   *
+   * @param origin The caller's position.
+   * @param ring The last ring of cells searched.
+   * @return The distance in kilometers.
+   */
+  private static double distanceOutside(GeoPoint origin, int ring) {
+    int latitudeCell = latitudeCell(origin.latitude());
+    int longitudeCell = longitudeCell(origin.longitude());
+    double bound = Double.MAX_VALUE;
+
+    if(latitudeCell + ring + 1 < LATITUDE_CELLS) {
+      double north = latitudeCell + ring + 1 - 90 - origin.latitude();
+      bound = Math.min(bound, north * GeoPoint.KM_PER_DEGREE);
+    }
+
+    if(latitudeCell - ring > 0) {
+      double south = origin.latitude() - (latitudeCell - ring - 90);
+      bound = Math.min(bound, south * GeoPoint.KM_PER_DEGREE);
+    }
+
+    double east = longitudeCell + ring + 1 - 180 - origin.longitude();
+    double west = origin.longitude() - (longitudeCell - ring - 180);
+    double degrees = Math.min(east, west);
+
+    /*
+     * The shortest distance from a point to a meridian that is d degrees away
+     * is asin(sin(d) * cos(latitude)) radians. Past 90 degrees this no longer
+     * bounds the distance, so the longitude edges are ignored.
+     */
+    if(degrees < 90) {
+      double radians = Math.asin(Math.sin(Math.toRadians(degrees))
+          * Math.cos(Math.toRadians(origin.latitude())));
+      bound = Math.min(bound, radians * GeoPoint.EARTH_RADIUS_KM);
+    }
+    else {
+      bound = 0;
+    }
+
+    return bound;
+  }
+
+  /**
+   * Place a location at its ZIP code centroid.
+   *
+   * @param locationId The location ID.
+   * @param businessName The name of the business.
+   * @param city The address city.
+   * @param state The address state.
+   * @param zip The address ZIP code.
+   * @param phone The business phone number.
+   * @return The indexed location, or empty if the ZIP code is not known.
+   */
+  private Optional<IndexedLocation> index(Long locationId, String businessName,
+      String city, String state, String zip, String phone) {
+    return zipCentroids.find(zip).map(point -> new IndexedLocation(locationId,
+        businessName, city, state, zip, phone, point));
+  }
+
+  /**
+   * Remove a location from the index. The caller holds the write lock.
+   *
+   * @param locationId The location ID.
+   */
+  private void remove(Long locationId) {
+    IndexedLocation removed = locations.remove(locationId);
+
+    if(Objects.nonNull(removed)) {
+      List<IndexedLocation> cell = grid.get(removed.cell());
+
+      cell.remove(removed);
+
+      if(cell.isEmpty()) {
+        grid.remove(removed.cell());
+      }
+    }
+  }
+
+  /**
+   * Return the row of the grid cell that holds a latitude.
+   *
+   * @param latitude The latitude in degrees.
+   * @return The row, from 0 at the south pole to 179.
+   */
+  private static int latitudeCell(double latitude) {
+    return Math.min(LATITUDE_CELLS - 1, (int)Math.floor(latitude + 90));
+  }
+
+  /**
+   * Return the column of the grid cell that holds a longitude.
+   *
+   * @param longitude The longitude in degrees.
+   * @return The column, from 0 at 180 degrees west to 359.
+   */
+  private static int longitudeCell(double longitude) {
+    return Math.floorMod((int)Math.floor(longitude + 180), LONGITUDE_CELLS);
+  }
+
+  /**
+   * Return the key of a grid cell.
+   *
+   * @param latitudeCell The row of the cell.
+   * @param longitudeCell The column of the cell.
+   * @return The key.
+   */
+  private static int cell(int latitudeCell, int longitudeCell) {
+    return latitudeCell * LONGITUDE_CELLS + longitudeCell;
+  }
+
+  /**
+   * This inner class is a location as it is held in the index.
+   */
+  private record IndexedLocation(Long locationId, String businessName,
+      String city, String state, String zip, String phone, GeoPoint point) {
+
+    /**
+     * Return the key of the grid cell that holds this location.
+     *
+     * @return The key.
+     */
+    int cell() {
+      return LocationGeoIndex.cell(latitudeCell(point.latitude()),
+          longitudeCell(point.longitude()));
+    }
+  }
+}
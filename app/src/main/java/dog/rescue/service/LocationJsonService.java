@@ -0,0 +1,376 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dog.rescue.dao.LocationJsonDao;
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * This class writes the location listing and the dogs at a location as JSON
+ * straight from the JDBC rows. There are no entities, so Hibernate does not
+ * hydrate or snapshot anything, and there are no DTOs for Jackson to reflect
+ * over. Each call runs one query (see {@link LocationJsonDao}) and writes
+ * every row to a JSON generator as it is read.
+ *
+ * The JSON is the same, byte for byte, as the JSON of the
+ * {@link dog.rescue.controller.model.LocationData} and
+ * {@link dog.rescue.controller.model.DogInfo} lists returned by
+ * {@link RescueService}: the fields are written in the same order, and the
+ * dogs and breeds are sorted by ID as the entities hold them.
+ *
+ * The JSON is written to a byte array rather than to the response. The next
+ * page token and the ETag go in response headers, and they are only known
+ * once the rows have been read. A page is bounded by
+ * {@link RescueService#MAX_PAGE_SIZE}.
+ *
+ * @author Promineo
+ *
+ */
+@Service
+@Timed(value = "rescue.service", histogram = true)
+public class LocationJsonService {
+  /** Marks that no location or dog is being written. */
+  private static final long NONE = -1;
+
+  @Autowired
+  private LocationJsonDao locationJsonDao;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  /**
+   * This is a page of locations as JSON.
+   *
+   * @param json The JSON array of locations.
+   * @param nextPageToken The token for the next page, or {@code null} if this
+   *        is the last page.
+   */
+  public record LocationsJson(byte[] json, String nextPageToken) {
+  }
+
+  /**
+   * This is a page of the dogs at a location as JSON.
+   *
+   * @param json The JSON array of dogs.
+   * @param version The location's version, read by the same query, or
+   *        {@code null} if the location does not exist.
+   */
+  public record DogsJson(byte[] json, Long version) {
+  }
+
+  /**
+   * Write one page of locations with their dogs and breeds. The page is
+   * selected and sorted exactly as in
+   * {@link RescueService#retrieveAllLocations(int, String)}. One extra
+   * location is asked for. If its first row comes back, there is another
+   * page and the rest of its rows are not read.
+   *
+   * @param limit The maximum number of locations to return.
+   * @param pageToken The token returned with the previous page, or
+   *        {@code null} for the first page.
+   * @return The JSON and the token for the next page.
+   * @throws IllegalArgumentException Thrown if the limit is out of range or if
+   *         the page token is not valid.
+   */
+  @Transactional(readOnly = true)
+  public LocationsJson retrieveAllLocations(int limit, String pageToken) {
+    RescueService.validateLimit(limit);
+
+    LocationPageToken after =
+        Objects.isNull(pageToken) ? null : LocationPageToken.decode(pageToken);
+
+    return write((json, out) -> {
+      ResultSetExtractor<String> extractor =
+          rs -> writeLocations(json, rs, limit);
+
+      String nextPageToken = Objects.isNull(after)
+          ? locationJsonDao.readFirstLocationPage(limit + 1, extractor)
+          : locationJsonDao.readLocationPageAfter(after.businessName(),
+              after.locationId(), limit + 1, extractor);
+
+      json.flush();
+      return new LocationsJson(out.toByteArray(), nextPageToken);
+    });
+  }
+
+  /**
+   * Write one page of the dogs at a location with their breeds. The page is
+   * selected and sorted exactly as in
+   * {@link RescueService#retrieveAllDogsAtLocation(Long, int, int)}, and the
+   * dogs have a null location.
+   *
+   * @param locationId The location ID.
+   * @param page The zero-based page number.
+   * @param limit The maximum number of dogs to return.
+   * @return The JSON and the location's version.
+   * @throws IllegalArgumentException Thrown if the page is negative or if the
+   *         limit is not between 1 and {@link RescueService#MAX_PAGE_SIZE}.
+   */
+  @Transactional(readOnly = true)
+  public DogsJson retrieveAllDogsAtLocation(Long locationId, int page,
+      int limit) {
+    long offset = (long)RescueService.validatePage(page)
+        * RescueService.validateLimit(limit);
+
+    return write((json, out) -> {
+      Long version = locationJsonDao.readDogsAtLocation(locationId, limit,
+          offset, rs -> writeDogs(json, rs));
+
+      json.flush();
+      return new DogsJson(out.toByteArray(), version);
+    });
+  }
+
+  /**
+   * Open a JSON generator on a byte array and run a writer with it.
+   *
+   * @param <T> The type of the writer's result.
+   * @param writer Writes the JSON and returns the result.
+   * @return The writer's result.
+   */
+  private <T> T write(JsonWriter<T> writer) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    try(JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+      return writer.write(json, out);
+    }
+    catch(IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Write the location rows as a JSON array of locations.
+   *
+   * @param json The JSON generator.
+   * @param rs The location rows.
+   * @param limit The number of locations on the page.
+   * @return The token for the next page, or {@code null} if there is none.
+   * @throws SQLException Thrown if a row cannot be read.
+   */
+  private String writeLocations(JsonGenerator json, ResultSet rs, int limit)
+      throws SQLException {
+    RowWriter writer = new RowWriter(json, false);
+    int count = 0;
+    String nextPageToken = null;
+
+    try {
+      json.writeStartArray();
+
+      while(rs.next()) {
+        if(rs.getLong("location_id") != writer.locationId) {
+          if(count == limit) {
+            nextPageToken = new LocationPageToken(writer.businessName,
+                writer.locationId).encode();
+            break;
+          }
+
+          writer.startLocation(rs);
+          count++;
+        }
+
+        writer.processDogRow(rs);
+      }
+
+      writer.endLocation();
+      json.writeEndArray();
+    }
+    catch(IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return nextPageToken;
+  }
+
+  /**
+   * Write the dog rows as a JSON array of dogs.
+   *
+   * @param json The JSON generator.
+   * @param rs The dog rows.
+   * @return The location's version, or {@code null} if there are no rows.
+   * @throws SQLException Thrown if a row cannot be read.
+   */
+  private Long writeDogs(JsonGenerator json, ResultSet rs)
+      throws SQLException {
+    RowWriter writer = new RowWriter(json, true);
+    Long version = null;
+
+    try {
+      json.writeStartArray();
+
+      while(rs.next()) {
+        version = rs.getLong("version");
+        writer.processDogRow(rs);
+      }
+
+      writer.endDog();
+      json.writeEndArray();
+    }
+    catch(IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return version;
+  }
+
+  /**
+   * This writes JSON with a generator.
+   *
+   * @param <T> The type of the result.
+   */
+  @FunctionalInterface
+  private interface JsonWriter<T> {
+    T write(JsonGenerator json, ByteArrayOutputStream out) throws IOException;
+  }
+
+  /**
+   * This inner class turns the join rows into nested JSON objects. The rows
+   * of a location and of a dog are adjacent, so only the IDs of the current
+   * location and dog are held.
+   *
+   * @author Promineo
+   *
+   */
+  private static class RowWriter {
+    private final JsonGenerator json;
+    private final boolean dogLocation;
+    private long locationId = NONE;
+    private String businessName;
+    private long dogId = NONE;
+
+    /**
+     * Create a row writer.
+     *
+     * @param json The JSON generator.
+     * @param dogLocation If true, every dog has a null location field, as in
+     *        {@link dog.rescue.controller.model.DogInfo}.
+     */
+    RowWriter(JsonGenerator json, boolean dogLocation) {
+      this.json = json;
+      this.dogLocation = dogLocation;
+    }
+
+    /**
+     * Close the current location, if there is one, then write the location
+     * fields and open its dog array.
+     *
+     * @param rs The first row for the location.
+     * @throws SQLException Thrown if the row cannot be read.
+     * @throws IOException Thrown if the JSON cannot be written.
+     */
+    void startLocation(ResultSet rs) throws SQLException, IOException {
+      endLocation();
+
+      locationId = rs.getLong("location_id");
+      businessName = rs.getString("business_name");
+
+      json.writeStartObject();
+      json.writeNumberField("locationId", locationId);
+      json.writeStringField("businessName", businessName);
+      json.writeStringField("streetAddress", rs.getString("street_address"));
+      json.writeStringField("city", rs.getString("city"));
+      json.writeStringField("state", rs.getString("state"));
+      json.writeStringField("zip", rs.getString("zip"));
+      json.writeStringField("phone", rs.getString("phone"));
+      json.writeArrayFieldStart("dogs");
+    }
+
+    /**
+     * Close the current location, if there is one.
+     *
+     * @throws IOException Thrown if the JSON cannot be written.
+     */
+    void endLocation() throws IOException {
+      if(locationId == NONE) {
+        return;
+      }
+
+      endDog();
+      json.writeEndArray();
+      json.writeEndObject();
+      locationId = NONE;
+    }
+
+    /**
+     * Start a new dog if the row is for a new dog, then add the row's breed
+     * to the current dog. A row with no dog or no breed adds nothing.
+     *
+     * @param rs The row.
+     * @throws SQLException Thrown if the row cannot be read.
+     * @throws IOException Thrown if the JSON cannot be written.
+     */
+    void processDogRow(ResultSet rs) throws SQLException, IOException {
+      long rowDogId = rs.getLong("dog_id");
+
+      if(rs.wasNull()) {
+        return;
+      }
+
+      if(rowDogId != dogId) {
+        endDog();
+        startDog(rowDogId, rs);
+      }
+
+      long breedId = rs.getLong("breed_id");
+
+      if(!rs.wasNull()) {
+        json.writeStartObject();
+        json.writeNumberField("breedId", breedId);
+        json.writeStringField("name", rs.getString("breed_name"));
+        json.writeEndObject();
+      }
+    }
+
+    /**
+     * Write the dog fields and open its breed array.
+     *
+     * @param rowDogId The dog ID.
+     * @param rs The first row for the dog.
+     * @throws SQLException Thrown if the row cannot be read.
+     * @throws IOException Thrown if the JSON cannot be written.
+     */
+    private void startDog(long rowDogId, ResultSet rs)
+        throws SQLException, IOException {
+      dogId = rowDogId;
+
+      json.writeStartObject();
+      json.writeNumberField("dogId", dogId);
+      json.writeStringField("name", rs.getString("dog_name"));
+      json.writeNumberField("age", rs.getInt("age"));
+      json.writeStringField("color", rs.getString("color"));
+
+      if(dogLocation) {
+        json.writeNullField("location");
+      }
+
+      json.writeArrayFieldStart("breeds");
+    }
+
+    /**
+     * Close the current dog, if there is one.
+     *
+     * @throws IOException Thrown if the JSON cannot be written.
+     */
+    void endDog() throws IOException {
+      if(dogId == NONE) {
+        return;
+      }
+
+      json.writeEndArray();
+      json.writeEndObject();
+      dogId = NONE;
+    }
+  }
+}
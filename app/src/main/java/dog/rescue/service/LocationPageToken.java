@@ -0,0 +1,70 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import dog.rescue.entity.Location;
+
+/**
+ * This is the position of a page in the location listing. It holds the sort
+ * key (business name and location ID) of the last location on the previous
+ * page. Clients receive it as an opaque, URL-safe string and send it back
+ * unchanged to get the next page.
+ * 
+ * @param businessName The business name of the last location on the page.
+ * @param locationId The location ID of the last location on the page.
+ * 
+ * @author Promineo
+ *
+ */
+record LocationPageToken(String businessName, Long locationId) {
+
+  private static final char SEPARATOR = ':';
+
+  /**
+   * Create a token that points just past the given location.
+   * 
+   * @param location The last location on a page.
+   * @return The page token.
+   */
+  static LocationPageToken after(Location location) {
+    return new LocationPageToken(location.getBusinessName(),
+        location.getLocationId());
+  }
+
+  /**
+   * Convert this token into the opaque string that is sent to the client.
+   * 
+   * @return The encoded token.
+   */
+  String encode() {
+    String raw = locationId + String.valueOf(SEPARATOR) + businessName;
+
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Convert an opaque string received from the client back into a token.
+   * 
+   * @param encoded The encoded token.
+   * @return The page token.
+   * @throws IllegalArgumentException Thrown if the string was not created by
+   *         {@link #encode()}.
+   */
+  static LocationPageToken decode(String encoded) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(encoded),
+          StandardCharsets.UTF_8);
+      int pos = raw.indexOf(SEPARATOR);
+
+      return new LocationPageToken(raw.substring(pos + 1),
+          Long.valueOf(raw.substring(0, pos)));
+    }
+    catch(IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException(
+          "Page token '" + encoded + "' is not valid.");
+    }
+  }
+}
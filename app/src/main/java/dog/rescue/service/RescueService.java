@@ -0,0 +1,752 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import dog.rescue.controller.model.DogInfo;
+import dog.rescue.controller.model.DogInfo.DogInfoBreed;
+import dog.rescue.controller.model.DogIntakeReport;
+import dog.rescue.controller.model.DogIntakeReport.DogIntakeResult;
+import dog.rescue.controller.model.DogIntakeReport.Status;
+import dog.rescue.controller.model.DogSearchCriteria;
+import dog.rescue.controller.model.DogSearchResult;
+import dog.rescue.controller.model.LocationData;
+import dog.rescue.controller.model.LocationPage;
+import dog.rescue.controller.model.LocationPatch;
+import dog.rescue.controller.model.LocationSummary;
+import dog.rescue.dao.DogBatchDao;
+import dog.rescue.dao.DogDao;
+import dog.rescue.dao.LocationDao;
+import dog.rescue.entity.Breed;
+import dog.rescue.entity.Dog;
+import dog.rescue.entity.Location;
+import dog.rescue.error.NotFoundException;
+import dog.rescue.event.DogsSavedEvent;
+import dog.rescue.event.DogsSavedEvent.DogChange;
+import dog.rescue.event.LocationDeletedEvent;
+import dog.rescue.event.LocationSavedEvent;
+import dog.rescue.service.DogSearchIndex.SearchHits;
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * This class manages the service layer for the REST API. It is responsible for
+ * managing transactions, for gathering data from the DAO layer, and for
+ * converting the data into a form that is required by the I/O (controller)
+ * layer.
+ * 
+ * Every public method is timed by the {@code rescue.service} timer, tagged
+ * with the method name.
+ * 
+ * @author Promineo
+ *
+ */
+@Service
+@Timed(value = "rescue.service", histogram = true)
+public class RescueService {
+
+  /** The largest page that a client may request. */
+  public static final int MAX_PAGE_SIZE = 1000;
+
+  /** The largest number of dogs in a single intake batch. */
+  public static final int MAX_INTAKE_SIZE = 10_000;
+
+  /** The order of the dog listing. */
+  private static final Sort DOG_ORDER = Sort.by("dogId");
+
+  /** This tells Spring to inject the location DAO object. */
+  @Autowired
+  private LocationDao locationDao;
+
+  @Autowired
+  private BreedCache breedCache;
+
+  @Autowired
+  private DogDao dogDao;
+
+  @Autowired
+  private DogBatchDao dogBatchDao;
+
+  @Autowired
+  private DogSearchIndex dogSearchIndex;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private DogCountService dogCountService;
+
+  /**
+   * Save the location. If the location ID is null, the location is inserted. If
+   * the location ID is not null, the location is updated.
+   * 
+   * @param locationData The data to insert or modify.
+   * @return The saved location data.
+   */
+  @Transactional(readOnly = false)
+  public LocationData saveLocation(LocationData locationData) {
+    Location location = findOrCreateLocation(locationData.getLocationId());
+
+    copyLocationFields(location, locationData);
+
+    Location dbLocation = locationDao.save(location);
+    LocationData saved = new LocationData(dbLocation);
+
+    eventPublisher.publishEvent(new LocationSavedEvent(saved));
+    return saved;
+  }
+
+  /**
+   * Change some of the fields of a location. The location is loaded without
+   * its dogs and only the fields in the patch are copied to it, so Hibernate
+   * issues a single UPDATE of just the changed columns (see
+   * {@link Location}) and the cost does not depend on the number of dogs. The
+   * dog count in the result comes from the in-memory counters.
+   * 
+   * @param locationId The ID of the location to change.
+   * @param patch The fields to change. Null fields are left as they are.
+   * @return A summary of the changed location.
+   * @throws NoSuchElementException Thrown if the location does not exist.
+   */
+  @Transactional(readOnly = false)
+  public LocationSummary patchLocation(Long locationId, LocationPatch patch) {
+    Location location = findLocationById(locationId);
+
+    copyPatchedFields(location, patch);
+
+    eventPublisher.publishEvent(new LocationSavedEvent(new LocationData(
+        location.getLocationId(), location.getBusinessName(),
+        location.getStreetAddress(), location.getCity(), location.getState(),
+        location.getZip(), location.getPhone())));
+
+    return new LocationSummary(location.getLocationId(),
+        location.getBusinessName(), location.getStreetAddress(),
+        location.getCity(), location.getState(), location.getZip(),
+        location.getPhone(), dogCountService.countDogs(locationId));
+  }
+
+  /**
+   * Copy the fields that are present in a patch to the location entity.
+   * 
+   * @param location The target entity.
+   * @param patch The fields to change.
+   */
+  private void copyPatchedFields(Location location, LocationPatch patch) {
+    if(Objects.nonNull(patch.getBusinessName())) {
+      location.setBusinessName(patch.getBusinessName());
+    }
+
+    if(Objects.nonNull(patch.getStreetAddress())) {
+      location.setStreetAddress(patch.getStreetAddress());
+    }
+
+    if(Objects.nonNull(patch.getCity())) {
+      location.setCity(patch.getCity());
+    }
+
+    if(Objects.nonNull(patch.getState())) {
+      location.setState(patch.getState());
+    }
+
+    if(Objects.nonNull(patch.getZip())) {
+      location.setZip(patch.getZip());
+    }
+
+    if(Objects.nonNull(patch.getPhone())) {
+      location.setPhone(patch.getPhone());
+    }
+  }
+
+  /**
+   * Return a Location entity retrieved from the location table or an empty
+   * Location object. An existing location is updated in place so that its
+   * dogs and its version are kept. It is loaded with its dogs and their breeds
+   * in one query, since the saved location is returned with them; loading
+   * them lazily would cost a query per dog.
+   * 
+   * @param locationId The location ID of the row to retrieve.
+   * @return If the location ID is not {@code null}, the location row is
+   *         returned. If the location ID is {@code null} an empty location
+   *         object is returned.
+   * @throws NoSuchElementException Thrown if the location ID is not found.
+   */
+  private Location findOrCreateLocation(Long locationId) {
+    if(Objects.isNull(locationId)) {
+      return new Location();
+    }
+
+    return locationDao.findWithDogsAndBreedsByLocationId(locationId)
+        .orElseThrow(() -> locationNotFound(locationId));
+  }
+
+  /**
+   * Copy the client-supplied location fields to the location entity.
+   * 
+   * @param location The target entity.
+   * @param locationData The source JSON converted to a Java object.
+   */
+  private void copyLocationFields(Location location,
+      LocationData locationData) {
+    location.setBusinessName(locationData.getBusinessName());
+    location.setStreetAddress(locationData.getStreetAddress());
+    location.setCity(locationData.getCity());
+    location.setState(locationData.getState());
+    location.setZip(locationData.getZip());
+    location.setPhone(locationData.getPhone());
+  }
+
+  /**
+   * Retrieve the version of a location. The version changes whenever the
+   * location or any of its dogs changes, so the controller uses it to answer
+   * conditional GET requests without loading the location.
+   * 
+   * @param locationId The location ID.
+   * @return The version, or empty if the location does not exist.
+   */
+  @Transactional(readOnly = true)
+  public Optional<Long> retrieveLocationVersion(Long locationId) {
+    return locationDao.findVersionByLocationId(locationId);
+  }
+
+  /**
+   * Retrieve a single location by locationID.
+   * 
+   * @param locationId The location ID.
+   * @return The location data.
+   */
+  @Transactional(readOnly = true)
+  public LocationData retrieveLocationById(Long locationId) {
+    Location location = locationDao
+        .findWithDogsAndBreedsByLocationId(locationId)
+        .orElseThrow(() -> locationNotFound(locationId));
+
+    return new LocationData(location);
+  }
+
+  /**
+   * This returns a location entity if it finds a matching location ID or else
+   * throws an exception if there is no match for the location ID.
+   * 
+   * @param locationId The ID of the location.
+   * @return A location entity.
+   * @throws NoSuchElementException Thrown if the location ID is not found in
+   *         the location table.
+   */
+  private Location findLocationById(Long locationId) {
+    return locationDao.findById(locationId)
+        .orElseThrow(() -> locationNotFound(locationId));
+  }
+
+  /**
+   * This returns a location entity like {@link #findLocationById(Long)} and
+   * also makes the location's version be incremented when the transaction
+   * commits. It is used whenever one of the location's dogs is added or
+   * changed.
+   * 
+   * @param locationId The ID of the location.
+   * @return A location entity.
+   * @throws NoSuchElementException Thrown if the location ID is not found in
+   *         the location table.
+   */
+  private Location findLocationForDogChange(Long locationId) {
+    Location location = findLocationById(locationId);
+
+    incrementVersion(location);
+    return location;
+  }
+
+  /**
+   * Make a location's version be incremented when the transaction commits,
+   * even if no location column changes.
+   * 
+   * @param location The managed location entity.
+   */
+  private void incrementVersion(Location location) {
+    entityManager.lock(location, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+  }
+
+  /**
+   * Create the exception that is thrown when a location ID is not found.
+   * 
+   * @param locationId The ID of the location.
+   * @return The exception.
+   */
+  private NotFoundException locationNotFound(Long locationId) {
+    return new NotFoundException(
+        "Location with ID=" + locationId + " was not found.");
+  }
+
+  /**
+   * Retrieve one page of locations sorted by business name (and by location
+   * ID to break ties) and convert them to location data objects. The sort and
+   * the page limit are applied by the database using keyset pagination, so
+   * every page costs the same no matter how many locations there are.
+   * 
+   * @param limit The maximum number of locations to return.
+   * @param pageToken The token returned with the previous page, or
+   *        {@code null} for the first page.
+   * @return The page of location data objects and the token for the next
+   *         page.
+   * @throws IllegalArgumentException Thrown if the limit is out of range or if
+   *         the page token is not valid.
+   */
+  @Transactional(readOnly = true)
+  public LocationPage<LocationData> retrieveAllLocations(int limit,
+      String pageToken) {
+    /*
+     * Ask for one extra ID. If it comes back, there is another page and the
+     * extra ID is dropped.
+     */
+    Pageable pageable = PageRequest.of(0, validateLimit(limit) + 1);
+    List<Long> locationIds;
+
+    if(Objects.isNull(pageToken)) {
+      locationIds = locationDao.findFirstPageIds(pageable);
+    }
+    else {
+      LocationPageToken after = LocationPageToken.decode(pageToken);
+      locationIds = locationDao.findPageIdsAfter(after.businessName(),
+          after.locationId(), pageable);
+    }
+
+    boolean hasNextPage = locationIds.size() > limit;
+
+    if(hasNextPage) {
+      locationIds = locationIds.subList(0, limit);
+    }
+
+    List<Location> locations = locationIds.isEmpty() ? List.of()
+        : locationDao.findByLocationIdIn(locationIds);
+
+    String nextPageToken = hasNextPage
+        ? LocationPageToken.after(locations.get(locations.size() - 1)).encode()
+        : null;
+
+    // @formatter:off
+    List<LocationData> locationDtos = locations
+        .stream()
+        .map(LocationData::new)
+        .toList();
+    // @formatter:on
+
+    return new LocationPage<>(locationDtos, nextPageToken);
+  }
+
+  /**
+   * Retrieve one page of location summaries. A summary has the location's
+   * name, address and dog count, but not the dogs. The page is sorted and
+   * paged exactly like {@link #retrieveAllLocations(int, String)}, so the same
+   * kind of page token is used.
+   * 
+   * @param limit The maximum number of locations to return.
+   * @param pageToken The token returned with the previous page, or
+   *        {@code null} for the first page.
+   * @return The page of location summaries and the token for the next page.
+   * @throws IllegalArgumentException Thrown if the limit is out of range or if
+   *         the page token is not valid.
+   */
+  @Transactional(readOnly = true)
+  public LocationPage<LocationSummary> retrieveLocationSummaries(int limit,
+      String pageToken) {
+    Pageable pageable = PageRequest.of(0, validateLimit(limit) + 1);
+    List<LocationSummary> summaries;
+
+    if(Objects.isNull(pageToken)) {
+      summaries = locationDao.findFirstSummaryPage(pageable);
+    }
+    else {
+      LocationPageToken after = LocationPageToken.decode(pageToken);
+      summaries = locationDao.findSummaryPageAfter(after.businessName(),
+          after.locationId(), pageable);
+    }
+
+    String nextPageToken = null;
+
+    if(summaries.size() > limit) {
+      summaries = summaries.subList(0, limit);
+
+      LocationSummary last = summaries.get(limit - 1);
+      nextPageToken = new LocationPageToken(last.getBusinessName(),
+          last.getLocationId()).encode();
+    }
+
+    return new LocationPage<>(summaries, nextPageToken);
+  }
+
+  /**
+   * Save a dog record and associate it with a location.
+   * 
+   * @param locationId The ID of the location on which to add the dog record.
+   * @param dogInfo The dog information passed to the application as JSON in the
+   *        HTTP request body.
+   * @return The dog information, including the primary key value.
+   * @throws NoSuchElementException Thrown if the location does not exist.
+   */
+  @Transactional(readOnly = false)
+  public DogInfo saveDog(Long locationId, DogInfo dogInfo) {
+    Location location = findLocationForDogChange(locationId);
+    Set<String> breedNames = extractBreedNames(dogInfo);
+    Set<Breed> breeds = breedCache.findByNameIn(breedNames);
+
+    Long dogId = dogInfo.getDogId();
+    Dog dog = findOrCreateDog(dogId);
+    DogInfo before = Objects.nonNull(dogId) ? new DogInfo(dog) : null;
+
+    if(Objects.nonNull(before)
+        && !before.getLocation().getLocationId().equals(locationId)) {
+      /* The dog is moving, so the old location changes too. */
+      incrementVersion(dog.getLocation());
+    }
+
+    copyDogFields(dog, dogInfo);
+
+    dog.setBreeds(breeds);
+    location.getDogs().add(dog);
+    dog.setLocation(location);
+
+    DogInfo after = new DogInfo(dogDao.save(dog));
+
+    eventPublisher.publishEvent(DogsSavedEvent.of(before, after));
+    return after;
+  }
+
+  /**
+   * Save many new dogs at a location in a single transaction. This is used for
+   * intake events that bring in a large number of dogs at once. All of the
+   * breeds are resolved in one lookup and the dog and dog_breed rows are
+   * written with JDBC batch statements.
+   * 
+   * Each dog is checked first. A dog that already has a dog ID or that has no
+   * name is rejected and reported, and the rest of the batch is still saved.
+   * 
+   * @param locationId The ID of the location where the dogs are added.
+   * @param dogInfos The dogs to add.
+   * @return A report with the outcome of every dog and the throughput.
+   * @throws NoSuchElementException Thrown if the location does not exist.
+   * @throws IllegalArgumentException Thrown if the batch is larger than
+   *         {@link #MAX_INTAKE_SIZE}.
+   */
+  @Transactional(readOnly = false)
+  public DogIntakeReport saveDogs(Long locationId, List<DogInfo> dogInfos) {
+    long start = System.nanoTime();
+
+    if(dogInfos.size() > MAX_INTAKE_SIZE) {
+      throw new IllegalArgumentException("An intake batch may not have more"
+          + " than " + MAX_INTAKE_SIZE + " dogs but had " + dogInfos.size()
+          + ".");
+    }
+
+    Location location = findLocationForDogChange(locationId);
+
+    Map<String, Breed> breedsByName = new HashMap<>();
+
+    for(Breed breed : breedCache.findByNameIn(extractBreedNames(dogInfos))) {
+      breedsByName.put(breed.getName(), breed);
+    }
+
+    DogIntakeReport report = new DogIntakeReport();
+    List<Dog> dogs = new ArrayList<>();
+    List<DogIntakeResult> created = new ArrayList<>();
+
+    for(int index = 0; index < dogInfos.size(); index++) {
+      DogInfo dogInfo = dogInfos.get(index);
+      String rejection = validateIntake(dogInfo);
+
+      if(Objects.nonNull(rejection)) {
+        report.getResults().add(
+            new DogIntakeResult(index, null, Status.REJECTED, rejection));
+        continue;
+      }
+
+      Dog dog = new Dog();
+      copyDogFields(dog, dogInfo);
+      dog.setLocation(location);
+
+      for(DogInfoBreed breed : dogInfo.getBreeds()) {
+        Breed match = breedsByName.get(breed.getName());
+
+        if(Objects.nonNull(match)) {
+          dog.getBreeds().add(match);
+        }
+      }
+
+      DogIntakeResult result =
+          new DogIntakeResult(index, null, Status.CREATED, null);
+
+      dogs.add(dog);
+      created.add(result);
+      report.getResults().add(result);
+    }
+
+    if(!dogs.isEmpty()) {
+      dogBatchDao.insertDogs(locationId, dogs);
+
+      List<DogChange> changes = new ArrayList<>(dogs.size());
+
+      for(int index = 0; index < dogs.size(); index++) {
+        Dog dog = dogs.get(index);
+
+        created.get(index).setDogId(dog.getDogId());
+        changes.add(new DogChange(null, new DogInfo(dog)));
+      }
+
+      eventPublisher.publishEvent(new DogsSavedEvent(changes));
+    }
+
+    long elapsedNanos = System.nanoTime() - start;
+
+    report.setLocationId(locationId);
+    report.setReceived(dogInfos.size());
+    report.setCreated(dogs.size());
+    report.setRejected(dogInfos.size() - dogs.size());
+    report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    report.setDogsPerSecond(
+        elapsedNanos == 0 ? 0 : dogs.size() * 1e9 / elapsedNanos);
+
+    return report;
+  }
+
+  /**
+   * Check that a dog in an intake batch can be inserted.
+   * 
+   * @param dogInfo The dog.
+   * @return The reason that the dog is rejected or {@code null} if it is
+   *         valid.
+   */
+  private String validateIntake(DogInfo dogInfo) {
+    if(Objects.nonNull(dogInfo.getDogId())) {
+      return "Dog ID must not be set for a new dog.";
+    }
+
+    if(Objects.isNull(dogInfo.getName()) || dogInfo.getName().isBlank()) {
+      return "Name is required.";
+    }
+
+    return null;
+  }
+
+  /**
+   * Copy matching field values in the client-supplied JSON to the dog entity.
+   * 
+   * @param dog The target entity.
+   * @param dogInfo The source JSON converted to a Java object.
+   */
+  private void copyDogFields(Dog dog, DogInfo dogInfo) {
+    dog.setAge(dogInfo.getAge());
+    dog.setColor(dogInfo.getColor());
+    dog.setName(dogInfo.getName());
+  }
+
+  /**
+   * Return a Dog entity retrieved from the dog table or an empty Dog object.
+   * 
+   * @param dogId The dog ID of the row to retrieve.
+   * @return If the dog ID is not {@code null}, the dog row is returned. If the
+   *         dog ID is {@code null} an empty dog object is returned.
+   */
+  private Dog findOrCreateDog(Long dogId) {
+    return Objects.nonNull(dogId) ? findDogById(dogId) : new Dog();
+  }
+
+  /**
+   * Retrieves a dog object with the given ID.
+   * 
+   * @param dogId The dog ID.
+   * @return The matching dog object.
+   * @throws NoSuchElementException Thrown if there is no matching dog object.
+   */
+  private Dog findDogById(Long dogId) {
+    return dogDao.findById(dogId).orElseThrow(
+        () -> new NotFoundException("Dog with ID=" + dogId + " was not found."));
+  }
+
+  /**
+   * Extract the breed names from the breed objects in the dog info object. This
+   * list of names is used to retrieve the Breed entities associated with the
+   * given dog.
+   * 
+   * @param dogInfo The dog info object.
+   * @return A set of breed names.
+   */
+  private Set<String> extractBreedNames(DogInfo dogInfo) {
+    // @formatter:off
+    return dogInfo.getBreeds()
+        .stream()
+        .map(breed -> breed.getName())
+        .collect(Collectors.toSet());
+    // @formatter:on
+
+    /*
+     * Uncomment the code below to use a loop instead of a Stream to extract the
+     * breed names.
+     */
+    // Set<String> names = new HashSet<>();
+    //
+    // for(DogInfoBreed breed : dogInfo.getBreeds()) {
+    // names.add(breed.getName());
+    // }
+    //
+    // return names;
+  }
+
+  /**
+   * Extract the distinct breed names of all of the dogs in an intake batch.
+   * 
+   * @param dogInfos The dogs.
+   * @return A set of breed names.
+   */
+  private Set<String> extractBreedNames(List<DogInfo> dogInfos) {
+    // @formatter:off
+    return dogInfos.stream()
+        .flatMap(dogInfo -> dogInfo.getBreeds().stream())
+        .map(DogInfoBreed::getName)
+        .collect(Collectors.toSet());
+    // @formatter:on
+  }
+
+  /**
+   * Delete the location, including all related dog and dog_breed rows.
+   * 
+   * @param locationId The ID of the location to delete.
+   */
+  @Transactional(readOnly = false)
+  public void deleteLocation(Long locationId) {
+    Location location = findLocationById(locationId);
+    locationDao.delete(location);
+
+    eventPublisher.publishEvent(new LocationDeletedEvent(locationId));
+  }
+
+  /**
+   * Search for dogs by breed, color, age and location. The filtering and the
+   * facet counts come from the in-memory {@link DogSearchIndex}; only the
+   * dogs that are returned are read from the database.
+   * 
+   * @param criteria The search filters and limit.
+   * @return The number of matching dogs, the first matching dogs by dog ID and
+   *         the facet counts.
+   * @throws IllegalArgumentException Thrown if the limit is not between 1 and
+   *         {@link #MAX_PAGE_SIZE}.
+   */
+  @Transactional(readOnly = true)
+  public DogSearchResult searchDogs(DogSearchCriteria criteria) {
+    validateLimit(criteria.getLimit());
+
+    SearchHits hits = dogSearchIndex.search(criteria);
+    DogSearchResult result = new DogSearchResult();
+
+    result.setTotal(hits.total());
+    result.setFacets(hits.facets());
+
+    if(!hits.dogIds().isEmpty()) {
+      // @formatter:off
+      result.setDogs(dogDao.findByDogIdIn(hits.dogIds())
+          .stream()
+          .map(DogInfo::new)
+          .toList());
+      // @formatter:on
+    }
+
+    return result;
+  }
+
+  /**
+   * Retrieve one page of the dogs at a given location. The location filter,
+   * the sort and the page limits are all applied by the database so that the
+   * cost of the call is bounded by the page size rather than by the total
+   * number of dogs in the system. The location is removed from each dog since
+   * the caller already knows it.
+   * 
+   * @param locationId The location ID.
+   * @param page The zero-based page number.
+   * @param limit The maximum number of dogs to return.
+   * @return A list of dog info objects sorted by dog ID.
+   * @throws IllegalArgumentException Thrown if the page is negative or if the
+   *         limit is not between 1 and {@link #MAX_PAGE_SIZE}.
+   */
+  @Transactional(readOnly = true)
+  public List<DogInfo> retrieveAllDogsAtLocation(Long locationId, int page,
+      int limit) {
+    Pageable pageable =
+        PageRequest.of(validatePage(page), validateLimit(limit), DOG_ORDER);
+    List<Long> dogIds =
+        dogDao.findIdsByLocationId(locationId, pageable).getContent();
+
+    if(dogIds.isEmpty()) {
+      return List.of();
+    }
+
+    // @formatter:off
+    return dogDao.findByDogIdIn(dogIds)
+        .stream()
+        .map(this::toDogInfoWithoutLocation)
+        .toList();
+    // @formatter:on
+  }
+
+  /**
+   * Convert a Dog entity to a DogInfo object without the location details.
+   * 
+   * @param dog The Dog entity.
+   * @return The dog info object.
+   */
+  private DogInfo toDogInfoWithoutLocation(Dog dog) {
+    DogInfo dogInfo = new DogInfo(dog);
+
+    dogInfo.setLocation(null);
+    return dogInfo;
+  }
+
+  /**
+   * Make sure that a client-supplied page number is not negative.
+   * 
+   * @param page The page number.
+   * @return The page number.
+   * @throws IllegalArgumentException Thrown if the page number is negative.
+   */
+  static int validatePage(int page) {
+    if(page < 0) {
+      throw new IllegalArgumentException(
+          "Page must not be negative but was " + page + ".");
+    }
+
+    return page;
+  }
+
+  /**
+   * Make sure that a client-supplied page size is between 1 and
+   * {@link #MAX_PAGE_SIZE}.
+   * 
+   * @param limit The page size.
+   * @return The page size.
+   * @throws IllegalArgumentException Thrown if the page size is out of range.
+   */
+  static int validateLimit(int limit) {
+    if(limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("Limit must be between 1 and "
+          + MAX_PAGE_SIZE + " but was " + limit + ".");
+    }
+
+    return limit;
+  }
+}
@@ -0,0 +1,149 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class maps ZIP codes to the latitude and longitude of their centroids.
+ * The table is read once at startup from the tab-separated file named by
+ * {@code dog-rescue.geo.zip-centroids}. The file has a header row and is read
+ * by the column names GEOID, INTPTLAT and INTPTLONG, so the Census Bureau
+ * ZCTA gazetteer file can be used as is. Lines that start with "#" are
+ * comments.
+ * 
+ * @author Promineo
+ *
+ */
+@Component
+@Slf4j
+public class ZipCentroids {
+  private static final String ZIP_COLUMN = "GEOID";
+  private static final String LATITUDE_COLUMN = "INTPTLAT";
+  private static final String LONGITUDE_COLUMN = "INTPTLONG";
+
+  private final Map<String, GeoPoint> centroidsByZip;
+
+  /**
+   * Load the ZIP code table.
+   * 
+   * @param table The tab-separated ZIP code centroid file.
+   * @throws UncheckedIOException Thrown if the file cannot be read.
+   * @throws IllegalStateException Thrown if a column is missing.
+   */
+  public ZipCentroids(
+      @Value("${dog-rescue.geo.zip-centroids:classpath:geo/zip-centroids.tsv}")
+      Resource table) {
+    try(BufferedReader reader = new BufferedReader(
+        new InputStreamReader(table.getInputStream(), StandardCharsets.UTF_8))) {
+      centroidsByZip = load(reader);
+    }
+    catch(IOException e) {
+      throw new UncheckedIOException("Could not read " + table, e);
+    }
+
+    log.info("Loaded {} ZIP code centroids from {}", centroidsByZip.size(),
+        table);
+  }
+
+  /**
+   * Return the centroid of a ZIP code. Only the first five digits are used,
+   * so a ZIP+4 code is found too.
+   * 
+   * @param zip The ZIP code.
+   * @return The centroid, or empty if the ZIP code is not known.
+   */
+  public Optional<GeoPoint> find(String zip) {
+    if(Objects.isNull(zip)) {
+      return Optional.empty();
+    }
+
+    String trimmed = zip.trim();
+    String zip5 = trimmed.length() > 5 ? trimmed.substring(0, 5) : trimmed;
+
+    return Optional.ofNullable(centroidsByZip.get(zip5));
+  }
+
+  /**
+   * Return all of the ZIP codes in the table.
+   * 
+   * @return The ZIP codes in ascending order.
+   */
+  public SortedSet<String> zipCodes() {
+    return new TreeSet<>(centroidsByZip.keySet());
+  }
+
+  /**
+   * Read the table.
+   * 
+   * @param reader The table file.
+   * @return The centroids by ZIP code.
+   * @throws IOException Thrown if the file cannot be read.
+   */
+  private static Map<String, GeoPoint> load(BufferedReader reader)
+      throws IOException {
+    Map<String, GeoPoint> centroids = new HashMap<>();
+    List<String> header = null;
+    int zipColumn = 0;
+    int latitudeColumn = 0;
+    int longitudeColumn = 0;
+    String line;
+
+    while(Objects.nonNull(line = reader.readLine())) {
+      if(line.isBlank() || line.startsWith("#")) {
+        continue;
+      }
+
+      String[] columns = line.split("\t");
+
+      if(Objects.isNull(header)) {
+        header = Arrays.stream(columns).map(String::trim).toList();
+        zipColumn = column(header, ZIP_COLUMN);
+        latitudeColumn = column(header, LATITUDE_COLUMN);
+        longitudeColumn = column(header, LONGITUDE_COLUMN);
+        continue;
+      }
+
+      centroids.put(columns[zipColumn].trim(),
+          new GeoPoint(Double.parseDouble(columns[latitudeColumn].trim()),
+              Double.parseDouble(columns[longitudeColumn].trim())));
+    }
+
+    return centroids;
+  }
+
+  /**
+   * Return the position of a column in the header.
+   * 
+   * @param header The column names.
+   * @param name The column name.
+   * @return The zero-based column position.
+   * @throws IllegalStateException Thrown if there is no such column.
+   */
+  private static int column(List<String> header, String name) {
+    int column = header.indexOf(name);
+
+    if(column < 0) {
+      throw new IllegalStateException(
+          "The ZIP code table has no " + name + " column: " + header);
+    }
+
+    return column;
+  }
+}
@@ -1,7 +1,6 @@
-DROP TABLE IF EXISTS dog_breed;
-DROP TABLE IF EXISTS breed;
-DROP TABLE IF EXISTS dog;
-DROP TABLE IF EXISTS location;
+-- The schema as it was before migrations were introduced. A database that
+-- already has these tables and the seeded breeds is baselined at version 2
+-- (see spring.flyway in application.yaml) and only gets the later migrations.
 
 CREATE TABLE location (
   location_id int NOT NULL AUTO_INCREMENT,
@@ -11,19 +10,25 @@ CREATE TABLE location (
   state varchar(40),
   zip varchar(20),
   phone varchar(30),
+  version bigint NOT NULL DEFAULT 0,
   PRIMARY KEY (location_id)
 );
 
+CREATE INDEX idx_location_business_name ON location (business_name, location_id);
+
 CREATE TABLE dog (
   dog_id int NOT NULL AUTO_INCREMENT,
   location_id int NULL,
   name varchar(60) NOT NULL,
   age int,
   color varchar(128),
+  version bigint NOT NULL DEFAULT 0,
   PRIMARY KEY(dog_id),
   FOREIGN KEY (location_id) REFERENCES location (location_id) ON DELETE CASCADE
 );
 
+CREATE INDEX idx_dog_location_id ON dog (location_id);
+
 CREATE TABLE breed (
   breed_id int NOT NULL AUTO_INCREMENT,
   name varchar(128),
@@ -35,4 +40,4 @@ CREATE TABLE dog_breed (
   breed_id int NOT NULL,
   FOREIGN KEY (dog_id) REFERENCES dog (dog_id) ON DELETE CASCADE,
   FOREIGN KEY (breed_id) REFERENCES breed (breed_id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
@@ -0,0 +1,42 @@
+-- Keys and indexes for the hot paths. The statements run on both MySQL and
+-- H2 in MySQL mode.
+
+-- A breed name may only be stored once. Merge any duplicates into the breed
+-- with the lowest ID first. Breeds without a name are left as they are: they
+-- match no other breed, and the unique index allows any number of NULLs.
+UPDATE dog_breed SET breed_id = (
+  SELECT MIN(b2.breed_id)
+  FROM breed b1
+  JOIN breed b2 ON b2.name = b1.name
+  WHERE b1.breed_id = dog_breed.breed_id
+)
+WHERE breed_id IN (SELECT breed_id FROM breed WHERE name IS NOT NULL);
+
+DELETE FROM breed WHERE name IS NOT NULL AND breed_id NOT IN (
+  SELECT breed_id FROM (
+    SELECT MIN(breed_id) AS breed_id FROM breed
+    WHERE name IS NOT NULL
+    GROUP BY name
+  ) kept
+);
+
+-- Serves BreedDao.findByNameIn.
+CREATE UNIQUE INDEX uk_breed_name ON breed (name);
+
+-- A dog may only have a breed once. Remove duplicate rows before adding the
+-- primary key.
+CREATE TABLE dog_breed_distinct AS SELECT DISTINCT dog_id, breed_id FROM dog_breed;
+DELETE FROM dog_breed;
+INSERT INTO dog_breed (dog_id, breed_id) SELECT dog_id, breed_id FROM dog_breed_distinct;
+DROP TABLE dog_breed_distinct;
+
+-- The primary key serves the breeds of a dog. This index serves the dogs of
+-- a breed.
+ALTER TABLE dog_breed ADD PRIMARY KEY (dog_id, breed_id);
+CREATE INDEX idx_dog_breed_breed_id ON dog_breed (breed_id, dog_id);
+
+-- Serves the dogs at a location in dog ID order (the dog listing and page
+-- queries) without a sort. It replaces the single-column index, which it
+-- also covers for the foreign key.
+CREATE INDEX idx_dog_location_id_dog_id ON dog (location_id, dog_id);
+DROP INDEX idx_dog_location_id ON dog;
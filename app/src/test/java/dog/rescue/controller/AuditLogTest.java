@@ -0,0 +1,323 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dog.rescue.DogRescueApplication;
+import dog.rescue.audit.AuditLog;
+import dog.rescue.audit.AuditLog.OverflowPolicy;
+import dog.rescue.audit.AuditRecord;
+import dog.rescue.audit.AuditRingBuffer;
+import dog.rescue.audit.RotatingAuditFile;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * This class tests the audit log with the "audit-log" profile. The files are
+ * written to a temporary directory and rotated at 4 KB, keeping two rotated
+ * files. The records are written by a background thread, so the tests wait
+ * for them to show up. The requests are sent through MockMvc so that they
+ * pass through the audit filter. The class is otherwise set up the same way
+ * as {@link RescueControllerTest}.
+ * 
+ * @author Promineo
+ *
+ */
+// @formatter:off
+@SpringBootTest(classes = DogRescueApplication.class,
+    properties = {
+        "dog-rescue.audit-log.max-file-size=4KB",
+        "dog-rescue.audit-log.max-history=2",
+        "dog-rescue.audit-log.poll-interval=1ms"})
+// @formatter:on
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "audit-log"})
+@Sql(scripts = {"classpath:reset.sql",
+    "classpath:db/migration/V2__seed_breeds.sql"})
+@SqlConfig(encoding = "utf-8")
+class AuditLogTest extends RescueControllerTestSupport {
+  private static final long WAIT_MILLIS = 5000;
+
+  @TempDir
+  static Path auditDirectory;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  /* Only used to name the audit files. */
+  private final RotatingAuditFile files =
+      new RotatingAuditFile(auditDirectory, 0, 2);
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  /**
+   * Write the audit files to the temporary directory.
+   * 
+   * @param registry The test's properties.
+   */
+  @DynamicPropertySource
+  static void auditProperties(DynamicPropertyRegistry registry) {
+    registry.add("dog-rescue.audit-log.directory", auditDirectory::toString);
+  }
+
+  /**
+   * This tests that successful and failed requests are recorded with their
+   * route, IDs, status and exception.
+   */
+  @Test
+  void testRequestsAreRecorded() throws Exception {
+    // Given: a location
+    Long locationId = insertLocation(buildInsertLocation(1)).getLocationId();
+
+    // When: the location and a missing location are retrieved
+    mockMvc.perform(get("/dog_rescue/location/" + locationId))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/dog_rescue/location/999"))
+        .andExpect(status().isNotFound());
+
+    // Then: both requests are recorded
+    JsonNode found = awaitRecord(locationId.toString());
+    JsonNode missing = awaitRecord("999");
+
+    assertThat(found.get("method").asText()).isEqualTo("GET");
+    assertThat(found.get("route").asText())
+        .isEqualTo("/dog_rescue/location/{locationId}");
+    assertThat(found.get("status").asInt()).isEqualTo(200);
+    assertThat(found.get("latencyMicros").asLong()).isPositive();
+    assertThat(found.has("exception")).isFalse();
+
+    assertThat(missing.get("status").asInt()).isEqualTo(404);
+    assertThat(missing.get("exception").asText())
+        .isEqualTo("NotFoundException");
+  }
+
+  /**
+   * This tests that the audit file is rotated and that only the configured
+   * number of rotated files is kept.
+   */
+  @Test
+  void testAuditFileIsRotated() throws Exception {
+    // Given: enough requests to fill several 4 KB files
+    for(int request = 0; request < 100; request++) {
+      mockMvc.perform(get("/dog_rescue/location/" + (1000 + request)))
+          .andExpect(status().isNotFound());
+    }
+
+    // When: the records have been written
+    awaitRecord("1099");
+
+    // Then: there are two rotated files and no more
+    assertThat(files.path(1)).exists();
+    assertThat(files.path(2)).exists();
+    assertThat(files.path(3)).doesNotExist();
+  }
+
+  /**
+   * This tests that a full ring buffer refuses new elements and takes them
+   * again once it has been drained.
+   */
+  @Test
+  void testRingBufferRefusesElementsWhenFull() {
+    // Given: a full buffer of four elements
+    AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+
+    for(int element = 1; element <= 4; element++) {
+      assertThat(buffer.offer(element)).isTrue();
+    }
+
+    // When: another element is added
+    boolean added = buffer.offer(5);
+
+    // Then: it is refused
+    assertThat(added).isFalse();
+
+    // And: the buffer is drained oldest first and can be filled again
+    List<Integer> drained = new ArrayList<>();
+
+    assertThat(buffer.drainTo(drained::add, 10)).isEqualTo(4);
+    assertThat(drained).containsExactly(1, 2, 3, 4);
+    assertThat(buffer.offer(5)).isTrue();
+    assertThat(buffer.size()).isEqualTo(1);
+  }
+
+  /**
+   * This tests that a thread waiting for room in a full buffer gives up when
+   * the log is closed, and that the file is only closed once the writer has
+   * finished its last write.
+   */
+  @Test
+  void testBlockedRecordIsDroppedWhenTheLogIsClosed() throws Exception {
+    // Given: a blocking log with room for two records, whose writer is stuck
+    // writing the first record
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> calls = new CopyOnWriteArrayList<>();
+
+    RotatingAuditFile file =
+        new RotatingAuditFile(auditDirectory.resolve("blocking"), 1024, 1) {
+          @Override
+          public void write(List<AuditRecord> records) throws IOException {
+            writing.countDown();
+            awaitQuietly(release);
+            calls.add("write");
+          }
+
+          @Override
+          public void close() {
+            calls.add("close");
+          }
+        };
+
+    MeterRegistry registry = new SimpleMeterRegistry();
+    AuditLog auditLog = new AuditLog(file, 2, OverflowPolicy.BLOCK, 1,
+        Duration.ofMillis(1), registry);
+
+    auditLog.start();
+    auditLog.record(record());
+    assertThat(writing.await(WAIT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+    auditLog.record(record());
+    auditLog.record(record());
+
+    CompletableFuture<Void> blocked =
+        CompletableFuture.runAsync(() -> auditLog.record(record()));
+
+    // When: the log is closed
+    CompletableFuture<Void> closed = CompletableFuture.runAsync(() -> {
+      try {
+        auditLog.close();
+      }
+      catch(Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    // Then: the blocked thread returns and its record is dropped
+    blocked.get(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+    assertThat(registry.get("audit.log.records").tag("result", "dropped")
+        .counter().count()).isOne();
+
+    // And: the file is closed after the writer's last write
+    release.countDown();
+    closed.get(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+    assertThat(calls).containsExactly("write", "write", "write", "close");
+  }
+
+  /**
+   * Build an audit record.
+   * 
+   * @return The record.
+   */
+  private static AuditRecord record() {
+    return new AuditRecord(System.currentTimeMillis(), "GET",
+        "/dog_rescue/location", Map.of(), 200, 1, null);
+  }
+
+  /**
+   * Wait for a latch without throwing the interrupted exception.
+   * 
+   * @param latch The latch.
+   */
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Wait for the newest record of a location to be written.
+   * 
+   * @param locationId The location ID in the record's path.
+   * @return The record.
+   */
+  private JsonNode awaitRecord(String locationId) throws Exception {
+    long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+
+    while(true) {
+      JsonNode record = findRecord(locationId);
+
+      if(Objects.nonNull(record)) {
+        return record;
+      }
+
+      assertThat(System.currentTimeMillis())
+          .as("Audit record for location %s", locationId)
+          .isLessThan(deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  /**
+   * Find the newest record of a location in the audit files. A record may
+   * already have been rotated out of the current file, so the rotated files
+   * are read too, oldest first. A file that is being rotated or a line that
+ * is being written is skipped.
+   * 
+   * @param locationId The location ID in the record's path.
+   * @return The record, or {@code null} if it has not been written.
+   * @throws IOException Thrown if a file cannot be read.
+   */
+  private JsonNode findRecord(String locationId) throws IOException {
+    JsonNode found = null;
+
+    for(int index = 2; index >= 0; index--) {
+      List<String> lines;
+
+      try {
+        lines = Files.readAllLines(files.path(index));
+      }
+      catch(NoSuchFileException e) {
+        continue;
+      }
+
+      for(String line : lines) {
+        JsonNode record;
+
+        try {
+          record = objectMapper.readTree(line);
+        }
+        catch(JsonProcessingException e) {
+          continue; // The last line is still being written
+        }
+
+        if(locationId
+            .equals(record.path("ids").path("locationId").asText())) {
+          found = record;
+        }
+      }
+    }
+
+    return found;
+  }
+}
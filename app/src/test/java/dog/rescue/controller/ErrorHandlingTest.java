@@ -0,0 +1,94 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import dog.rescue.DogRescueApplication;
+import dog.rescue.error.NotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * This class tests the error path with the "sampled-errors" profile. Only
+ * three errors of each kind are logged per hour, so every error after the
+ * third is counted instead. The errors are handled by Spring MVC, so the
+ * requests are sent through MockMvc. The class is otherwise set up the same
+ * way as {@link RescueControllerTest}.
+ * 
+ * @author Promineo
+ *
+ */
+// @formatter:off
+@SpringBootTest(classes = DogRescueApplication.class,
+    properties = {
+        "dog-rescue.errors.log-sampling.max-per-window=3",
+        "dog-rescue.errors.log-sampling.window=1h"})
+// @formatter:on
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "sampled-errors"})
+@Sql(scripts = {"classpath:reset.sql",
+    "classpath:db/migration/V2__seed_breeds.sql"})
+@SqlConfig(encoding = "utf-8")
+class ErrorHandlingTest extends RescueControllerTestSupport {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  /**
+   * This tests that every missing location gets a 404 response but that only
+   * the first few are logged.
+   */
+  @Test
+  void testRepeatedNotFoundErrorsAreSampled() throws Exception {
+    // Given: no locations
+
+    // When: ten missing locations are retrieved
+    for(int id = 1; id <= 10; id++) {
+      // Then: each request gets a 404 response with the usual message
+      // @formatter:off
+      mockMvc.perform(get("/dog_rescue/location/" + id))
+          .andExpect(status().isNotFound())
+          .andExpect(jsonPath("$.message").value(
+              "java.util.NoSuchElementException: Location with ID="
+                  + id + " was not found."))
+          .andExpect(jsonPath("$.timestamp").isNotEmpty());
+      // @formatter:on
+    }
+
+    // And: all but the first three errors were skipped and counted
+    // @formatter:off
+    double suppressed = meterRegistry.get("http.server.errors.suppressed")
+        .tag("exception", NotFoundException.class.getSimpleName())
+        .tag("uri", "/dog_rescue/location/{locationId}")
+        .counter().count();
+    // @formatter:on
+
+    assertThat(suppressed).isEqualTo(7);
+  }
+
+  /**
+   * This tests that a not found exception does not record a stack trace.
+   */
+  @Test
+  void testNotFoundExceptionHasNoStackTrace() {
+    // Given: a not found exception
+    NotFoundException e = new NotFoundException("Not here");
+
+    // Then: it has no stack trace but reads as before
+    assertThat(e.getStackTrace()).isEmpty();
+    assertThat(e).hasToString("java.util.NoSuchElementException: Not here");
+  }
+}
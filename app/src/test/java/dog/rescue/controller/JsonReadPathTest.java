@@ -0,0 +1,168 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dog.rescue.DogRescueApplication;
+import net.ttddyy.dsproxy.QueryCount;
+
+/**
+ * This class tests the application with the "jdbc-json" profile. Every JSON
+ * response from the JDBC read path is compared, byte for byte, with the JSON
+ * of the same call to {@link RescueController}, which still uses entities and
+ * DTOs. The requests are sent through MockMvc because the handler is chosen by
+ * Spring MVC. The class is otherwise set up the same way as
+ * {@link RescueControllerTest}.
+ * 
+ * @author Promineo
+ *
+ */
+@SpringBootTest(classes = DogRescueApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "jdbc-json"})
+@Sql(scripts = {"classpath:reset.sql",
+    "classpath:db/migration/V2__seed_breeds.sql"})
+@SqlConfig(encoding = "utf-8")
+class JsonReadPathTest extends RescueControllerTestSupport {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  /**
+   * This tests that every page of the location listing is the same as on the
+   * entity path and is read with one query.
+   */
+  @Test
+  void testLocationListingMatchesEntityPath() throws Exception {
+    // Given: three locations with dogs and one without
+    insertLocationsWithDogs(3, 3);
+    insertLocation(buildInsertLocation(2));
+
+    // When: the listing is read in pages of two
+    ResponseEntity<?> expected1 = retrieveLocationPage(2, null);
+    MockHttpServletResponse actual1 =
+        perform(get("/dog_rescue/location?limit=2"), 1);
+
+    ResponseEntity<?> expected2 =
+        retrieveLocationPage(2, nextPageToken(expected1));
+    MockHttpServletResponse actual2 = perform(get("/dog_rescue/location")
+        .param("limit", "2").param("pageToken", nextPageToken(expected1)), 1);
+
+    // Then: the bodies and the page tokens are the same
+    assertSameResponse(actual1, expected1);
+    assertSameResponse(actual2, expected2);
+    assertThat(nextPageToken(expected2)).isNull();
+  }
+
+  /**
+   * This tests that every page of the dogs at a location is the same as on
+   * the entity path, that conditional requests still get 304 responses, and
+   * that other formats still go to the entity path.
+   */
+  @Test
+  void testDogsAtLocationMatchEntityPath() throws Exception {
+    // Given: a location with three dogs
+    Long locationId = insertLocation(buildInsertLocation(1)).getLocationId();
+    insertDog(locationId, 2);
+    insertDog(locationId, 1);
+    insertDog(locationId, 2);
+    String uri = "/dog_rescue/location/" + locationId + "/dog";
+
+    // When: the dogs are read in pages of two, and past the last page
+    for(int page = 0; page < 3; page++) {
+      ResponseEntity<?> expected = retrieveDogPage(locationId, page, 2);
+      MockHttpServletResponse actual = perform(get(uri)
+          .param("page", Integer.toString(page)).param("limit", "2"), 1);
+
+      // Then: the bodies and the ETags are the same
+      assertSameResponse(actual, expected);
+    }
+
+    // And: a request with the current ETag gets a 304 response
+    String eTag = retrieveDogsAtLocation(locationId, null).getHeaders()
+        .getETag();
+    mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+
+    // And: a CBOR request still gets CBOR
+    mockMvc.perform(get(uri).accept("application/cbor"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/cbor"));
+
+    // And: a location that does not exist has no dogs and no ETag
+    assertSameResponse(perform(get("/dog_rescue/location/999/dog"), 1),
+        retrieveDogPage(999L, 0, 100));
+  }
+
+  /**
+   * Send a request and check the number of SELECT statements it ran.
+   * 
+   * @param request The request.
+   * @param selects The expected number of SELECT statements.
+   * @return The response.
+   */
+  private MockHttpServletResponse perform(RequestBuilder request, int selects) {
+    AtomicReference<MockHttpServletResponse> response =
+        new AtomicReference<>();
+
+    QueryCount count = countStatements(() -> {
+      try {
+        response.set(mockMvc.perform(request).andExpect(status().isOk())
+            .andReturn().getResponse());
+      }
+      catch(Exception e) {
+        throw new IllegalStateException(e);
+      }
+
+      return response.get();
+    });
+
+    assertThat(count.getSelect()).isEqualTo(selects);
+    return response.get();
+  }
+
+  /**
+   * Check that a JSON read path response is the same as an entity path
+   * response.
+   * 
+   * @param actual The JSON read path response.
+   * @param expected The entity path response.
+   */
+  private void assertSameResponse(MockHttpServletResponse actual,
+      ResponseEntity<?> expected) throws Exception {
+    HttpHeaders headers = expected.getHeaders();
+
+    assertThat(actual.getContentType())
+        .isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+    assertThat(actual.getContentAsByteArray())
+        .isEqualTo(objectMapper.writeValueAsBytes(expected.getBody()));
+    assertThat(actual.getHeader(RescueController.NEXT_PAGE_TOKEN_HEADER))
+        .isEqualTo(headers.getFirst(RescueController.NEXT_PAGE_TOKEN_HEADER));
+    assertThat(actual.getHeader(HttpHeaders.ETAG)).isEqualTo(headers.getETag());
+    assertThat(actual.getHeader(HttpHeaders.CACHE_CONTROL))
+        .isEqualTo(headers.getCacheControl());
+    assertThat(actual.getHeader(HttpHeaders.VARY))
+        .isEqualTo(headers.getFirst(HttpHeaders.VARY));
+  }
+}
@@ -0,0 +1,100 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import dog.rescue.DogRescueApplication;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * This class tests the request, SQL, service and pool metrics. The request
+ * metrics are recorded by servlet filters, so the requests are sent through
+ * MockMvc instead of calling the controller directly. Spring Boot turns off
+ * the Prometheus registry in tests unless it is asked for with
+ * {@code @AutoConfigureObservability}. Row counting is off by default, so it
+ * is turned on here. The class is otherwise set up the same way as
+ * {@link RescueControllerTest}.
+ * 
+ * @author Promineo
+ *
+ */
+@SpringBootTest(classes = DogRescueApplication.class,
+    properties = "dog-rescue.metrics.sql-rows.enabled=true")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@Sql(scripts = {"classpath:reset.sql",
+    "classpath:db/migration/V2__seed_breeds.sql"})
+@SqlConfig(encoding = "utf-8")
+class MetricsTest extends RescueControllerTestSupport {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  /**
+   * This tests that a request records its SQL statements and rows, and that
+   * every kind of metric is in the Prometheus scrape.
+   */
+  @Test
+  void testRequestMetricsArePublished() throws Exception {
+    // Given: a location with two dogs
+    Long locationId = insertLocation(buildInsertLocation(1)).getLocationId();
+    insertDog(locationId, 1);
+    insertDog(locationId, 2);
+
+    // When: the dogs at the location are retrieved
+    mockMvc.perform(get("/dog_rescue/location/" + locationId + "/dog"))
+        .andExpect(status().isOk());
+
+    // Then: the request's SQL statements and rows are recorded
+    assertThat(sqlSummary("http.server.requests.sql.statements").count())
+        .isEqualTo(1);
+    assertThat(sqlSummary("http.server.requests.sql.statements").totalAmount())
+        .isPositive();
+    assertThat(sqlSummary("http.server.requests.sql.rows").totalAmount())
+        .isGreaterThanOrEqualTo(2);
+
+    // And: the Prometheus scrape has the request, SQL, service and pool
+    // metrics
+    String scrape = mockMvc.perform(get("/actuator/prometheus"))
+        .andExpect(status().isOk()).andReturn().getResponse()
+        .getContentAsString();
+
+    assertThat(scrape).contains(
+        "http_server_requests_seconds_bucket{",
+        "uri=\"/dog_rescue/location/{locationId}/dog\"",
+        "http_server_requests_sql_statements_count{",
+        "http_server_requests_sql_rows_sum{",
+        "rescue_service_seconds_count{",
+        "method=\"retrieveAllDogsAtLocation\"",
+        "hikaricp_connections_active{",
+        "hikaricp_connections_pending{",
+        "hikaricp_connections_acquire_seconds_count{");
+  }
+
+  /**
+   * Return a SQL count summary of the dogs-at-a-location endpoint.
+   * 
+   * @param name The summary name.
+   * @return The summary.
+   */
+  private DistributionSummary sqlSummary(String name) {
+    return meterRegistry.get(name).tag("method", "GET")
+        .tag("uri", "/dog_rescue/location/{locationId}/dog").summary();
+  }
+}
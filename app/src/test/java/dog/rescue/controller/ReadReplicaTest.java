@@ -0,0 +1,158 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import dog.rescue.DogRescueApplication;
+import dog.rescue.controller.model.DogSearchCriteria;
+import dog.rescue.controller.model.LocationData;
+import dog.rescue.dao.ReplicaPools;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * This class tests the application with the "read-replicas" profile. The
+ * primary is the usual in-memory H2 database and the replica is a second one.
+ * H2 does not replicate, so the test writes to the replica directly, which
+ * shows which database each read came from. The replica's lag is read from a
+ * table that the test controls. The class is otherwise set up the same way as
+ * {@link RescueControllerTest}.
+ * 
+ * @author Promineo
+ *
+ */
+// @formatter:off
+@SpringBootTest(webEnvironment = WebEnvironment.NONE,
+    classes = DogRescueApplication.class,
+    properties = {
+        "dog-rescue.read-replicas.pools[0].name=replica-1",
+        "dog-rescue.read-replicas.pools[0].url=" + ReadReplicaTest.REPLICA_URL,
+        "dog-rescue.read-replicas.pools[0].username=sa",
+        "dog-rescue.read-replicas.pools[0].password=",
+        "dog-rescue.read-replicas.lag-query=SELECT lag_seconds FROM replica_lag",
+        "dog-rescue.read-replicas.lag-check-interval=1h"})
+// @formatter:on
+@ActiveProfiles({"test", "read-replicas"})
+@Sql(scripts = {"classpath:reset.sql",
+    "classpath:db/migration/V2__seed_breeds.sql"})
+@SqlConfig(encoding = "utf-8")
+class ReadReplicaTest extends RescueControllerTestSupport {
+  static final String REPLICA_URL =
+      "jdbc:h2:mem:dog_rescue_replica;MODE=MYSQL;DB_CLOSE_DELAY=-1";
+
+  private final JdbcTemplate replica =
+      new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+  @Autowired
+  private ReplicaPools replicaPools;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  /**
+   * Give the replica the schema, no locations and no lag.
+   */
+  @BeforeEach
+  void setUpReplica() {
+    Flyway.configure().dataSource(replica.getDataSource()).load().migrate();
+
+    replica.update("DELETE FROM location");
+    replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag_seconds int)");
+    replica.update("DELETE FROM replica_lag");
+    replica.update("INSERT INTO replica_lag (lag_seconds) VALUES (0)");
+    replicaPools.checkLag();
+  }
+
+  /**
+   * This tests that reads go to the replica while it keeps up, that they fall
+   * back to the primary when it lags, and that writes always go to the
+   * primary.
+   */
+  @Test
+  void testReadOnlyTransactionsUseTheReplicaUntilItLags() {
+    // Given: a location written through the application
+    LocationData written = insertLocation(buildInsertLocation(1));
+
+    // And: a different location that is only on the replica
+    replica.update("INSERT INTO location (business_name, street_address)"
+        + " VALUES ('Replica Rescue', '1 Replica Way')");
+
+    // When: the locations are listed in a read-only transaction
+    // Then: they are read from the replica
+    assertThat(retrieveAllLocations()).extracting(LocationData::getBusinessName)
+        .containsExactly("Replica Rescue");
+
+    // And: the write went to the primary
+    assertThat(rowsInLocationTable()).isOne();
+
+    // When: the replica falls further behind than the allowed lag
+    replica.update("UPDATE replica_lag SET lag_seconds = 60");
+    replicaPools.checkLag();
+
+    // Then: the locations are read from the primary
+    assertThat(retrieveAllLocations()).extracting(LocationData::getBusinessName)
+        .containsExactly(written.getBusinessName());
+
+    // And: the routing is counted per pool
+    assertThat(routed("replica-1", "read")).isPositive();
+    assertThat(routed(ReplicaPools.PRIMARY, "write")).isPositive();
+    assertThat(routed(ReplicaPools.PRIMARY, "fallback")).isPositive();
+    assertThat(meterRegistry.get("datasource.replica.available")
+        .tag("pool", "replica-1").gauge().value()).isZero();
+
+    // And: each pool publishes its own connection metrics
+    assertThat(meterRegistry.get("hikaricp.connections")
+        .tag("pool", "replica-1").gauge().value()).isPositive();
+  }
+
+  /**
+   * This tests that the in-memory indexes are rebuilt from the primary. They
+   * are only kept up to date by commit events afterwards, so a commit that a
+   * lagging replica has not applied yet would otherwise be missing for good.
+   */
+  @Test
+  void testInMemoryIndexesAreRebuiltFromThePrimary() {
+    // Given: a location in Maryland with two dogs, written to the primary
+    // only, while the replica takes the reads
+    Long locationId = insertTwoLocations().get(0).getLocationId();
+
+    insertDog(locationId, 1);
+    insertDog(locationId, 2);
+
+    double pinned = routed(ReplicaPools.PRIMARY, "pinned");
+
+    // When: the in-memory indexes are rebuilt
+    rebuildInMemoryIndexes();
+
+    // Then: they hold the location and its dogs
+    assertThat(retrieveDogCounts(locationId).getTotal()).isEqualTo(2);
+    assertThat(searchDogs(new DogSearchCriteria()).getTotal()).isEqualTo(2);
+    assertThat(retrieveNearestLocationIds("21201", false))
+        .containsExactly(locationId);
+
+    // And: the reads were pinned to the primary
+    assertThat(routed(ReplicaPools.PRIMARY, "pinned")).isGreaterThan(pinned);
+  }
+
+  /**
+   * Return the number of connections routed to a pool.
+   * 
+   * @param pool The pool name.
+   * @param reason The routing reason.
+   * @return The count.
+   */
+  private double routed(String pool, String reason) {
+    return meterRegistry.get("datasource.routing").tag("pool", pool)
+        .tag("reason", reason).counter().count();
+  }
+}
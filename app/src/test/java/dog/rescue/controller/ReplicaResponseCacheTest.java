@@ -0,0 +1,99 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import dog.rescue.DogRescueApplication;
+import dog.rescue.controller.model.LocationData;
+import dog.rescue.dao.ReplicaPools;
+
+/**
+ * This class tests the "response-cache" and "read-replicas" profiles
+ * together. The replica is set up as in {@link ReadReplicaTest}: it is a
+ * second H2 database that the test writes to directly, so it holds a location
+ * that the primary does not have, as a lagging replica would.
+ * 
+ * @author Promineo
+ *
+ */
+// @formatter:off
+@SpringBootTest(classes = DogRescueApplication.class,
+    properties = {
+        "dog-rescue.read-replicas.pools[0].name=replica-1",
+        "dog-rescue.read-replicas.pools[0].url=" + ReadReplicaTest.REPLICA_URL,
+        "dog-rescue.read-replicas.pools[0].username=sa",
+        "dog-rescue.read-replicas.pools[0].password=",
+        "dog-rescue.read-replicas.lag-query=SELECT lag_seconds FROM replica_lag",
+        "dog-rescue.read-replicas.lag-check-interval=1h"})
+// @formatter:on
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "read-replicas", "response-cache"})
+@Sql(scripts = {"classpath:reset.sql",
+    "classpath:db/migration/V2__seed_breeds.sql"})
+@SqlConfig(encoding = "utf-8")
+class ReplicaResponseCacheTest extends RescueControllerTestSupport {
+  private final JdbcTemplate replica = new JdbcTemplate(
+      new DriverManagerDataSource(ReadReplicaTest.REPLICA_URL, "sa", ""));
+
+  @Autowired
+  private ReplicaPools replicaPools;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  /**
+   * Give the replica the schema, no locations and no lag.
+   */
+  @BeforeEach
+  void setUpReplica() {
+    Flyway.configure().dataSource(replica.getDataSource()).load().migrate();
+
+    replica.update("DELETE FROM location");
+    replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag_seconds int)");
+    replica.update("DELETE FROM replica_lag");
+    replica.update("INSERT INTO replica_lag (lag_seconds) VALUES (0)");
+    replicaPools.checkLag();
+  }
+
+  /**
+   * This tests that a response that is cached is read from the primary, even
+   * while the replica takes the other reads.
+   */
+  @Test
+  void testCachedResponsesAreReadFromThePrimary() throws Exception {
+    // Given: a location written through the application
+    LocationData written = insertLocation(buildInsertLocation(1));
+
+    // And: a different location that is only on the replica
+    replica.update("INSERT INTO location (business_name, street_address)"
+        + " VALUES ('Replica Rescue', '1 Replica Way')");
+
+    // When: the locations are requested twice through the response cache
+    // Then: both responses hold the primary's location, not the replica's
+    for(int request = 0; request < 2; request++) {
+      mockMvc.perform(get("/dog_rescue/location")).andExpect(status().isOk())
+          .andExpect(jsonPath("$.length()").value(1))
+          .andExpect(jsonPath("$[0].businessName")
+              .value(written.getBusinessName()));
+    }
+
+    // And: the replica still takes the reads that are not cached
+    assertThat(retrieveAllLocations()).extracting(LocationData::getBusinessName)
+        .containsExactly("Replica Rescue");
+  }
+}
@@ -0,0 +1,763 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import dog.rescue.DogRescueApplication;
+import dog.rescue.controller.model.DogCounts;
+import dog.rescue.controller.model.DogInfo;
+import dog.rescue.controller.model.DogInfo.DogInfoBreed;
+import dog.rescue.controller.model.DogIntakeReport;
+import dog.rescue.controller.model.DogIntakeReport.DogIntakeResult;
+import dog.rescue.controller.model.DogIntakeReport.Status;
+import dog.rescue.controller.model.DogSearchCriteria;
+import dog.rescue.controller.model.DogSearchResult;
+import dog.rescue.controller.model.LocationData;
+import dog.rescue.controller.model.LocationPatch;
+import dog.rescue.controller.model.LocationSummary;
+import dog.rescue.dao.BreedDao;
+import dog.rescue.entity.Breed;
+import dog.rescue.service.RescueService;
+import net.ttddyy.dsproxy.QueryCount;
+
+/**
+ * This class tests the operations coded in the dog rescue applications. The
+ * Spring Boot Test Framework has the ability to test at any level from unit
+ * tests of methods up to testing against the application running under an
+ * embedded Tomcat server.
+ * 
+ * This class takes a middle-of-the-road approach. Tests are performed against
+ * the controller class. Spring Boot creates an application context for the
+ * tests so that almost the entire application is tested.
+ * 
+ * The live MySQL database is replaced by an in-memory H2 database. Before each
+ * test, all tables are dropped, recreated and populated so that each test
+ * always starts in a known state. This means that there is no way that a test
+ * failure can pollute the database for any other test.
+ * 
+ * Using this approach, the only part of the application that is not tested is
+ * marshaling and unmarshaling from JSON to Java and vice versa, as well as any
+ * Bean Validation that may be performed. Whereas this approach <em>could</em>
+ * be taken, it makes the tests more complex and less understandable. Students
+ * have had to overcome a conceptual hurdle with this kind of testing in the
+ * past, so the current approach has been adopted to mitigate the
+ * misunderstanding.
+ * 
+ * Here are explanations for the class-level annotations:
+ * 
+ * @SpringBootTest This sets the Web environment to none, meaning that an
+ *                 embedded Tomcat server is not used to run the application.
+ *                 This also sets the configuration class for the test to the
+ *                 main application class. This allows Spring Boot to run the
+ *                 component scan correctly, and initiates auto-configuration.
+ * 
+ * @ActiveProfiles This sets the profile for the test to "test". The result of
+ *                 this is that Spring Boot will look for application-test.yaml
+ *                 on the classpath. It then merges the contents of
+ *                 application-test.yaml with the main application configuration
+ *                 file application.yaml. This allows us to overwrite the
+ *                 database so that an in-memory database is used for the tests.
+ * 
+ * @Sql This loads two scripts: reset.sql and the breed seed migration. The
+ *      tables themselves are created once, by the Flyway migrations, when the
+ *      application context starts. When Spring Boot loads and executes
+ *      reset.sql, all rows are deleted and the generated IDs start over at 1.
+ *      When it loads and executes V2__seed_breeds.sql, the breed table is
+ *      populated with the dog breed names. Both file names are prefixed with
+ *      "classpath:", which means that Spring Boot will look for the files in
+ *      the runtime classpath (src/test/resources and src/main/resources).
+ * 
+ * @SqlConfig This allows us to set the file encoding in the scripts to UTF-8.
+ *            This is necessary as some of the data is not in the ANSI character
+ *            set.
+ * 
+ * @author Promineo
+ *
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.NONE,
+    classes = DogRescueApplication.class)
+@ActiveProfiles("test")
+@Sql(scripts = {"classpath:reset.sql",
+    "classpath:db/migration/V2__seed_breeds.sql"})
+@SqlConfig(encoding = "utf-8")
+class RescueControllerTest extends RescueControllerTestSupport {
+
+  @Autowired
+  private BreedDao breedDao;
+
+  /**
+   * This tests the controller method
+   * {@link RescueController#createLocation(LocationData)}. In this test, a
+   * location is inserted into the location table and compared with the expected
+   * value.
+   */
+  @Test
+  void testInsertLocation() {
+    // Given: A location request
+    LocationData request = buildInsertLocation(1);
+    LocationData expected = buildInsertLocation(1);
+
+    // When: the location is added to the location table
+    LocationData actual = insertLocation(request);
+
+    // Then: the location returned is what is expected
+    assertThat(actual).isEqualTo(expected);
+
+    // And: there is one row in the location table.
+    assertThat(rowsInLocationTable()).isOne();
+  }
+
+  /**
+   * This tests the controller method
+   * {@link RescueController#retrieveLocation(Long, String, String)}. In this test, a location
+   * is inserted into the location table. The controller method is called to
+   * retrieve the location and it is compared to the expected value.
+   */
+  @Test
+  void testRetrieveLocation() {
+    // Given a location
+    LocationData location = insertLocation(buildInsertLocation(1));
+    LocationData expected = buildInsertLocation(1);
+
+    // When: the location is retrieved by location ID
+    LocationData actual = retrieveLocation(location.getLocationId());
+
+    // Then: the actual location is equal to the expected location.
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  /**
+   * This tests the conditional GET support of
+   * {@link RescueController#retrieveLocation(Long, String, String)} and
+   * {@link RescueController#retrieveAllDogsAtLocation(Long, int, int, String,
+   * String)}.
+   * The ETags must change when a dog is added to the location.
+   */
+  @Test
+  void testRetrieveLocationIsConditional() {
+    // Given: a location and the ETags of the location and its dogs
+    Long locationId = insertLocation(buildInsertLocation(1)).getLocationId();
+    String eTag = retrieveLocation(locationId, null).getHeaders().getETag();
+    String dogsETag =
+        retrieveDogsAtLocation(locationId, null).getHeaders().getETag();
+
+    // When: the location and its dogs are requested with those ETags
+    ResponseEntity<LocationData> location = retrieveLocation(locationId, eTag);
+    ResponseEntity<List<DogInfo>> dogs =
+        retrieveDogsAtLocation(locationId, dogsETag);
+
+    // Then: neither has changed
+    assertThat(location.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    assertThat(location.getBody()).isNull();
+    assertThat(dogs.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+    // When: a dog is added to the location
+    insertDog(locationId, 1);
+
+    // Then: the old ETag no longer matches and the dog is returned
+    location = retrieveLocation(locationId, eTag);
+    assertThat(location.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(location.getHeaders().getETag()).isNotEqualTo(eTag);
+    assertThat(location.getBody().getDogs()).hasSize(1);
+    assertThat(retrieveDogsAtLocation(locationId, dogsETag).getBody())
+        .hasSize(1);
+  }
+
+  /**
+   * This tests that the location, its dogs and each page of its dogs have
+   * different ETags, so that the ETag of one never answers a request for
+   * another with 304.
+   */
+  @Test
+  void testETagsIdentifyOneRepresentation() {
+    // Given: a location with a dog and the ETag of the location
+    Long locationId = insertLocation(buildInsertLocation(1)).getLocationId();
+    insertDog(locationId, 1);
+    String eTag = retrieveLocation(locationId, null).getHeaders().getETag();
+
+    // When: the dogs at the location are requested with that ETag
+    ResponseEntity<List<DogInfo>> dogs =
+        retrieveDogsAtLocation(locationId, eTag);
+
+    // Then: the dogs are returned with their own ETag
+    assertThat(dogs.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(dogs.getBody()).hasSize(1);
+    assertThat(dogs.getHeaders().getETag()).isNotEqualTo(eTag);
+
+    // And: another page of the dogs has yet another ETag
+    String pageETag =
+        retrieveDogPage(locationId, 1, 1).getHeaders().getETag();
+
+    assertThat(pageETag).isNotEqualTo(eTag)
+        .isNotEqualTo(dogs.getHeaders().getETag());
+  }
+
+  /**
+   * This tests that a location is returned with its dogs and their breeds by
+   * both {@link RescueController#retrieveLocation(Long, String, String)} and
+   * {@link RescueController#retrieveAllLocations(int, String)}.
+   */
+  @Test
+  void testRetrieveLocationWithDogs() {
+    // Given: a location with two dogs
+    Long locationId = insertLocationAndTwoDogs();
+
+    // When: the location is retrieved by ID and in the listing
+    LocationData byId = retrieveLocation(locationId);
+    List<LocationData> listed = retrieveAllLocations();
+
+    // Then: the dogs and breeds are included
+    assertThat(byId.getDogs()).isEqualTo(buildLocationDogs());
+
+    // And: the listing returns the same location
+    assertThat(listed).containsExactly(byId);
+  }
+
+  /**
+   * This tests the controller method
+   * {@link RescueController#retrieveAllLocations(int, String)}. In this test,
+   * two locations are inserted into the database. Then they are retrieved and
+   * compared with the expected values. To alleviate any issues involving the
+   * sort order between the expected locations and the actual locations
+   * returned, both actual and expected locations are sorted before comparing
+   * them.
+   */
+  @Test
+  void testRetrieveAllLocations() {
+    // Given: two locations
+    List<LocationData> expected = insertTwoLocations();
+
+    // When: all locations are retrieved
+    List<LocationData> actual = retrieveAllLocations();
+
+    // Then: the retrieved locations are the same as expected.
+    assertThat(sorted(actual)).isEqualTo(sorted(expected));
+  }
+
+  /**
+   * This tests the keyset pagination in
+   * {@link RescueController#retrieveAllLocations(int, String)}. In this test,
+   * two locations are inserted and then retrieved one page at a time. The
+   * locations must come back in business name order and the last page must
+   * not have a next page token.
+   */
+  @Test
+  void testRetrieveLocationsOnePageAtATime() {
+    // Given: two locations
+    List<LocationData> inserted = insertTwoLocations();
+
+    // When: the locations are retrieved one page at a time
+    ResponseEntity<List<LocationData>> page1 = retrieveLocationPage(1, null);
+    ResponseEntity<List<LocationData>> page2 =
+        retrieveLocationPage(1, nextPageToken(page1));
+
+    // Then: the pages are sorted by business name
+    assertThat(page1.getBody()).containsExactly(inserted.get(1));
+    assertThat(page2.getBody()).containsExactly(inserted.get(0));
+
+    // And: only the first page has a next page token
+    assertThat(nextPageToken(page1)).isNotNull();
+    assertThat(nextPageToken(page2)).isNull();
+  }
+
+  /**
+   * This tests
+   * {@link RescueController#retrieveLocationSummaries(int, String)}. In this
+   * test, two locations are inserted and two dogs are added to one of them.
+   * The summaries must be in business name order and carry the dog counts.
+   */
+  @Test
+  void testRetrieveLocationSummaries() {
+    // Given: a location with two dogs and a location without dogs
+    List<LocationData> locations = insertTwoLocations();
+    insertDog(locations.get(0).getLocationId(), 1);
+    insertDog(locations.get(0).getLocationId(), 2);
+
+    // When: the summaries are retrieved one page at a time
+    ResponseEntity<List<LocationSummary>> page1 =
+        retrieveLocationSummaries(1, null);
+    ResponseEntity<List<LocationSummary>> page2 =
+        retrieveLocationSummaries(1, nextPageToken(page1));
+
+    // Then: the summaries are sorted by business name and have dog counts
+    assertThat(page1.getBody())
+        .containsExactly(buildSummary(locations.get(1), 0));
+    assertThat(page2.getBody())
+        .containsExactly(buildSummary(locations.get(0), 2));
+    assertThat(nextPageToken(page2)).isNull();
+  }
+
+  /**
+   * This is a regression guard against N+1 queries in the location listings.
+   * {@link RescueController#retrieveAllLocations(int, String)} and
+   * {@link RescueController#retrieveLocationSummaries(int, String)} are
+   * called with a small and a larger data set. The number of SELECT
+   * statements must stay within a fixed bound and must not grow with the
+   * number of locations or dogs.
+   */
+  @Test
+  void testLocationListingsRunAFixedNumberOfQueries() {
+    // Given: two locations with two dogs each
+    insertLocationsWithDogs(2, 2);
+
+    // When: the locations and summaries are listed
+    QueryCount smallListing = countStatements(() -> retrieveAllLocations());
+    QueryCount smallSummaries =
+        countStatements(() -> retrieveLocationSummaries(100, null));
+
+    // And: they are listed again after eight more locations with three dogs
+    // each are added
+    insertLocationsWithDogs(8, 3);
+
+    QueryCount largeListing = countStatements(() -> retrieveAllLocations());
+    QueryCount largeSummaries =
+        countStatements(() -> retrieveLocationSummaries(100, null));
+
+    // Then: the listing reads the page of IDs and then the locations with
+    // their dogs and breeds, and the summaries take one query
+    assertThat(largeListing.getSelect()).isLessThanOrEqualTo(2)
+        .isEqualTo(smallListing.getSelect());
+    assertThat(largeSummaries.getSelect()).isLessThanOrEqualTo(1)
+        .isEqualTo(smallSummaries.getSelect());
+
+    // And: nothing is written
+    assertThat(largeListing.getTotal()).isEqualTo(largeListing.getSelect());
+    assertThat(largeSummaries.getTotal())
+        .isEqualTo(largeSummaries.getSelect());
+  }
+
+  /**
+   * This is a regression guard against N+1 queries when one location is read.
+   * {@link RescueController#retrieveLocation(Long, String, String)} and
+   * {@link RescueController#retrieveAllDogsAtLocation(Long, int, int, String,
+   * String)} are called for a location with two dogs and for one with ten.
+   * The number of SELECT statements must stay within a fixed bound and must
+   * not grow with the number of dogs.
+   */
+  @Test
+  void testLocationReadsRunAFixedNumberOfQueries() {
+    // Given: a location with two dogs and a location with ten dogs
+    insertLocationsWithDogs(1, 2);
+    insertLocationsWithDogs(1, 10);
+
+    // When: each location and its dogs are retrieved
+    QueryCount smallLocation = countStatements(() -> retrieveLocation(1L));
+    QueryCount largeLocation = countStatements(() -> retrieveLocation(2L));
+    QueryCount smallDogs =
+        countStatements(() -> retrieveDogsAtLocation(1L, 0, 100));
+    QueryCount largeDogs =
+        countStatements(() -> retrieveDogsAtLocation(2L, 0, 100));
+
+    // Then: the location takes the version check and one fetch, and the dogs
+    // take the version check, the page of dogs and their breeds
+    assertThat(largeLocation.getSelect()).isLessThanOrEqualTo(2)
+        .isEqualTo(smallLocation.getSelect());
+    assertThat(largeDogs.getSelect()).isLessThanOrEqualTo(3)
+        .isEqualTo(smallDogs.getSelect());
+    assertThat(largeDogs.getTotal()).isEqualTo(largeDogs.getSelect());
+  }
+
+  /**
+   * This tests the controller method
+   * {@link RescueController#updateLocation(Long, LocationData)}. In this test,
+   * a location is inserted. Then the location is updated with new details. Then
+   * the returned location is compared to the expected (updated) location.
+   */
+  @Test
+  void testUpdateLocation() {
+    // Given: a location and an update request
+    insertLocation(buildInsertLocation(1));
+    LocationData expected = buildUpdateLocation();
+
+    // When: the location is updated
+    LocationData actual = updateLocation(expected);
+
+    // Then: the location is returned as expected
+    assertThat(actual).isEqualTo(expected);
+
+    // And: there is one row in the location table
+    assertThat(rowsInLocationTable()).isOne();
+  }
+
+  /**
+   * This is a regression guard against N+1 queries when a location is
+   * updated. {@link RescueController#updateLocation(Long, LocationData)} is
+   * called for a location with two dogs and for one with ten. The number of
+   * SELECT statements must not grow with the number of dogs.
+   */
+  @Test
+  void testLocationUpdateRunsAFixedNumberOfQueries() {
+    // Given: a location with two dogs and a location with ten dogs
+    insertLocationsWithDogs(1, 2);
+    insertLocationsWithDogs(1, 10);
+
+    LocationData small = retrieveLocation(1L);
+    LocationData large = retrieveLocation(2L);
+
+    // When: each location is updated
+    QueryCount smallUpdate = countStatements(() -> updateLocation(small));
+    QueryCount largeUpdate = countStatements(() -> updateLocation(large));
+
+    // Then: the location, its dogs and their breeds are read in one query
+    assertThat(largeUpdate.getSelect()).isOne()
+        .isEqualTo(smallUpdate.getSelect());
+  }
+
+  /**
+   * This tests {@link RescueController#patchLocation(Long, LocationPatch)}.
+   * Only the patched field may change and the dogs must be kept. The patch
+   * must be one SELECT of the location and one UPDATE, without touching the
+   * dogs, for a location with two dogs and for one with ten.
+   */
+  @Test
+  void testPatchLocation() {
+    // Given: a location with two dogs and a location with ten dogs
+    Long locationId = insertLocationAndTwoDogs();
+    insertLocationsWithDogs(1, 10);
+    LocationData original = retrieveLocation(locationId);
+
+    // When: only the phone number of each location is patched
+    LocationPatch patch = new LocationPatch();
+    patch.setPhone("(410) 555-0100");
+
+    List<LocationSummary> summaries = new ArrayList<>();
+    QueryCount small = countStatements(
+        () -> summaries.add(patchLocation(locationId, patch)));
+    QueryCount large = countStatements(
+        () -> summaries.add(patchLocation(locationId + 1, patch)));
+
+    // Then: the summary has the new phone number and both dogs
+    LocationData expected = retrieveLocation(locationId);
+    assertThat(summaries.get(0)).isEqualTo(buildSummary(expected, 2));
+    assertThat(expected.getPhone()).isEqualTo("(410) 555-0100");
+    assertThat(summaries.get(1).getDogCount()).isEqualTo(10);
+
+    // And: nothing else about the location changed
+    expected.setPhone(original.getPhone());
+    assertThat(expected).isEqualTo(original);
+    assertThat(rowsInDogTable()).isEqualTo(12);
+
+    // And: each patch read only the location row and ran a single UPDATE,
+    // so no dog or dog_breed row was read, written or deleted
+    for(QueryCount count : List.of(small, large)) {
+      assertThat(count.getSelect()).isOne();
+      assertThat(count.getUpdate()).isOne();
+      assertThat(count.getInsert()).isZero();
+      assertThat(count.getDelete()).isZero();
+      assertThat(count.getTotal()).isEqualTo(2);
+    }
+  }
+
+  /**
+   * This tests {@link RescueController#insertDog(Long, DogInfo)}. In this test,
+   * a location is inserted. Then a dog is inserted and added to the location.
+   * Finally, the dog result is compared to the expected dog object.
+   */
+  @Test
+  void testInsertDog() {
+    // Given: a location and a dog
+    LocationData location = insertLocation(buildInsertLocation(1));
+
+    DogInfo request = buildInsertDog(1);
+    DogInfo expected = buildDog(location, request);
+
+    // When: the dog is inserted
+    DogInfo actual = insertDog(location.getLocationId(), 1);
+
+    // Then: the dog ID is set and the location is set in the dog object
+    assertThat(actual).isEqualTo(expected);
+
+    // And: there is a single row in the dog table.
+    assertThat(rowsInDogTable()).isOne();
+  }
+
+  /**
+   * This tests that the breed cache is emptied once a transaction that
+   * renames a breed has committed, so that a new dog does not get the breed
+   * under its old name.
+   */
+  @Test
+  void testInsertDogAfterBreedIsRenamed() {
+    // Given: a location and a renamed breed
+    Long locationId = insertLocation(buildInsertLocation(1)).getLocationId();
+    Breed boxer = breedDao.findByNameIn(Set.of("Boxer")).iterator().next();
+
+    boxer.setName("German Boxer");
+    breedDao.save(boxer);
+
+    // When: a dog is inserted with the breed's old name
+    DogInfo actual = insertDog(locationId, 1);
+
+    // Then: the old name is no longer found
+    assertThat(actual.getBreeds()).extracting(DogInfoBreed::getName)
+        .containsExactly("Chihuahua");
+  }
+
+  /**
+   * This tests {@link RescueController#insertDogs(Long, List)}. In this test, a
+   * batch of three dogs is added to a location. The third dog has no name, so
+   * it is rejected while the other two are saved with their breeds.
+   */
+  @Test
+  void testInsertDogBatch() {
+    // Given: a location
+    Long locationId = insertLocation(buildInsertLocation(1)).getLocationId();
+
+    // When: a batch with two valid dogs and one invalid dog is added
+    DogIntakeReport report = insertDogBatchWithOneInvalidDog(locationId);
+
+    // Then: each dog has a result in request order
+    assertThat(report.getResults())
+        .extracting(DogIntakeResult::getStatus)
+        .containsExactly(Status.CREATED, Status.CREATED, Status.REJECTED);
+    assertThat(report.getResults())
+        .extracting(DogIntakeResult::getDogId)
+        .containsExactly(1L, 2L, null);
+    assertThat(report.getCreated()).isEqualTo(2);
+    assertThat(report.getRejected()).isOne();
+
+    // And: the saved dogs are listed at the location with their breeds
+    assertThat(retrieveDogsAtLocation(locationId, 0, 100))
+        .containsExactly(buildListedDog(1), buildListedDog(2));
+    assertLocationAndDogRowsAreAddedCorrectly();
+  }
+
+  /**
+   * This tests
+   * {@link RescueController#retrieveAllDogsAtLocation(Long, int, int, String,
+   * String)}. In this test, a location and two dogs are inserted. The dogs are
+   * then retrieved one page at a time and compared to the expected dogs.
+   */
+  @Test
+  void testRetrieveDogsAtLocationOnePageAtATime() {
+    // Given: a location with two dogs and a second, empty location
+    Long locationId = insertLocationAndTwoDogs();
+    Long emptyLocationId =
+        insertLocation(buildInsertLocation(2)).getLocationId();
+
+    // When: the dogs are retrieved one page at a time
+    List<DogInfo> page0 = retrieveDogsAtLocation(locationId, 0, 1);
+    List<DogInfo> page1 = retrieveDogsAtLocation(locationId, 1, 1);
+    List<DogInfo> page2 = retrieveDogsAtLocation(locationId, 2, 1);
+
+    // Then: each page holds the next dog in dog ID order
+    assertThat(page0).containsExactly(buildListedDog(1));
+    assertThat(page1).containsExactly(buildListedDog(2));
+    assertThat(page2).isEmpty();
+
+    // And: the dogs at the other location are not returned
+    assertThat(retrieveDogsAtLocation(emptyLocationId, 0, 100)).isEmpty();
+  }
+
+  /**
+   * This tests that
+   * {@link RescueController#retrieveAllDogsAtLocation(Long, int, int, String,
+   * String)} rejects a page size that is larger than the maximum.
+   */
+  @Test
+  void testRetrieveDogsAtLocationRejectsOversizedPage() {
+    // Given: a location
+    Long locationId = insertLocation(buildInsertLocation(1)).getLocationId();
+
+    // When/Then: an oversized page is requested and rejected
+    assertThatThrownBy(() -> retrieveDogsAtLocation(locationId, 0,
+        RescueService.MAX_PAGE_SIZE + 1))
+            .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  /**
+   * This tests {@link RescueController#exportInventory()}. In this test, a
+   * location and two dogs are inserted. The export must have one line for
+   * every breed, location and dog, in that order.
+   */
+  @Test
+  void testExportInventory() throws IOException {
+    // Given: a location with two dogs
+    insertLocationAndTwoDogs();
+
+    // When: the inventory is exported
+    List<String> lines = exportInventory();
+
+    // Then: there is a line for every breed, the location and the dogs
+    int breeds = rowsInBreedTable();
+    assertThat(lines).hasSize(breeds + 3);
+    assertThat(lines.get(0)).startsWith("{\"type\":\"breed\"");
+    assertThat(lines.get(breeds)).startsWith("{\"type\":\"location\"");
+
+    // And: each dog line carries its breed IDs
+    assertThat(lines.subList(breeds + 1, breeds + 3)).containsExactly(
+        "{\"type\":\"dog\",\"dogId\":1,\"locationId\":1,\"name\":\"Ralphy\","
+            + "\"age\":3,\"color\":\"Wheaten\",\"breedIds\":[15,22]}",
+        "{\"type\":\"dog\",\"dogId\":2,\"locationId\":1,\"name\":\"Buford\","
+            + "\"age\":6,\"color\":\"Black\",\"breedIds\":[10,18]}");
+  }
+
+  /**
+   * This tests
+   * {@link RescueController#retrieveNearestLocations(String, int, boolean)}.
+   * The spatial index must follow location inserts, updates and deletes.
+   */
+  @Test
+  void testRetrieveNearestLocations() {
+    // Given: a location in Maryland and one whose ZIP code is not known
+    List<LocationData> locations = insertTwoLocations();
+    Long maryland = locations.get(0).getLocationId();
+    LocationData florida = locations.get(1);
+
+    // When: the locations nearest to Baltimore are retrieved
+    // Then: only the Maryland location is found
+    assertThat(retrieveNearestLocationIds("21201", false))
+        .containsExactly(maryland);
+
+    // When: the second location is moved to a known Florida ZIP code
+    florida.setZip("32566");
+    updateLocation(florida);
+
+    // Then: both are found, nearest first, from either end
+    assertThat(retrieveNearestLocationIds("21201", false))
+        .containsExactly(maryland, florida.getLocationId());
+    assertThat(retrieveNearestLocationIds("32501", false))
+        .containsExactly(florida.getLocationId(), maryland);
+
+    // And: only locations with dogs are found when asked
+    assertThat(retrieveNearestLocationIds("21201", true)).isEmpty();
+    insertDog(florida.getLocationId(), 1);
+    assertThat(retrieveNearestLocationIds("21201", true))
+        .containsExactly(florida.getLocationId());
+
+    // When: the Maryland location is deleted
+    deleteLocation(maryland);
+
+    // Then: it is no longer found
+    assertThat(retrieveNearestLocationIds("21201", false))
+        .containsExactly(florida.getLocationId());
+  }
+
+  /**
+   * This tests {@link RescueController#retrieveDogCounts(Long)} and
+   * {@link RescueController#retrieveAllDogCounts()}. The counters must follow
+   * single inserts, batch inserts and deletes.
+   */
+  @Test
+  void testRetrieveDogCounts() {
+    // Given: a location with two dogs and a batch of two more
+    Long locationId = insertLocationAndTwoDogs();
+    insertDogBatchWithOneInvalidDog(locationId);
+
+    // When: the dog counts are retrieved
+    DogCounts counts = retrieveDogCounts(locationId);
+
+    // Then: every dog is counted in total and under each of its breeds
+    assertThat(counts.getTotal()).isEqualTo(4);
+    assertThat(counts.getBreeds()).isEqualTo(Map.of("Boxer", 2L,
+        "Chihuahua", 2L, "Poodle", 2L, "Border Collie", 2L));
+    assertThat(retrieveAllDogCounts()).containsExactly(counts);
+
+    // When: the location is deleted
+    deleteLocation(locationId);
+
+    // Then: there are no dogs to count
+    assertThat(retrieveDogCounts(locationId).getTotal()).isZero();
+    assertThat(retrieveAllDogCounts()).isEmpty();
+  }
+
+  /**
+   * This tests {@link RescueController#searchDogs(DogSearchCriteria)}. The
+   * search index must follow inserts and deletes.
+   */
+  @Test
+  void testSearchDogs() {
+    // Given: a location with two dogs
+    Long locationId = insertLocationAndTwoDogs();
+
+    // When: dogs are searched by breed
+    DogSearchCriteria byBreed = new DogSearchCriteria();
+    byBreed.getBreed().add("Boxer");
+    DogSearchResult boxers = searchDogs(byBreed);
+
+    // Then: only Ralphy is found, with his facets
+    assertThat(boxers.getTotal()).isEqualTo(1);
+    assertThat(boxers.getDogs()).extracting(DogInfo::getName)
+        .containsExactly("Ralphy");
+    assertThat(boxers.getFacets().get("breed"))
+        .isEqualTo(Map.of("Boxer", 1L, "Chihuahua", 1L));
+    assertThat(boxers.getFacets().get("age")).isEqualTo(Map.of("2-4", 1L));
+
+    // And: an age filter finds only Buford
+    DogSearchCriteria byAge = new DogSearchCriteria();
+    byAge.setMinAge(4);
+    assertThat(searchDogs(byAge).getDogs()).extracting(DogInfo::getName)
+        .containsExactly("Buford");
+
+    // And: no filter counts both dogs by color and location
+    DogSearchResult all = searchDogs(new DogSearchCriteria());
+    assertThat(all.getTotal()).isEqualTo(2);
+    assertThat(all.getFacets().get("color"))
+        .isEqualTo(Map.of("black", 1L, "wheaten", 1L));
+    assertThat(all.getFacets().get("locationId"))
+        .isEqualTo(Map.of(String.valueOf(locationId), 2L));
+
+    // When: the location is deleted
+    deleteLocation(locationId);
+
+    // Then: its dogs are no longer found
+    assertThat(searchDogs(new DogSearchCriteria()).getTotal()).isZero();
+  }
+
+  /**
+   * This tests that the location facet of
+   * {@link RescueController#searchDogs(DogSearchCriteria)} is in numeric
+   * order of location ID, not string order.
+   */
+  @Test
+  void testSearchFacetsSortLocationIdsAsNumbers() {
+    // Given: ten locations with a dog each
+    insertLocationsWithDogs(10, 1);
+
+    // When: all dogs are searched
+    DogSearchResult all = searchDogs(new DogSearchCriteria());
+
+    // Then: location 10 comes after location 9
+    assertThat(all.getFacets().get("locationId").keySet()).containsExactly(
+        "1", "2", "3", "4", "5", "6", "7", "8", "9", "10");
+  }
+
+  /**
+   * This tests {@link RescueController#deleteLocation(Long)}. In this test, a
+   * location and two dogs are inserted into the database, along with the 
+   * appropriate join table rows.
+   */
+  @Test
+  void testDeleteLocationWithDogs() {
+    // Given: two dogs and a location
+    Long locationId = insertLocationAndTwoDogs();
+    int breedRows = rowsInBreedTable();
+
+    assertLocationAndDogRowsAreAddedCorrectly();
+
+    // When: the location is deleted
+    deleteLocation(locationId);
+
+    // Then: there are no location, dog, or dog_breed rows
+    assertLocationAndDogRowsAreGoneAfterDeletion();
+
+    // And: the number of breed rows has not changed
+    assertThat(rowsInBreedTable()).isEqualTo(breedRows);
+  }
+
+}
@@ -0,0 +1,619 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import dog.rescue.controller.model.DogCounts;
+import dog.rescue.controller.model.DogInfo;
+import dog.rescue.controller.model.DogInfo.DogInfoBreed;
+import dog.rescue.controller.model.DogInfo.DogInfoLocation;
+import dog.rescue.controller.model.DogIntakeReport;
+import dog.rescue.controller.model.DogSearchCriteria;
+import dog.rescue.controller.model.DogSearchResult;
+import dog.rescue.controller.model.LocationData;
+import dog.rescue.controller.model.LocationData.DogData;
+import dog.rescue.controller.model.LocationPatch;
+import dog.rescue.controller.model.LocationSummary;
+import dog.rescue.controller.model.NearbyLocation;
+import dog.rescue.entity.Dog;
+import dog.rescue.entity.Location;
+import dog.rescue.service.InMemoryIndex;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+
+/**
+ * This class provides helper methods to {@link RescueControllerTest}. This
+ * allows the actual tests to be simple and self-documenting.
+ * 
+ * @author Promineo
+ *
+ */
+public class RescueControllerTestSupport {
+
+  private static final String LOCATION_TABLE = "location";
+  private static final String DOG_TABLE = "dog";
+  private static final String DOG_BREED_TABLE = "dog_breed";
+  private static final String BREED_TABLE = "breed";
+
+  // @formatter:off
+  private LocationData insertAddress1 = new LocationData(
+      1L,
+      "North Hills Dog Rescue Society",
+      "52 Pine Street",
+      "Abdingdon",
+      "Maryland",
+      "21009",
+      "(410) 459-3200"
+  );
+  
+  private LocationData insertAddress2 = new LocationData(
+      2L,
+      "Navarre Rescue",
+      "42 Valley Farms Street",
+      "Navarre",
+      "Florida",
+      "32556",
+      "(850) 204-9485"
+  );
+  
+  private LocationData updateAddress1 = new LocationData(
+      1L,
+      "Glenlake Dog Rescue Society",
+      "8 East Glenlake Drive",
+      "Wadsworth",
+      "Ohio",
+      "83241",
+      "(330) 336-2105"
+  );
+  
+  private DogInfo insertDog1 = new DogInfo(
+      1L,
+      "Ralphy",
+      3,
+      "Wheaten",
+      Set.of(new DogInfoBreed(15L, "Chihuahua"), new DogInfoBreed(22L, "Boxer"))
+  );
+  
+  private DogInfo insertDog2 = new DogInfo(
+      2L,
+      "Buford",
+      6,
+      "Black",
+      Set.of(new DogInfoBreed(10L, "Poodle"), new DogInfoBreed(18L, "Border Collie"))
+  );
+  
+  // @formatter:on
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private RescueController rescueController;
+
+  @Autowired
+  private List<InMemoryIndex> inMemoryIndexes;
+
+  /**
+   * The tables are recreated before each test, so the in-memory indexes are
+   * reloaded to match them.
+   */
+  @BeforeEach
+  void rebuildInMemoryIndexes() {
+    inMemoryIndexes.forEach(InMemoryIndex::rebuild);
+  }
+
+  /**
+   * Returns one of two {@link LocationData} objects for the tests.
+   * 
+   * @param which Must be either 1 or 2. There is no validity checking on this.
+   * @return A location with the primary key value set.
+   */
+  protected LocationData buildInsertLocation(int which) {
+    return which == 1 ? insertAddress1 : insertAddress2;
+  }
+
+  /**
+   * Calls {@link RescueController#createLocation(LocationData)} to insert a
+   * location.
+   * 
+   * @param locationData The location data. This is converted to a location
+   *        object with no location ID before adding it to the location table.
+   * @return A complete location data object.
+   */
+  protected LocationData insertLocation(LocationData locationData) {
+    Location location = locationData.toLocation();
+    LocationData clone = new LocationData(location);
+
+    clone.setLocationId(null);
+    return rescueController.createLocation(clone);
+  }
+
+  /**
+   * Insert locations that all have the same number of dogs. The locations and
+   * dogs alternate between the two test locations and the two test dogs.
+   * 
+   * @param locations The number of locations to insert.
+   * @param dogsPerLocation The number of dogs to add to each location.
+   */
+  protected void insertLocationsWithDogs(int locations, int dogsPerLocation) {
+    for(int location = 0; location < locations; location++) {
+      Long locationId =
+          insertLocation(buildInsertLocation(location % 2 + 1)).getLocationId();
+
+      for(int dog = 0; dog < dogsPerLocation; dog++) {
+        insertDog(locationId, dog % 2 + 1);
+      }
+    }
+  }
+
+  /**
+   * Count the SQL statements, by type, that an operation runs. The data
+   * source is wrapped in a counting proxy (see
+   * {@link dog.rescue.config.MetricsConfig}) that keeps the counts per thread,
+   * and the controller is called on the test thread, so only the operation's
+   * own statements are counted.
+   * 
+   * @param operation The operation, usually a controller call.
+   * @return The number of SELECT, INSERT, UPDATE, DELETE and other
+   *         statements.
+   */
+  protected QueryCount countStatements(Supplier<?> operation) {
+    QueryCountHolder.clear();
+    operation.get();
+    return QueryCountHolder.getGrandTotal();
+  }
+
+  /**
+   * Counts the number of rows in the location table.
+   * 
+   * @return The number of rows.
+   */
+  protected int rowsInLocationTable() {
+    return JdbcTestUtils.countRowsInTable(jdbcTemplate, LOCATION_TABLE);
+  }
+
+  /**
+   * Calls {@link RescueController#retrieveLocation(Long, String, String)} to
+   * retrieve a location given the ID.
+   * 
+   * @param locationId The location ID.
+   * @return The location object.
+   */
+  protected LocationData retrieveLocation(Long locationId) {
+    return retrieveLocation(locationId, null).getBody();
+  }
+
+  /**
+   * Calls {@link RescueController#retrieveLocation(Long, String, String)} with
+   * an If-None-Match header.
+   * 
+   * @param locationId The location ID.
+   * @param ifNoneMatch The If-None-Match header or {@code null}.
+   * @return The response.
+   */
+  protected ResponseEntity<LocationData> retrieveLocation(Long locationId,
+      String ifNoneMatch) {
+    return rescueController.retrieveLocation(locationId, ifNoneMatch, null);
+  }
+
+  /**
+   * Insert two locations into the location table.
+   * 
+   * @return A list of the two locations.
+   */
+  protected List<LocationData> insertTwoLocations() {
+    LocationData location1 = insertLocation(buildInsertLocation(1));
+    LocationData location2 = insertLocation(buildInsertLocation(2));
+
+    return List.of(location1, location2);
+  }
+
+  /**
+   * Calls {@link RescueController#retrieveAllLocations(int, String)} to
+   * retrieve the first page of locations.
+   * 
+   * @return The list of locations.
+   */
+  protected List<LocationData> retrieveAllLocations() {
+    return retrieveLocationPage(100, null).getBody();
+  }
+
+  /**
+   * Calls {@link RescueController#retrieveAllLocations(int, String)} to
+   * retrieve one page of locations.
+   * 
+   * @param limit The page size.
+   * @param pageToken The token for the page or {@code null} for the first
+   *        page.
+   * @return The response with the list of locations and the next page token
+   *         header.
+   */
+  protected ResponseEntity<List<LocationData>> retrieveLocationPage(int limit,
+      String pageToken) {
+    return rescueController.retrieveAllLocations(limit, pageToken);
+  }
+
+  /**
+   * Calls {@link RescueController#retrieveLocationSummaries(int, String)} to
+   * retrieve one page of location summaries.
+   * 
+   * @param limit The page size.
+   * @param pageToken The token for the page or {@code null} for the first
+   *        page.
+   * @return The response with the list of summaries and the next page token
+   *         header.
+   */
+  protected ResponseEntity<List<LocationSummary>> retrieveLocationSummaries(
+      int limit, String pageToken) {
+    return rescueController.retrieveLocationSummaries(limit, pageToken);
+  }
+
+  /**
+   * Build the summary of a location.
+   * 
+   * @param location The location.
+   * @param dogCount The expected number of dogs at the location.
+   * @return The location summary.
+   */
+  protected LocationSummary buildSummary(LocationData location,
+      long dogCount) {
+    return new LocationSummary(location.getLocationId(),
+        location.getBusinessName(), location.getStreetAddress(),
+        location.getCity(), location.getState(), location.getZip(),
+        location.getPhone(), dogCount);
+  }
+
+  /**
+   * Returns the next page token from a location listing response.
+   * 
+   * @param response The response.
+   * @return The token or {@code null} if this is the last page.
+   */
+  protected String nextPageToken(ResponseEntity<?> response) {
+    return response.getHeaders()
+        .getFirst(RescueController.NEXT_PAGE_TOKEN_HEADER);
+  }
+
+  /**
+   * Sort a list of locations by location ID so that expected and actual
+   * location lists can be compared.
+   * 
+   * @param list The list to sort.
+   * @return The sorted list.
+   */
+  protected List<LocationData> sorted(List<LocationData> list) {
+    /*
+     * The parameter list may be an immutable list. Convert to a modifiable list
+     * before sorting.
+     */
+    List<LocationData> data = new LinkedList<>(list);
+
+    data.sort(
+        (loc1, loc2) -> (int)(loc1.getLocationId() - loc2.getLocationId()));
+
+    return data;
+  }
+
+  /**
+   * Calls {@link RescueController#updateLocation(Long, LocationData)} to update
+   * the given location.
+   * 
+   * @param locationData The location with an existing ID and modified data.
+   * @return The modified location.
+   */
+  protected LocationData updateLocation(LocationData locationData) {
+    return rescueController.updateLocation(locationData.getLocationId(),
+        locationData);
+  }
+
+  /**
+   * Calls {@link RescueController#patchLocation(Long, LocationPatch)} to
+   * change some of the fields of a location.
+   * 
+   * @param locationId The location ID.
+   * @param patch The fields to change.
+   * @return The summary of the changed location.
+   */
+  protected LocationSummary patchLocation(Long locationId,
+      LocationPatch patch) {
+    return rescueController.patchLocation(locationId, patch);
+  }
+
+  /**
+   * Build a {@link LocationData} object for the update operation.
+   * 
+   * @return The location.
+   */
+  protected LocationData buildUpdateLocation() {
+    return updateAddress1;
+  }
+
+  /**
+   * Build a {@link DogInfo} object with the {@link LocationData} set.
+   * 
+   * @param locationData The location data.
+   * @param dogInfo The original dog info.
+   * @return A dog info object with the location data set.
+   */
+  protected DogInfo buildDog(LocationData locationData, DogInfo dogInfo) {
+    Location location = locationData.toLocation();
+    DogInfoLocation dogLocation = new DogInfoLocation(location);
+
+    DogInfo result = new DogInfo(dogInfo.getDogId(), dogInfo.getName(),
+        dogInfo.getAge(), dogInfo.getColor(), dogInfo.getBreeds());
+
+    result.setLocation(dogLocation);
+    return result;
+  }
+
+  /**
+   * Returns one of the two common {@link DogInfo} objects.
+   * 
+   * @param which This must be 1 or 2. There is no validity check.
+   * @return The requested DogInfo object.
+   */
+  protected DogInfo buildInsertDog(int which) {
+    return which == 1 ? insertDog1 : insertDog2;
+  }
+
+  /**
+   * This clones one of the common {@link DogInfo} objects and then calls
+   * {@link RescueController#insertDog(Long, DogInfo)} to insert the dog row.
+   * 
+   * @param locationId The location ID.
+   * @param which The common DogInfo object to use (must be 1 or 2).
+   * @return The inserted Dog entity converted to a DogInfo object.
+   */
+  protected DogInfo insertDog(Long locationId, int which) {
+    DogInfo dogInfo = buildInsertDog(which);
+    Dog dog = dogInfo.toDog();
+    DogInfo request = new DogInfo(dog);
+
+    request.setDogId(null);
+    return rescueController.insertDog(locationId, request);
+  }
+
+  /**
+   * Calls
+   * {@link RescueController#retrieveAllDogsAtLocation(Long, int, int, String,
+   * String)} to retrieve one page of the dogs at a location.
+   * 
+   * @param locationId The location ID.
+   * @param page The zero-based page number.
+   * @param limit The page size.
+   * @return The dogs on the requested page.
+   */
+  protected List<DogInfo> retrieveDogsAtLocation(Long locationId, int page,
+      int limit) {
+    return retrieveDogPage(locationId, page, limit).getBody();
+  }
+
+  /**
+   * Calls
+   * {@link RescueController#retrieveAllDogsAtLocation(Long, int, int, String,
+   * String)} to retrieve one page of the dogs at a location with the
+   * response headers.
+   * 
+   * @param locationId The location ID.
+   * @param page The zero-based page number.
+   * @param limit The page size.
+   * @return The response.
+   */
+  protected ResponseEntity<List<DogInfo>> retrieveDogPage(Long locationId,
+      int page, int limit) {
+    return rescueController.retrieveAllDogsAtLocation(locationId, page, limit,
+        null, null);
+  }
+
+  /**
+   * Calls
+   * {@link RescueController#retrieveAllDogsAtLocation(Long, int, int, String,
+   * String)} with an If-None-Match header to retrieve the first page of dogs.
+   * 
+   * @param locationId The location ID.
+   * @param ifNoneMatch The If-None-Match header or {@code null}.
+   * @return The response.
+   */
+  protected ResponseEntity<List<DogInfo>> retrieveDogsAtLocation(
+      Long locationId, String ifNoneMatch) {
+    return rescueController.retrieveAllDogsAtLocation(locationId, 0, 100,
+        ifNoneMatch, null);
+  }
+
+  /**
+   * Build a {@link DogInfo} object as it is returned by the dog listing, which
+   * does not include the location.
+   * 
+   * @param which This must be 1 or 2. There is no validity check.
+   * @return The expected DogInfo object.
+   */
+  protected DogInfo buildListedDog(int which) {
+    DogInfo dogInfo = buildInsertDog(which);
+
+    return new DogInfo(dogInfo.getDogId(), dogInfo.getName(),
+        dogInfo.getAge(), dogInfo.getColor(), dogInfo.getBreeds());
+  }
+
+  /**
+   * Calls {@link RescueController#insertDogs(Long, List)} to add a batch of
+   * dogs. Both common {@link DogInfo} objects are added without dog IDs,
+   * followed by a dog that has no name.
+   * 
+   * @param locationId The location ID.
+   * @return The intake report.
+   */
+  protected DogIntakeReport insertDogBatchWithOneInvalidDog(Long locationId) {
+    List<DogInfo> request = new LinkedList<>();
+
+    for(int which = 1; which <= 2; which++) {
+      DogInfo dogInfo = new DogInfo(buildInsertDog(which).toDog());
+
+      dogInfo.setDogId(null);
+      request.add(dogInfo);
+    }
+
+    request.add(new DogInfo(null, null, 1, "Brown", Set.of()));
+
+    return rescueController.insertDogs(locationId, request);
+  }
+
+  /**
+   * Calls
+   * {@link RescueController#retrieveNearestLocations(String, int, boolean)}
+   * and returns the IDs of the locations found, closest first.
+   * 
+   * @param zip The caller's ZIP code.
+   * @param withDogs Whether to return only locations with dogs.
+   * @return The location IDs.
+   */
+  protected List<Long> retrieveNearestLocationIds(String zip,
+      boolean withDogs) {
+    // @formatter:off
+    return rescueController.retrieveNearestLocations(zip, 5, withDogs)
+        .stream()
+        .map(NearbyLocation::getLocationId)
+        .toList();
+    // @formatter:on
+  }
+
+  /**
+   * Calls {@link RescueController#retrieveDogCounts(Long)}.
+   * 
+   * @param locationId The location ID.
+   * @return The dog counts at the location.
+   */
+  protected DogCounts retrieveDogCounts(Long locationId) {
+    return rescueController.retrieveDogCounts(locationId);
+  }
+
+  /**
+   * Calls {@link RescueController#retrieveAllDogCounts()}.
+   * 
+   * @return The dog counts at every location.
+   */
+  protected List<DogCounts> retrieveAllDogCounts() {
+    return rescueController.retrieveAllDogCounts();
+  }
+
+  /**
+   * Calls {@link RescueController#searchDogs(DogSearchCriteria)}.
+   * 
+   * @param criteria The search criteria.
+   * @return The search result.
+   */
+  protected DogSearchResult searchDogs(DogSearchCriteria criteria) {
+    return rescueController.searchDogs(criteria);
+  }
+
+  /**
+   * Calls {@link RescueController#exportInventory()} and collects the
+   * streamed response.
+   * 
+   * @return The lines of the export.
+   * @throws IOException Thrown if the export fails.
+   */
+  protected List<String> exportInventory() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    rescueController.exportInventory().getBody().writeTo(out);
+    return out.toString(StandardCharsets.UTF_8).lines().toList();
+  }
+
+  /**
+   * Counts the number of rows in the dog table.
+   * 
+   * @return The number of rows.
+   */
+  protected int rowsInDogTable() {
+    return JdbcTestUtils.countRowsInTable(jdbcTemplate, DOG_TABLE);
+  }
+
+  /**
+   * Calls {@link RescueController#deleteLocation(Long)} to delete the location,
+   * dog, and dog breed rows.
+   * 
+   * @param locationId The ID of the location to delete.
+   * @return A map containing a success message.
+   */
+  protected Map<String, String> deleteLocation(Long locationId) {
+    return rescueController.deleteLocation(locationId);
+  }
+
+  /**
+   * Counts the number of rows in the breed table.
+   * 
+   * @return The number of rows.
+   */
+  protected int rowsInBreedTable() {
+    return JdbcTestUtils.countRowsInTable(jdbcTemplate, BREED_TABLE);
+  }
+
+  /**
+   * Counts the number of rows in the dog breed join table.
+   * 
+   * @return The number of rows.
+   */
+  protected int rowsInDogBreedTable() {
+    return JdbcTestUtils.countRowsInTable(jdbcTemplate, DOG_BREED_TABLE);
+  }
+
+  /**
+   * Insert a location and two dog rows.
+   * 
+   * @return The ID of the inserted location.
+   */
+  protected Long insertLocationAndTwoDogs() {
+    LocationData location = insertLocation(buildInsertLocation(1));
+    Long locationId = location.getLocationId();
+
+    insertDog(locationId, 1);
+    insertDog(locationId, 2);
+
+    return locationId;
+  }
+
+  /**
+   * Build the {@link DogData} objects that a location holds after
+   * {@link #insertLocationAndTwoDogs()}.
+   * 
+   * @return The two dogs with their breeds.
+   */
+  protected Set<DogData> buildLocationDogs() {
+    return Set.of(new DogData(buildInsertDog(1).toDog()),
+        new DogData(buildInsertDog(2).toDog()));
+  }
+
+  /**
+   * Tests that the number of rows in the dog, breed, and dog_breed tables are
+   * correct after adding them in {@link #insertLocationAndTwoDogs()}.
+   */
+  protected void assertLocationAndDogRowsAreAddedCorrectly() {
+    assertThat(rowsInLocationTable()).isOne();
+    assertThat(rowsInDogTable()).isEqualTo(2);
+    assertThat(rowsInDogBreedTable()).isEqualTo(4);
+  }
+
+  /**
+   * Tests that the dog, breed, and dog_breed tables are gone after deleting
+   * the location row in {@link #deleteLocation(Long)}.
+   */
+  protected void assertLocationAndDogRowsAreGoneAfterDeletion() {
+    assertThat(rowsInLocationTable()).isZero();
+    assertThat(rowsInDogTable()).isZero();
+    assertThat(rowsInDogBreedTable()).isZero();
+  }
+
+}
@@ -0,0 +1,91 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import dog.rescue.DogRescueApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * This class tests the application with the "response-cache" profile, which
+ * caches the serialized responses of the location read endpoints. The
+ * response cache is a servlet filter, so the requests are sent through
+ * MockMvc instead of calling the controller directly. It is otherwise set up
+ * the same way as {@link RescueControllerTest}.
+ * 
+ * @author Promineo
+ *
+ */
+@SpringBootTest(classes = DogRescueApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "response-cache"})
+@Sql(scripts = {"classpath:reset.sql",
+    "classpath:db/migration/V2__seed_breeds.sql"})
+@SqlConfig(encoding = "utf-8")
+class ResponseCacheTest extends RescueControllerTestSupport {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  /**
+   * This tests that a repeated request is answered from the cache and that
+   * adding a dog makes the location's responses be built again.
+   */
+  @Test
+  void testLocationResponsesAreCachedUntilTheLocationChanges()
+      throws Exception {
+    // Given: a location that has been requested once
+    Long locationId = insertLocation(buildInsertLocation(1)).getLocationId();
+    String uri = "/dog_rescue/location/" + locationId;
+    String eTag = mockMvc.perform(get(uri)).andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    double hits = cacheHits();
+
+    // When: it is requested again
+    // Then: the same response comes from the cache
+    mockMvc.perform(get(uri)).andExpect(status().isOk())
+        .andExpect(jsonPath("$.dogs.length()").value(0));
+    assertThat(cacheHits()).isEqualTo(hits + 1);
+
+    // And: a client that has it gets 304 from the cache
+    mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+    assertThat(cacheHits()).isEqualTo(hits + 2);
+
+    // When: a dog is added to the location
+    insertDog(locationId, 1);
+
+    // Then: the location and its dogs are built again with the dog
+    mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.dogs.length()").value(1));
+    mockMvc.perform(get(uri + "/dog")).andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1));
+    assertThat(cacheHits()).isEqualTo(hits + 2);
+  }
+
+  /**
+   * Return the number of response cache hits.
+   * 
+   * @return The number of hits.
+   */
+  private double cacheHits() {
+    return meterRegistry.get("cache.gets").tag("cache", "http.responses")
+        .tag("result", "hit").functionCounter().count();
+  }
+}
@@ -0,0 +1,88 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import dog.rescue.DogRescueApplication;
+import dog.rescue.controller.model.LocationPatch;
+import dog.rescue.entity.Location;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * This class tests the application with the "l2-cache" profile, which turns
+ * on the Hibernate second-level cache. It is set up the same way as
+ * {@link RescueControllerTest}. The scripts recreate the tables behind
+ * Hibernate's back, so the second-level cache is emptied before each test.
+ * 
+ * @author Promineo
+ *
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.NONE,
+    classes = DogRescueApplication.class)
+@ActiveProfiles({"test", "l2-cache"})
+@Sql(scripts = {"classpath:reset.sql",
+    "classpath:db/migration/V2__seed_breeds.sql"})
+@SqlConfig(encoding = "utf-8")
+class SecondLevelCacheTest extends RescueControllerTestSupport {
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  /**
+   * Empty the second-level cache.
+   */
+  @BeforeEach
+  void evictSecondLevelCache() {
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  /**
+   * This tests that a location that has been written is then read from the
+   * "location" region and that the hits are counted.
+   */
+  @Test
+  void testLocationIsReadFromTheSecondLevelCache() {
+    // Given: a location
+    Long locationId = insertLocation(buildInsertLocation(1)).getLocationId();
+    double hits = cacheHits("location");
+
+    // When: the location is patched, which loads it by ID
+    LocationPatch patch = new LocationPatch();
+    patch.setPhone("(410) 555-0100");
+    patchLocation(locationId, patch);
+
+    // Then: the location was found in the cache
+    assertThat(entityManagerFactory.getCache().contains(Location.class,
+        locationId)).isTrue();
+    assertThat(cacheHits("location")).isGreaterThan(hits);
+
+    // And: the other regions publish their statistics
+    assertThat(meterRegistry.find("cache.evictions").tag("cache", "breed")
+        .functionCounter()).isNotNull();
+    assertThat(meterRegistry.find("cache.evictions").tag("cache", "dog.breeds")
+        .functionCounter()).isNotNull();
+  }
+
+  /**
+   * Return the number of hits in a cache region.
+   * 
+   * @param region The region name.
+   * @return The number of hits.
+   */
+  private double cacheHits(String region) {
+    return meterRegistry.get("cache.gets").tag("cache", region)
+        .tag("result", "hit").functionCounter().count();
+  }
+}
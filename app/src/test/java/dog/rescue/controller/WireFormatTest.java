@@ -0,0 +1,178 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import dog.rescue.DogRescueApplication;
+import dog.rescue.controller.model.DogInfo;
+import dog.rescue.controller.model.LocationData;
+
+/**
+ * This class tests the CBOR and Smile wire formats. Content negotiation
+ * happens in Spring MVC's message converters, so the requests are sent through
+ * MockMvc instead of calling the controller directly. The class is otherwise
+ * set up the same way as {@link RescueControllerTest}.
+ * 
+ * @author Promineo
+ *
+ */
+@SpringBootTest(classes = DogRescueApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Sql(scripts = {"classpath:reset.sql",
+    "classpath:db/migration/V2__seed_breeds.sql"})
+@SqlConfig(encoding = "utf-8")
+class WireFormatTest extends RescueControllerTestSupport {
+  private static final MediaType CBOR =
+      MediaType.parseMediaType("application/cbor");
+  private static final MediaType SMILE =
+      MediaType.parseMediaType("application/x-jackson-smile");
+
+  private final ObjectMapper cborMapper = new CBORMapper();
+  private final ObjectMapper smileMapper = new SmileMapper();
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  /**
+   * This tests that a location can be created and read back in CBOR.
+   */
+  @Test
+  void testCreateAndRetrieveLocationInCbor() throws Exception {
+    // Given: a location encoded as CBOR
+    LocationData request =
+        new LocationData(buildInsertLocation(1).toLocation());
+    request.setLocationId(null);
+
+    // When: the location is created with a CBOR request and response
+    // @formatter:off
+    byte[] created = mockMvc.perform(post("/dog_rescue/location")
+            .contentType(CBOR)
+            .accept(CBOR)
+            .content(cborMapper.writeValueAsBytes(request)))
+        .andExpect(status().isCreated())
+        .andExpect(content().contentType(CBOR))
+        .andReturn().getResponse().getContentAsByteArray();
+    // @formatter:on
+
+    // Then: the created location is returned in CBOR
+    LocationData location = cborMapper.readValue(created, LocationData.class);
+    assertThat(location).isEqualTo(buildInsertLocation(1));
+
+    // And: the location is read back in CBOR with a Vary header
+    // @formatter:off
+    byte[] retrieved = mockMvc.perform(get("/dog_rescue/location/1")
+            .accept(CBOR))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(CBOR))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+        .andReturn().getResponse().getContentAsByteArray();
+    // @formatter:on
+
+    assertThat(cborMapper.readValue(retrieved, LocationData.class))
+        .isEqualTo(location);
+  }
+
+  /**
+   * This tests that each format has its own ETag, so that the ETag of a JSON
+   * body never answers a CBOR request with 304.
+   */
+  @Test
+  void testETagDependsOnFormat() throws Exception {
+    // Given: a location and the ETag of its JSON body
+    Long locationId = insertLocation(buildInsertLocation(1)).getLocationId();
+    String uri = "/dog_rescue/location/" + locationId;
+
+    // @formatter:off
+    String jsonETag = mockMvc.perform(get(uri))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // When: the location is requested in CBOR with that ETag
+    String cborETag = mockMvc.perform(get(uri)
+            .accept(CBOR)
+            .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+        // Then: the CBOR body is returned with its own ETag
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(CBOR))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    assertThat(cborETag).isNotEqualTo(jsonETag);
+
+    // And: each ETag still matches its own format
+    mockMvc.perform(get(uri)
+            .accept(CBOR)
+            .header(HttpHeaders.IF_NONE_MATCH, cborETag))
+        .andExpect(status().isNotModified());
+    mockMvc.perform(get(uri)
+            .header(HttpHeaders.IF_NONE_MATCH, jsonETag))
+        .andExpect(status().isNotModified());
+
+    // And: the ETag follows the format that is negotiated, quality included
+    mockMvc.perform(get(uri)
+            .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/cbor"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(CBOR))
+        .andExpect(header().string(HttpHeaders.ETAG, cborETag));
+    // @formatter:on
+  }
+
+  /**
+   * This tests that a dog can be added and the dogs at a location listed in
+   * Smile, and that JSON is still the default format.
+   */
+  @Test
+  void testInsertAndListDogsInSmile() throws Exception {
+    // Given: a location
+    Long locationId = insertLocation(buildInsertLocation(1)).getLocationId();
+    DogInfo request = new DogInfo(buildInsertDog(1).toDog());
+    request.setDogId(null);
+
+    // When: a dog is added with a Smile request
+    // @formatter:off
+    mockMvc.perform(post("/dog_rescue/location/" + locationId + "/dog")
+            .contentType(SMILE)
+            .accept(SMILE)
+            .content(smileMapper.writeValueAsBytes(request)))
+        .andExpect(status().isCreated())
+        .andExpect(content().contentType(SMILE));
+
+    byte[] dogs = mockMvc.perform(
+            get("/dog_rescue/location/" + locationId + "/dog").accept(SMILE))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(SMILE))
+        .andReturn().getResponse().getContentAsByteArray();
+    // @formatter:on
+
+    // Then: the dog is listed in Smile
+    List<DogInfo> listed =
+        smileMapper.readValue(dogs, new TypeReference<List<DogInfo>>() {});
+    assertThat(listed).hasSize(1);
+    assertThat(listed.get(0).getName()).isEqualTo(request.getName());
+
+    // And: a request without an Accept header gets JSON
+    mockMvc.perform(get("/dog_rescue/location/" + locationId + "/dog"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+  }
+}
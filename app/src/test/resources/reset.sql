@@ -0,0 +1,10 @@
+-- Empties the tables that the migrations created and restarts their IDs at 1.
+-- The tests run this and then the breed seed migration before each test.
+DELETE FROM dog_breed;
+DELETE FROM dog;
+DELETE FROM location;
+DELETE FROM breed;
+
+ALTER TABLE location ALTER COLUMN location_id RESTART WITH 1;
+ALTER TABLE dog ALTER COLUMN dog_id RESTART WITH 1;
+ALTER TABLE breed ALTER COLUMN breed_id RESTART WITH 1;
@@ -0,0 +1,50 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.benchmark;
+
+import java.io.IOException;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * This is the main class of the benchmark jar. It takes the usual JMH
+ * command-line options, for example a benchmark name pattern, "-p" to choose
+ * parameter values or "-rf json" for a machine-readable report, and always
+ * adds the GC profiler so that every result includes the bytes allocated per
+ * operation ({@code gc.alloc.rate.norm}).
+ * 
+ * @author Promineo
+ *
+ */
+public class BenchmarkMain {
+
+  /**
+   * Run the benchmarks.
+   * 
+   * @param args JMH command-line options.
+   * @throws CommandLineOptionException Thrown if an option is not valid.
+   * @throws IOException Thrown if the help text cannot be written.
+   * @throws RunnerException Thrown if a benchmark fails.
+   */
+  public static void main(String[] args)
+      throws CommandLineOptionException, IOException, RunnerException {
+    CommandLineOptions options = new CommandLineOptions(args);
+
+    if(options.shouldHelp()) {
+      options.showHelp();
+      return;
+    }
+
+    // @formatter:off
+    new Runner(new OptionsBuilder()
+        .parent(options)
+        .addProfiler(GCProfiler.class)
+        .build())
+        .run();
+    // @formatter:on
+  }
+}
@@ -0,0 +1,55 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import dog.rescue.controller.model.DogInfo;
+import dog.rescue.entity.Dog;
+
+/**
+ * This benchmark measures the conversion of a single dog between the
+ * {@link Dog} entity and the {@link DogInfo} DTO. The entity to DTO direction
+ * runs for every dog the dog endpoints return; the other direction runs for
+ * every dog that is added or updated.
+ * 
+ * @author Promineo
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DogConversionBenchmark {
+  private Dog dog;
+  private DogInfo dogInfo;
+
+  @Setup
+  public void setUp() {
+    Fixtures fixtures = new Fixtures();
+
+    dog = fixtures.location(1).getDogs().iterator().next();
+    dogInfo = new DogInfo(dog);
+  }
+
+  @Benchmark
+  public DogInfo toDogInfo() {
+    return new DogInfo(dog);
+  }
+
+  @Benchmark
+  public Dog toDog() {
+    return dogInfo.toDog();
+  }
+}
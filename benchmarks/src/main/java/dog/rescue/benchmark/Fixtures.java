@@ -0,0 +1,85 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import dog.rescue.entity.Breed;
+import dog.rescue.entity.Dog;
+import dog.rescue.entity.Location;
+
+/**
+ * This class builds the entity graphs the benchmarks convert. The graphs look
+ * like the ones Hibernate returns: every dog has a location and two breeds
+ * from a shared pool, and the dog IDs are unique across all locations.
+ * 
+ * @author Promineo
+ *
+ */
+class Fixtures {
+  static final int BREED_COUNT = 50;
+
+  private static final String[] COLORS =
+      {"Black", "Brown", "White", "Tan", "Brindle", "Merle"};
+
+  private final List<Breed> breeds = new ArrayList<>();
+  private long nextLocationId = 1;
+  private long nextDogId = 1;
+
+  Fixtures() {
+    for(long breedId = 1; breedId <= BREED_COUNT; breedId++) {
+      Breed breed = new Breed();
+
+      breed.setBreedId(breedId);
+      breed.setName("Breed " + breedId);
+
+      breeds.add(breed);
+    }
+  }
+
+  /**
+   * Create a location with the given number of dogs.
+   * 
+   * @param dogCount The number of dogs at the location.
+   * @return The location.
+   */
+  Location location(int dogCount) {
+    Location location = new Location();
+    long locationId = nextLocationId++;
+
+    location.setLocationId(locationId);
+    location.setBusinessName("Rescue " + locationId);
+    location.setStreetAddress(locationId + " Main Street");
+    location.setCity("Springfield");
+    location.setState("Illinois");
+    location.setZip("62701");
+    location.setPhone("217-555-0100");
+
+    for(int count = 0; count < dogCount; count++) {
+      location.getDogs().add(dog(location));
+    }
+
+    return location;
+  }
+
+  /**
+   * Create a dog at a location.
+   * 
+   * @param location The location.
+   * @return The dog.
+   */
+  Dog dog(Location location) {
+    Dog dog = new Dog();
+    long dogId = nextDogId++;
+
+    dog.setDogId(dogId);
+    dog.setName("Dog " + dogId);
+    dog.setAge((int)(dogId % 15) + 1);
+    dog.setColor(COLORS[(int)(dogId % COLORS.length)]);
+    dog.setLocation(location);
+    dog.getBreeds().add(breeds.get((int)(dogId % BREED_COUNT)));
+    dog.getBreeds().add(breeds.get((int)((dogId * 7 + 1) % BREED_COUNT)));
+
+    return dog;
+  }
+}
@@ -0,0 +1,58 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import dog.rescue.controller.model.LocationData;
+import dog.rescue.entity.Location;
+
+/**
+ * This benchmark measures the conversion of a whole location, dogs and
+ * breeds included, between the {@link Location} entity and the
+ * {@link LocationData} DTO. The number of dogs at the location is a
+ * parameter, so the cost of the nested sets and their hashing shows up as the
+ * location grows.
+ * 
+ * @author Promineo
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LocationConversionBenchmark {
+  @Param({"1", "100", "10000"})
+  private int dogsPerLocation;
+
+  private Location location;
+  private LocationData locationData;
+
+  @Setup
+  public void setUp() {
+    location = new Fixtures().location(dogsPerLocation);
+    locationData = new LocationData(location);
+  }
+
+  @Benchmark
+  public LocationData toLocationData() {
+    return new LocationData(location);
+  }
+
+  @Benchmark
+  public Location toLocation() {
+    return locationData.toLocation();
+  }
+}
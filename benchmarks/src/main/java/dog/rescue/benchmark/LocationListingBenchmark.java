@@ -0,0 +1,65 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import dog.rescue.controller.model.LocationData;
+import dog.rescue.entity.Location;
+
+/**
+ * This benchmark measures the in-memory part of a location listing: a page of
+ * locations, already sorted by business name in the database, is converted to
+ * DTOs the same way the service does it.
+ * 
+ * @author Promineo
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LocationListingBenchmark {
+  @Param({"10"})
+  private int pageSize;
+
+  @Param({"1", "100"})
+  private int dogsPerLocation;
+
+  private List<Location> locations;
+
+  @Setup
+  public void setUp() {
+    Fixtures fixtures = new Fixtures();
+
+    locations = new ArrayList<>();
+
+    for(int count = 0; count < pageSize; count++) {
+      locations.add(fixtures.location(dogsPerLocation));
+    }
+  }
+
+  @Benchmark
+  public List<LocationData> convertPage() {
+    // @formatter:off
+    return locations
+        .stream()
+        .map(LocationData::new)
+        .toList();
+    // @formatter:on
+  }
+}
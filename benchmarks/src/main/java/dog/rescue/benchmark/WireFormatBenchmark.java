@@ -0,0 +1,89 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dog.rescue.controller.model.LocationData;
+
+/**
+ * This benchmark compares the three wire formats the API offers: JSON, CBOR
+ * and Smile. It encodes a whole location tree, dogs and breeds included, to
+ * bytes and decodes it back, with object mappers built the same way as the
+ * application's message converters. The encoded size of each format is
+ * printed at the start of each trial, next to its share of the JSON size.
+ * 
+ * @author Promineo
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class WireFormatBenchmark {
+  @Param({"json", "cbor", "smile"})
+  private String format;
+
+  @Param({"1", "100", "10000"})
+  private int dogsPerLocation;
+
+  private ObjectMapper objectMapper;
+  private LocationData locationData;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() throws IOException {
+    objectMapper = objectMapper(format);
+    locationData = new LocationData(new Fixtures().location(dogsPerLocation));
+    encoded = objectMapper.writeValueAsBytes(locationData);
+
+    int jsonSize = objectMapper("json").writeValueAsBytes(locationData).length;
+
+    System.out.printf("%n# Payload: %s, %d dogs: %,d bytes (%.0f%% of JSON)%n",
+        format, dogsPerLocation, encoded.length,
+        100.0 * encoded.length / jsonSize);
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    return objectMapper.writeValueAsBytes(locationData);
+  }
+
+  @Benchmark
+  public LocationData decode() throws IOException {
+    return objectMapper.readValue(encoded, LocationData.class);
+  }
+
+  /**
+   * Build the object mapper of a wire format.
+   * 
+   * @param format The format: json, cbor or smile.
+   * @return The object mapper.
+   */
+  private static ObjectMapper objectMapper(String format) {
+    // @formatter:off
+    Jackson2ObjectMapperBuilder builder = switch(format) {
+      case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+      case "smile" -> Jackson2ObjectMapperBuilder.smile();
+      default -> Jackson2ObjectMapperBuilder.json();
+    };
+    // @formatter:on
+
+    return builder.build();
+  }
+}
@@ -0,0 +1,159 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * This class sends HTTP requests to a running application from a fixed number
+ * of concurrent clients for a fixed length of time. It is a closed-loop
+ * driver: each client sends its next request as soon as the previous one
+ * completes, so the offered load grows with the concurrency.
+ * 
+ * @author Promineo
+ *
+ */
+public class HttpLoadDriver {
+  private static final String DEFAULT_OPERATION = "request";
+
+  private final HttpClient client;
+
+  /**
+   * Create a driver.
+   */
+  public HttpLoadDriver() {
+    client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10))
+        .version(HttpClient.Version.HTTP_1_1).build();
+  }
+
+  /**
+   * Send requests for the given length of time.
+   * 
+   * @param concurrency The number of concurrent clients.
+   * @param duration How long to send requests.
+   * @param requests Supplies the next request to send. It is called by all of
+   *        the clients, so it must be thread safe.
+   * @return The result of the run.
+   * @throws InterruptedException Thrown if the run is interrupted.
+   */
+  public LoadResult run(int concurrency, Duration duration,
+      Supplier<HttpRequest> requests) throws InterruptedException {
+    return runMix(concurrency, duration,
+        () -> new NamedRequest(DEFAULT_OPERATION, requests.get())).overall();
+  }
+
+  /**
+   * Send requests from a mix of operations for the given length of time and
+   * report each operation separately.
+   * 
+   * @param concurrency The number of concurrent clients.
+   * @param duration How long to send requests.
+   * @param requests Supplies the next request to send. It is called by all of
+   *        the clients, so it must be thread safe.
+   * @return The result of the run, overall and by operation.
+   * @throws InterruptedException Thrown if the run is interrupted.
+   */
+  public MixResult runMix(int concurrency, Duration duration,
+      Supplier<NamedRequest> requests) throws InterruptedException {
+    ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+    List<Future<Map<String, Latencies>>> futures = new ArrayList<>();
+    long start = System.nanoTime();
+    long deadline = start + duration.toNanos();
+
+    for(int i = 0; i < concurrency; i++) {
+      futures.add(clients.submit(() -> runClient(deadline, requests)));
+    }
+
+    Map<String, Latencies> byOperation = new HashMap<>();
+    Latencies all = new Latencies();
+
+    try {
+      for(Future<Map<String, Latencies>> future : futures) {
+        future.get().forEach((operation, latencies) -> {
+          byOperation.computeIfAbsent(operation, key -> new Latencies())
+              .addAll(latencies);
+          all.addAll(latencies);
+        });
+      }
+    }
+    catch(ExecutionException e) {
+      throw new IllegalStateException("A load client failed", e.getCause());
+    }
+    finally {
+      clients.shutdownNow();
+    }
+
+    long elapsed = System.nanoTime() - start;
+    SortedMap<String, LoadResult> operations = new TreeMap<>();
+
+    byOperation.forEach((operation, latencies) -> operations.put(operation,
+        latencies.toResult(concurrency, elapsed)));
+
+    return new MixResult(all.toResult(concurrency, elapsed), operations);
+  }
+
+  /**
+   * Send requests one after another until the deadline.
+   * 
+   * @param deadline The System.nanoTime() value at which to stop.
+   * @param requests Supplies the requests.
+   * @return The latencies and errors of each operation.
+   */
+  private Map<String, Latencies> runClient(long deadline,
+      Supplier<NamedRequest> requests) {
+    Map<String, Latencies> byOperation = new HashMap<>();
+
+    while(System.nanoTime() < deadline) {
+      NamedRequest next = requests.get();
+      boolean error = false;
+      long start = System.nanoTime();
+
+      try {
+        HttpResponse<Void> response =
+            client.send(next.request(), BodyHandlers.discarding());
+
+        error = response.statusCode() / 100 != 2;
+      }
+      catch(IOException e) {
+        error = true;
+      }
+      catch(InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+
+      byOperation.computeIfAbsent(next.operation(), key -> new Latencies())
+          .add(System.nanoTime() - start, error);
+    }
+
+    return byOperation;
+  }
+
+  /**
+   * Build a GET request.
+   * 
+   * @param uri The URI.
+   * @return The request.
+   */
+  public static HttpRequest get(String uri) {
+    return HttpRequest.newBuilder(URI.create(uri))
+        .timeout(Duration.ofSeconds(30)).GET().build();
+  }
+}
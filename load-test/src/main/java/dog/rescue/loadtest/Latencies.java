@@ -0,0 +1,64 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * This class records the latencies and errors of one kind of request. It is
+ * not thread safe: each load client keeps its own copy, and the copies are
+ * merged when the run ends.
+ * 
+ * @author Promineo
+ *
+ */
+class Latencies {
+  private long[] nanos = new long[1024];
+  private int count;
+  private long errors;
+
+  /**
+   * Record a request.
+   * 
+   * @param latencyNanos The latency of the request.
+   * @param error {@code true} if the request failed.
+   */
+  void add(long latencyNanos, boolean error) {
+    if(count == nanos.length) {
+      nanos = Arrays.copyOf(nanos, count * 2);
+    }
+
+    nanos[count++] = latencyNanos;
+
+    if(error) {
+      errors++;
+    }
+  }
+
+  /**
+   * Add the requests recorded by another instance.
+   * 
+   * @param other The other instance.
+   */
+  void addAll(Latencies other) {
+    if(count + other.count > nanos.length) {
+      nanos = Arrays.copyOf(nanos, count + other.count);
+    }
+
+    System.arraycopy(other.nanos, 0, nanos, count, other.count);
+    count += other.count;
+    errors += other.errors;
+  }
+
+  /**
+   * Compute the result of the recorded requests.
+   * 
+   * @param concurrency The number of concurrent clients.
+   * @param elapsedNanos The length of the run.
+   * @return The result.
+   */
+  LoadResult toResult(int concurrency, long elapsedNanos) {
+    return new LoadResult(concurrency, Arrays.copyOf(nanos, count), errors,
+        elapsedNanos);
+  }
+}
@@ -0,0 +1,75 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.loadtest;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * This class holds the outcome of one load run: how many requests were sent,
+ * how many failed, the throughput and the latency percentiles.
+ * 
+ * @author Promineo
+ *
+ */
+@Getter
+public class LoadResult {
+  private final int concurrency;
+  private final long requests;
+  private final long errors;
+  private final double seconds;
+  private final double throughput;
+  private final double p50Millis;
+  private final double p99Millis;
+  private final double p999Millis;
+
+  /**
+   * Compute the result of a run.
+   * 
+   * @param concurrency The number of concurrent clients.
+   * @param latencyNanos The latency of every request, in any order. The
+   *        array is sorted by this constructor.
+   * @param errors The number of requests that failed or did not return a 2xx
+   *        status.
+   * @param elapsedNanos The length of the run.
+   */
+  public LoadResult(int concurrency, long[] latencyNanos, long errors,
+      long elapsedNanos) {
+    Arrays.sort(latencyNanos);
+
+    this.concurrency = concurrency;
+    this.requests = latencyNanos.length;
+    this.errors = errors;
+    this.seconds = elapsedNanos / 1e9;
+    this.throughput = requests / seconds;
+    this.p50Millis = percentile(latencyNanos, 0.50);
+    this.p99Millis = percentile(latencyNanos, 0.99);
+    this.p999Millis = percentile(latencyNanos, 0.999);
+  }
+
+  /**
+   * Return a percentile of the sorted latencies using the nearest-rank
+   * method.
+   * 
+   * @param sorted The sorted latencies in nanoseconds.
+   * @param quantile The quantile, between 0 and 1.
+   * @return The latency in milliseconds or zero if there are no latencies.
+   */
+  private static double percentile(long[] sorted, double quantile) {
+    if(sorted.length == 0) {
+      return 0;
+    }
+
+    int rank = (int)Math.ceil(quantile * sorted.length);
+    return sorted[Math.max(rank, 1) - 1] / 1e6;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "concurrency=%d requests=%d errors=%d throughput=%.1f/s"
+            + " p50=%.2fms p99=%.2fms p999=%.2fms",
+        concurrency, requests, errors, throughput, p50Millis, p99Millis,
+        p999Millis);
+  }
+}
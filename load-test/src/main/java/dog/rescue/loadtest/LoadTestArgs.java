@@ -0,0 +1,72 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.loadtest;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class reads load test arguments of the form {@code name=value}.
+ * 
+ * @author Promineo
+ *
+ */
+public class LoadTestArgs {
+  private final Map<String, String> values = new HashMap<>();
+
+  /**
+   * Parse the arguments.
+   * 
+   * @param args The command line arguments.
+   * @throws IllegalArgumentException Thrown if an argument is not of the form
+   *         name=value.
+   */
+  public LoadTestArgs(String[] args) {
+    for(String arg : args) {
+      int pos = arg.indexOf('=');
+
+      if(pos < 1) {
+        throw new IllegalArgumentException(
+            "Argument '" + arg + "' must be of the form name=value.");
+      }
+
+      values.put(arg.substring(0, pos), arg.substring(pos + 1));
+    }
+  }
+
+  /**
+   * Return a string argument.
+   * 
+   * @param name The argument name.
+   * @param defaultValue The value to use if the argument is missing.
+   * @return The value.
+   */
+  public String get(String name, String defaultValue) {
+    return values.getOrDefault(name, defaultValue);
+  }
+
+  /**
+   * Return an integer argument.
+   * 
+   * @param name The argument name.
+   * @param defaultValue The value to use if the argument is missing.
+   * @return The value.
+   */
+  public int getInt(String name, int defaultValue) {
+    return Integer.parseInt(get(name, String.valueOf(defaultValue)));
+  }
+
+  /**
+   * Return a comma-separated list of integers.
+   * 
+   * @param name The argument name.
+   * @param defaultValue The value to use if the argument is missing.
+   * @return The values.
+   */
+  public List<Integer> getIntList(String name, String defaultValue) {
+    return Arrays.stream(get(name, defaultValue).split(","))
+        .map(String::trim).map(Integer::valueOf).toList();
+  }
+}
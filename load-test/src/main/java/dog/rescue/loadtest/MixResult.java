@@ -0,0 +1,17 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.loadtest;
+
+import java.util.SortedMap;
+
+/**
+ * This is the outcome of a load run with a mix of operations.
+ * 
+ * @author Promineo
+ *
+ * @param overall The result of all of the requests together.
+ * @param operations The result of each operation, by operation name.
+ */
+public record MixResult(LoadResult overall,
+    SortedMap<String, LoadResult> operations) {
+}
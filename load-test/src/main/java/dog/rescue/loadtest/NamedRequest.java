@@ -0,0 +1,17 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.loadtest;
+
+import java.net.http.HttpRequest;
+
+/**
+ * This is a request together with the name of the operation it belongs to.
+ * The load driver reports the latencies of each operation separately.
+ * 
+ * @author Promineo
+ *
+ * @param operation The operation name.
+ * @param request The request.
+ */
+public record NamedRequest(String operation, HttpRequest request) {
+}
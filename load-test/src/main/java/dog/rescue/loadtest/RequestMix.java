@@ -0,0 +1,99 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class supplies requests drawn from a weighted mix of operations. The
+ * mix is given as {@code name=weight} pairs, for example
+ * {@code location=30,dogs=30,search=10}: each request belongs to an operation
+ * with a probability proportional to its weight. It is thread safe.
+ * 
+ * @author Promineo
+ *
+ */
+public class RequestMix implements Supplier<NamedRequest> {
+  private final Map<String, Integer> weights = new LinkedHashMap<>();
+  private final List<String> names = new ArrayList<>();
+  private final List<Function<RandomGenerator, HttpRequest>> builders =
+      new ArrayList<>();
+  private final int[] cumulativeWeights;
+
+  /**
+   * Create a mix.
+   * 
+   * @param spec The mix as comma-separated {@code name=weight} pairs.
+   * @param operations Builds a request of each known operation from a random
+   *        number generator.
+   * @throws IllegalArgumentException Thrown if the mix names an unknown
+   *         operation, a weight is not a positive integer or the mix is empty.
+   */
+  public RequestMix(String spec,
+      Map<String, Function<RandomGenerator, HttpRequest>> operations) {
+    for(String pair : spec.split(",")) {
+      String[] parts = pair.trim().split("=");
+      String name = parts[0].trim();
+
+      if(parts.length != 2 || !operations.containsKey(name)) {
+        throw new IllegalArgumentException("Mix entry '" + pair
+            + "' must be name=weight with a name in " + operations.keySet());
+      }
+
+      int weight = Integer.parseInt(parts[1].trim());
+
+      if(weight < 1) {
+        throw new IllegalArgumentException(
+            "The weight of '" + name + "' must be positive.");
+      }
+
+      weights.merge(name, weight, Integer::sum);
+    }
+
+    cumulativeWeights = new int[weights.size()];
+    int total = 0;
+
+    for(Map.Entry<String, Integer> entry : weights.entrySet()) {
+      total += entry.getValue();
+      cumulativeWeights[names.size()] = total;
+      names.add(entry.getKey());
+      builders.add(operations.get(entry.getKey()));
+    }
+  }
+
+  /**
+   * Return the weight of each operation in the mix.
+   * 
+   * @return The weights by operation name, in the order they were given.
+   */
+  public Map<String, Integer> getWeights() {
+    return Collections.unmodifiableMap(weights);
+  }
+
+  /**
+   * Draw the next request.
+   */
+  @Override
+  public NamedRequest get() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    int pos = 0;
+
+    while(draw >= cumulativeWeights[pos]) {
+      pos++;
+    }
+
+    HttpRequest request = builders.get(pos).apply(random);
+    return new NamedRequest(names.get(pos), Objects.requireNonNull(request));
+  }
+}
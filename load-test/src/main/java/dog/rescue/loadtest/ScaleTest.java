@@ -0,0 +1,227 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.loadtest;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+import javax.sql.DataSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dog.rescue.DogRescueApplication;
+import dog.rescue.loadtest.SyntheticDataGenerator.GeneratedData;
+import dog.rescue.service.InMemoryIndex;
+import dog.rescue.service.ZipCentroids;
+
+/**
+ * This test runs the application against a production-sized data set. It
+ * starts the application on a random port with an in-memory H2 database in
+ * MySQL mode, fills the database with {@link SyntheticDataGenerator}, and then
+ * drives the read endpoints with a weighted mix of requests at each
+ * concurrency level. The throughput and latency percentiles, overall and for
+ * each operation, are printed and written to a JSON report.
+ * 
+ * Arguments, all optional:
+ * {@code seed=42 locations=5000 dogs=2000000 concurrency=16,64 duration=30
+ * warmup=10 report=target/scale-test-report.json} and a mix such as
+ * {@code mix=location=25,dogs=25,summary=10,count=10,search=15,nearest=10,listing=5}
+ * (durations are in seconds). The operations are:
+ * <ul>
+ * <li>location - GET /location/{id}</li>
+ * <li>dogs - GET /location/{id}/dog with a random page of 50 dogs</li>
+ * <li>listing - GET /location, the first page of 20 locations</li>
+ * <li>summary - GET /location/summary, the first page of 100 summaries</li>
+ * <li>count - GET /location/{id}/dog/count</li>
+ * <li>search - GET /dog/search by a random breed and minimum age</li>
+ * <li>nearest - GET /location/nearest to a random known ZIP code</li>
+ * </ul>
+ * 
+ * Two million dogs need a heap of about 4 GB, for example
+ * {@code MAVEN_OPTS=-Xmx4g}.
+ * 
+ * @author Promineo
+ *
+ */
+public class ScaleTest {
+  private static final String DEFAULT_MIX =
+      "location=25,dogs=25,listing=5,summary=10,count=10,search=15,nearest=10";
+  private static final int DOG_PAGE_SIZE = 50;
+
+  /**
+   * Run the test.
+   * 
+   * @param args The optional arguments described in the class comment.
+   * @throws Exception Thrown if the test fails.
+   */
+  public static void main(String[] args) throws Exception {
+    LoadTestArgs options = new LoadTestArgs(args);
+    long seed = options.getInt("seed", 42);
+    int locations = options.getInt("locations", 5_000);
+    int dogs = options.getInt("dogs", 2_000_000);
+    List<Integer> levels = options.getIntList("concurrency", "16,64");
+    Duration duration = Duration.ofSeconds(options.getInt("duration", 30));
+    Duration warmup = Duration.ofSeconds(options.getInt("warmup", 10));
+    Path reportFile =
+        Path.of(options.get("report", "target/scale-test-report.json"));
+
+    try(ConfigurableApplicationContext context = start()) {
+      List<String> zipCodes =
+          List.copyOf(context.getBean(ZipCentroids.class).zipCodes());
+
+      System.out.printf("Generating %d locations and %d dogs...%n", locations,
+          dogs);
+
+      GeneratedData data =
+          new SyntheticDataGenerator(context.getBean(DataSource.class), seed)
+              .generate(locations, dogs, zipCodes);
+
+      context.getBeansOfType(InMemoryIndex.class).values()
+          .forEach(InMemoryIndex::rebuild);
+
+      String baseUri = "http://localhost:" + port(context) + "/dog_rescue";
+      RequestMix mix = new RequestMix(options.get("mix", DEFAULT_MIX),
+          operations(baseUri, data, zipCodes));
+      HttpLoadDriver driver = new HttpLoadDriver();
+      List<MixResult> runs = new ArrayList<>();
+
+      driver.runMix(levels.get(0), warmup, mix);
+
+      for(int concurrency : levels) {
+        MixResult result = driver.runMix(concurrency, duration, mix);
+
+        System.out.println("overall: " + result.overall());
+        result.operations().forEach((operation, operationResult) -> System.out
+            .println("  " + operation + ": " + operationResult));
+
+        runs.add(result);
+      }
+
+      writeReport(reportFile,
+          new ScaleTestReport(data, mix.getWeights(), runs));
+    }
+  }
+
+  /**
+   * Start the application with an empty in-memory database.
+   * 
+   * @return The application context.
+   */
+  private static ConfigurableApplicationContext start() {
+    // @formatter:off
+    return new SpringApplicationBuilder(DogRescueApplication.class)
+        .run(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:scale;MODE=MYSQL",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.datasource.hikari.maximum-pool-size=40",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.dog.rescue=WARN");
+    // @formatter:on
+  }
+
+  /**
+   * Return the port of the embedded web server.
+   * 
+   * @param context The application context.
+   * @return The port.
+   */
+  private static int port(ConfigurableApplicationContext context) {
+    return ((ServletWebServerApplicationContext)context).getWebServer()
+        .getPort();
+  }
+
+  /**
+   * Return the operations that a mix can name.
+   * 
+   * @param baseUri The base URI of the API.
+   * @param data The generated data.
+   * @param zipCodes The ZIP codes the locations were given.
+   * @return Builds a request of each operation, by operation name.
+   */
+  private static Map<String, Function<RandomGenerator, HttpRequest>> operations(
+      String baseUri, GeneratedData data, List<String> zipCodes) {
+    Map<String, Function<RandomGenerator, HttpRequest>> operations =
+        new LinkedHashMap<>();
+    int dogPages =
+        Math.max(1, data.dogs() / data.locations() / DOG_PAGE_SIZE);
+
+    operations.put("location", random -> HttpLoadDriver
+        .get(baseUri + "/location/" + locationId(random, data)));
+
+    operations.put("dogs",
+        random -> HttpLoadDriver.get(baseUri + "/location/"
+            + locationId(random, data) + "/dog?page=" + random.nextInt(dogPages)
+            + "&limit=" + DOG_PAGE_SIZE));
+
+    operations.put("listing",
+        random -> HttpLoadDriver.get(baseUri + "/location?limit=20"));
+
+    operations.put("summary",
+        random -> HttpLoadDriver.get(baseUri + "/location/summary?limit=100"));
+
+    operations.put("count", random -> HttpLoadDriver.get(
+        baseUri + "/location/" + locationId(random, data) + "/dog/count"));
+
+    operations.put("search", random -> {
+      String breed = data.breedNames()
+          .get(random.nextInt(data.breedNames().size()));
+
+      return HttpLoadDriver.get(baseUri + "/dog/search?breed="
+          + URLEncoder.encode(breed, StandardCharsets.UTF_8) + "&minAge="
+          + random.nextInt(10));
+    });
+
+    operations.put("nearest",
+        random -> HttpLoadDriver.get(baseUri + "/location/nearest?zip="
+            + zipCodes.get(random.nextInt(zipCodes.size()))));
+
+    return operations;
+  }
+
+  /**
+   * Pick a random generated location.
+   * 
+   * @param random The random number generator.
+   * @param data The generated data.
+   * @return The location ID.
+   */
+  private static int locationId(RandomGenerator random, GeneratedData data) {
+    return random.nextInt(data.locations()) + 1;
+  }
+
+  /**
+   * Write the report as JSON.
+   * 
+   * @param file The report file.
+   * @param report The report.
+   * @throws IOException Thrown if the file cannot be written.
+   */
+  private static void writeReport(Path file, ScaleTestReport report)
+      throws IOException {
+    Path parent = file.toAbsolutePath().getParent();
+
+    if(Objects.nonNull(parent)) {
+      Files.createDirectories(parent);
+    }
+
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+        .writeValue(file.toFile(), report);
+
+    System.out.println("Report written to " + file.toAbsolutePath());
+  }
+}
@@ -0,0 +1,21 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.loadtest;
+
+import java.util.List;
+import java.util.Map;
+import dog.rescue.loadtest.SyntheticDataGenerator.GeneratedData;
+
+/**
+ * This is the machine-readable report of a {@link ScaleTest} run. It is
+ * written as JSON.
+ * 
+ * @author Promineo
+ *
+ * @param data The generated data set.
+ * @param mix The weight of each operation in the request mix.
+ * @param runs The result at each concurrency level.
+ */
+public record ScaleTestReport(GeneratedData data, Map<String, Integer> mix,
+    List<MixResult> runs) {
+}
@@ -0,0 +1,289 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.loadtest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import javax.sql.DataSource;
+
+/**
+ * This class fills an empty database with synthetic locations and dogs. The
+ * data depend only on the seed and the requested sizes, so two runs with the
+ * same arguments load the same rows and can be compared.
+ * 
+ * The rows are written with JDBC batches rather than through the API, which
+ * makes millions of dogs practical. The dogs get their breeds from the breed
+ * table seeded by the migrations, and the locations get their ZIP codes from
+ * the given list so that the nearest-location lookup finds them. Location and
+ * dog IDs start at 1 and have no gaps.
+ * 
+ * @author Promineo
+ *
+ */
+public class SyntheticDataGenerator {
+  private static final int BATCH_SIZE = 5_000;
+
+  private static final String[] NAMES = {"Bella", "Max", "Luna", "Charlie",
+      "Lucy", "Cooper", "Daisy", "Buddy", "Sadie", "Rocky", "Molly", "Bear",
+      "Bailey", "Duke", "Maggie", "Tucker", "Sophie", "Jack", "Chloe", "Zeus"};
+  private static final String[] COLORS = {"Black", "Brown", "White", "Tan",
+      "Brindle", "Merle", "Golden", "Gray", "Red", "Cream"};
+  private static final String[] STATES = {"Alabama", "California",
+      "Colorado", "Florida", "Georgia", "Illinois", "Maryland", "New York",
+      "Ohio", "Texas", "Utah", "Washington"};
+
+  /* The share of dogs with a second breed. */
+  private static final double MIXED_BREED_SHARE = 0.3;
+
+  private final DataSource dataSource;
+  private final long seed;
+
+  /**
+   * Create a generator.
+   * 
+   * @param dataSource The database to fill.
+   * @param seed The random seed.
+   */
+  public SyntheticDataGenerator(DataSource dataSource, long seed) {
+    this.dataSource = dataSource;
+    this.seed = seed;
+  }
+
+  /**
+   * Generate the locations and dogs. Each dog is placed at a location chosen
+   * uniformly at random.
+   * 
+   * @param locationCount The number of locations.
+   * @param dogCount The number of dogs.
+   * @param zipCodes The ZIP codes to give the locations.
+   * @return A description of what was generated.
+   * @throws SQLException Thrown if the rows cannot be written.
+   * @throws IllegalStateException Thrown if the database already has
+   *         locations or has no breeds.
+   */
+  public GeneratedData generate(int locationCount, int dogCount,
+      List<String> zipCodes) throws SQLException {
+    SplittableRandom random = new SplittableRandom(seed);
+    long start = System.nanoTime();
+
+    try(Connection conn = dataSource.getConnection()) {
+      conn.setAutoCommit(false);
+
+      if(count(conn, "location") > 0) {
+        throw new IllegalStateException(
+            "The database must not have any locations.");
+      }
+
+      List<String> breedNames = new ArrayList<>();
+      List<Long> breedIds = readBreeds(conn, breedNames);
+
+      insertLocations(conn, locationCount, zipCodes, random);
+      long dogBreeds = insertDogs(conn, dogCount, locationCount, breedIds,
+          random);
+
+      restartIdentity(conn, "location", "location_id", locationCount + 1);
+      restartIdentity(conn, "dog", "dog_id", dogCount + 1L);
+      conn.commit();
+
+      return new GeneratedData(seed, locationCount, dogCount, dogBreeds,
+          breedNames, (System.nanoTime() - start) / 1e9);
+    }
+  }
+
+  /**
+   * Read the seeded breeds.
+   * 
+   * @param conn The connection.
+   * @param breedNames Receives the breed names.
+   * @return The breed IDs in the same order as the names.
+   * @throws SQLException Thrown if the breeds cannot be read.
+   */
+  private List<Long> readBreeds(Connection conn, List<String> breedNames)
+      throws SQLException {
+    List<Long> breedIds = new ArrayList<>();
+
+    try(Statement stmt = conn.createStatement();
+        ResultSet rs = stmt
+            .executeQuery("SELECT breed_id, name FROM breed ORDER BY breed_id")) {
+      while(rs.next()) {
+        breedIds.add(rs.getLong(1));
+        breedNames.add(rs.getString(2));
+      }
+    }
+
+    if(breedIds.isEmpty()) {
+      throw new IllegalStateException("The breed table is empty.");
+    }
+
+    return breedIds;
+  }
+
+  /**
+   * Insert the locations with IDs 1 to locationCount.
+   * 
+   * @param conn The connection.
+   * @param locationCount The number of locations.
+   * @param zipCodes The ZIP codes to choose from.
+   * @param random The random number generator.
+   * @throws SQLException Thrown if a row cannot be written.
+   */
+  private void insertLocations(Connection conn, int locationCount,
+      List<String> zipCodes, SplittableRandom random) throws SQLException {
+    // @formatter:off
+    String sql = ""
+        + "INSERT INTO location (location_id, business_name, street_address,"
+        + " city, state, zip, phone) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    // @formatter:on
+
+    try(PreparedStatement stmt = conn.prepareStatement(sql)) {
+      for(int locationId = 1; locationId <= locationCount; locationId++) {
+        stmt.setInt(1, locationId);
+        stmt.setString(2, String.format("Rescue %07d", locationId));
+        stmt.setString(3, (random.nextInt(9_900) + 100) + " Main Street");
+        stmt.setString(4, "City " + random.nextInt(1_000));
+        stmt.setString(5, STATES[random.nextInt(STATES.length)]);
+        stmt.setString(6, zipCodes.get(random.nextInt(zipCodes.size())));
+        stmt.setString(7, String.format("555-%03d-%04d",
+            random.nextInt(1_000), random.nextInt(10_000)));
+        stmt.addBatch();
+
+        if(locationId % BATCH_SIZE == 0) {
+          stmt.executeBatch();
+          conn.commit();
+        }
+      }
+
+      stmt.executeBatch();
+      conn.commit();
+    }
+  }
+
+  /**
+   * Insert the dogs with IDs 1 to dogCount and their breeds.
+   * 
+   * @param conn The connection.
+   * @param dogCount The number of dogs.
+   * @param locationCount The number of locations.
+   * @param breedIds The breed IDs to choose from.
+   * @param random The random number generator.
+   * @return The number of dog_breed rows.
+   * @throws SQLException Thrown if a row cannot be written.
+   */
+  private long insertDogs(Connection conn, int dogCount, int locationCount,
+      List<Long> breedIds, SplittableRandom random) throws SQLException {
+    long dogBreeds = 0;
+
+    // @formatter:off
+    String dogSql = ""
+        + "INSERT INTO dog (dog_id, location_id, name, age, color) "
+        + "VALUES (?, ?, ?, ?, ?)";
+    String dogBreedSql = ""
+        + "INSERT INTO dog_breed (dog_id, breed_id) "
+        + "VALUES (?, ?)";
+    // @formatter:on
+
+    try(PreparedStatement dogStmt = conn.prepareStatement(dogSql);
+        PreparedStatement dogBreedStmt = conn.prepareStatement(dogBreedSql)) {
+      for(int dogId = 1; dogId <= dogCount; dogId++) {
+        dogStmt.setInt(1, dogId);
+        dogStmt.setInt(2, random.nextInt(locationCount) + 1);
+        dogStmt.setString(3, NAMES[random.nextInt(NAMES.length)]);
+        dogStmt.setInt(4, random.nextInt(16));
+        dogStmt.setString(5, COLORS[random.nextInt(COLORS.length)]);
+        dogStmt.addBatch();
+
+        int first = random.nextInt(breedIds.size());
+        addDogBreed(dogBreedStmt, dogId, breedIds.get(first));
+        dogBreeds++;
+
+        if(breedIds.size() > 1 && random.nextDouble() < MIXED_BREED_SHARE) {
+          int second = (first + 1 + random.nextInt(breedIds.size() - 1))
+              % breedIds.size();
+          addDogBreed(dogBreedStmt, dogId, breedIds.get(second));
+          dogBreeds++;
+        }
+
+        if(dogId % BATCH_SIZE == 0) {
+          dogStmt.executeBatch();
+          dogBreedStmt.executeBatch();
+          conn.commit();
+        }
+      }
+
+      dogStmt.executeBatch();
+      dogBreedStmt.executeBatch();
+      conn.commit();
+    }
+
+    return dogBreeds;
+  }
+
+  /**
+   * Add a dog_breed row to the batch.
+   * 
+   * @param stmt The dog_breed insert statement.
+   * @param dogId The dog ID.
+   * @param breedId The breed ID.
+   * @throws SQLException Thrown if the row cannot be added.
+   */
+  private void addDogBreed(PreparedStatement stmt, int dogId, long breedId)
+      throws SQLException {
+    stmt.setInt(1, dogId);
+    stmt.setLong(2, breedId);
+    stmt.addBatch();
+  }
+
+  /**
+   * Make the next generated ID of a table follow the inserted rows.
+   * 
+   * @param conn The connection.
+   * @param table The table name.
+   * @param column The ID column.
+   * @param next The next ID to generate.
+   * @throws SQLException Thrown if the statement fails.
+   */
+  private void restartIdentity(Connection conn, String table, String column,
+      long next) throws SQLException {
+    try(Statement stmt = conn.createStatement()) {
+      stmt.execute("ALTER TABLE " + table + " ALTER COLUMN " + column
+          + " RESTART WITH " + next);
+    }
+  }
+
+  /**
+   * Count the rows in a table.
+   * 
+   * @param conn The connection.
+   * @param table The table name.
+   * @return The number of rows.
+   * @throws SQLException Thrown if the query fails.
+   */
+  private long count(Connection conn, String table) throws SQLException {
+    try(Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  /**
+   * This describes the generated data.
+   * 
+   * @param seed The random seed.
+   * @param locations The number of locations.
+   * @param dogs The number of dogs.
+   * @param dogBreeds The number of dog_breed rows.
+   * @param breedNames The names of the breeds the dogs were given.
+   * @param seconds How long the generation took.
+   */
+  public record GeneratedData(long seed, int locations, int dogs,
+      long dogBreeds, List<String> breedNames, double seconds) {
+  }
+}
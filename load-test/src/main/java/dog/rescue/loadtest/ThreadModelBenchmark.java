@@ -0,0 +1,176 @@
+// Copyright (c) 2023 by Promineo Tech.
+
+package dog.rescue.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import dog.rescue.DogRescueApplication;
+
+/**
+ * This benchmark compares the default thread-per-request model, where Tomcat
+ * serves requests from a pool of 200 platform threads, with the
+ * virtual-thread mode (the "virtual-threads" profile). For each mode it starts
+ * the application on a random port with an in-memory H2 database, loads a few
+ * locations and dogs, and then drives the read endpoints at increasing
+ * concurrency. Throughput and p99 latency are printed for each level.
+ * 
+ * Both modes use a database pool of the same size, so the difference comes
+ * from the request threads alone. The virtual-thread mode is skipped on a JVM
+ * older than Java 21.
+ * 
+ * Arguments, all optional: {@code levels=16,64,256,1024 duration=20 warmup=5}
+ * (durations are in seconds).
+ * 
+ * @author Promineo
+ *
+ */
+public class ThreadModelBenchmark {
+  private static final int LOCATIONS = 20;
+  private static final int DOGS_PER_LOCATION = 200;
+
+  /**
+   * Run the benchmark.
+   * 
+   * @param args The optional arguments described in the class comment.
+   * @throws Exception Thrown if the benchmark fails.
+   */
+  public static void main(String[] args) throws Exception {
+    LoadTestArgs options = new LoadTestArgs(args);
+    List<Integer> levels = options.getIntList("levels", "16,64,256,1024");
+    Duration duration = Duration.ofSeconds(options.getInt("duration", 20));
+    Duration warmup = Duration.ofSeconds(options.getInt("warmup", 5));
+    List<String> report = new ArrayList<>();
+
+    for(boolean virtual : new boolean[] {false, true}) {
+      String mode = virtual ? "virtual" : "platform";
+
+      if(virtual && Runtime.version().feature() < 21) {
+        report.add(mode + ": skipped, virtual threads need Java 21 or later");
+        continue;
+      }
+
+      try(ConfigurableApplicationContext context = start(virtual)) {
+        String baseUri = "http://localhost:" + port(context) + "/dog_rescue";
+        seed(baseUri);
+
+        Supplier<HttpRequest> requests = readRequests(baseUri);
+        HttpLoadDriver driver = new HttpLoadDriver();
+
+        driver.run(levels.get(0), warmup, requests);
+
+        for(int concurrency : levels) {
+          LoadResult result = driver.run(concurrency, duration, requests);
+          report.add(mode + ": " + result);
+        }
+      }
+    }
+
+    System.out.println();
+    report.forEach(System.out::println);
+  }
+
+  /**
+   * Start the application with its own in-memory database.
+   * 
+   * @param virtual {@code true} to run requests on virtual threads.
+   * @return The application context.
+   */
+  private static ConfigurableApplicationContext start(boolean virtual) {
+    String db = virtual ? "virtual" : "platform";
+
+    // @formatter:off
+    return new SpringApplicationBuilder(DogRescueApplication.class)
+        .profiles(virtual ? "virtual-threads" : "default")
+        .run(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:" + db + ";MODE=MYSQL",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.datasource.hikari.maximum-pool-size=40",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.dog.rescue=WARN");
+    // @formatter:on
+  }
+
+  /**
+   * Return the port of the embedded web server.
+   * 
+   * @param context The application context.
+   * @return The port.
+   */
+  private static int port(ConfigurableApplicationContext context) {
+    return ((ServletWebServerApplicationContext)context).getWebServer()
+        .getPort();
+  }
+
+  /**
+   * Add the benchmark locations and dogs through the API.
+   * 
+   * @param baseUri The base URI of the API.
+   * @throws Exception Thrown if a request fails.
+   */
+  private static void seed(String baseUri) throws Exception {
+    HttpClient client = HttpClient.newHttpClient();
+    StringBuilder dogs = new StringBuilder("[");
+
+    for(int dog = 0; dog < DOGS_PER_LOCATION; dog++) {
+      dogs.append(dog == 0 ? "" : ",").append("{\"name\":\"Dog ").append(dog)
+          .append("\",\"age\":").append(dog % 15)
+          .append(",\"color\":\"Brown\",\"breeds\":[{\"name\":\"Beagle\"}]}");
+    }
+
+    dogs.append(']');
+
+    for(int location = 1; location <= LOCATIONS; location++) {
+      String body = "{\"businessName\":\"Rescue " + location
+          + "\",\"streetAddress\":\"" + location + " Main Street\"}";
+
+      client.send(post(baseUri + "/location", body), BodyHandlers.discarding());
+      client.send(post(baseUri + "/location/" + location + "/dog/batch",
+          dogs.toString()), BodyHandlers.discarding());
+    }
+  }
+
+  /**
+   * Build a POST request with a JSON body.
+   * 
+   * @param uri The URI.
+   * @param json The request body.
+   * @return The request.
+   */
+  private static HttpRequest post(String uri, String json) {
+    return HttpRequest.newBuilder(URI.create(uri))
+        .header("Content-Type", "application/json")
+        .POST(BodyPublishers.ofString(json)).build();
+  }
+
+  /**
+   * Return a supplier of read requests: half of them list a page of dogs at a
+   * random location and half retrieve a random location.
+   * 
+   * @param baseUri The base URI of the API.
+   * @return The request supplier.
+   */
+  private static Supplier<HttpRequest> readRequests(String baseUri) {
+    return () -> {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int location = random.nextInt(LOCATIONS) + 1;
+
+      return random.nextBoolean()
+          ? HttpLoadDriver.get(
+              baseUri + "/location/" + location + "/dog?limit=50")
+          : HttpLoadDriver.get(baseUri + "/location/" + location);
+    };
+  }
+}